@@ -50,10 +50,14 @@ CREATE TABLE IF NOT EXISTS dev.employees (
   updated_by varchar(255),
   created_at timestamp,
   updated_at timestamp,
+  token_version bigint NOT NULL DEFAULT 0,
   CONSTRAINT fk_manager FOREIGN KEY (manager_id) REFERENCES dev.employees(employee_id) ON DELETE SET NULL,
   CONSTRAINT fk_updated_by_emp FOREIGN KEY (updated_by) REFERENCES dev.employees(employee_id) ON DELETE SET NULL
 );
 
+-- Bumped on role/email/password changes to invalidate previously issued tokens
+ALTER TABLE dev.employees ADD COLUMN IF NOT EXISTS token_version bigint NOT NULL DEFAULT 0;
+
 -- Designation lookup with composite primary key (stream, band)
 CREATE TABLE IF NOT EXISTS dev.designation_lookup (
   stream varchar(50) NOT NULL,
@@ -126,6 +130,27 @@ CREATE INDEX IF NOT EXISTS idx_notifications_recipient_created
 CREATE INDEX IF NOT EXISTS idx_notifications_recipient_read_created
   ON dev.notifications(recipient_employee_id, is_read, created_at DESC);
 
+-- Read notifications moved out of the live table by the retention job
+CREATE TABLE IF NOT EXISTS dev.notifications_archive (
+  id bigint PRIMARY KEY,
+  recipient_employee_id varchar(255) NOT NULL,
+  type varchar(128) NOT NULL,
+  title varchar(255),
+  message text,
+  payload_json text,
+  is_read boolean NOT NULL,
+  read_at timestamp,
+  created_at timestamp NOT NULL,
+  updated_at timestamp,
+  archived_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_recipient_created
+  ON dev.notifications_archive(recipient_employee_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_read_created
+  ON dev.notifications(created_at)
+  WHERE is_read = true;
+
 -- Monthly submissions workflow
 CREATE TABLE IF NOT EXISTS dev.monthly_submissions (
   id BIGSERIAL PRIMARY KEY,
@@ -146,6 +171,29 @@ CREATE TABLE IF NOT EXISTS dev.monthly_submissions (
   CONSTRAINT fk_monthly_submission_employee FOREIGN KEY (employee_id) REFERENCES dev.employees(employee_id) ON DELETE CASCADE
 );
 
+-- Rating facts for analytics: one row per KPI / Webknot value rating, rewritten from the payload on every save
+CREATE TABLE IF NOT EXISTS dev.submission_ratings (
+  submission_id bigint NOT NULL,
+  source varchar(8) NOT NULL,
+  ordinal integer NOT NULL,
+  employee_id varchar(255) NOT NULL,
+  month varchar(7) NOT NULL,
+  submission_type varchar(64) NOT NULL,
+  status varchar(32) NOT NULL,
+  band varchar(16),
+  stream varchar(255),
+  manager_id varchar(255),
+  item_id varchar(255) NOT NULL,
+  item_label varchar(255),
+  rating real NOT NULL,
+  CONSTRAINT submission_ratings_pkey PRIMARY KEY (submission_id, source, ordinal),
+  CONSTRAINT fk_submission_ratings_submission FOREIGN KEY (submission_id)
+    REFERENCES dev.monthly_submissions(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_submission_ratings_month_source
+  ON dev.submission_ratings(month, source, submission_type);
+
 -- Employee-level submission window override
 CREATE TABLE IF NOT EXISTS dev.employee_submission_window_overrides (
   employee_id varchar(255) PRIMARY KEY,
@@ -0,0 +1,94 @@
+-- Optional: convert dev.notifications into a table range-partitioned by month on created_at.
+-- Run once during a maintenance window after dev_schema.sql, then set
+-- notifications.partitioning.enabled=true so the retention job keeps future partitions created.
+--
+-- Partition pruning applies to any query with a created_at bound (the retention job always has one),
+-- and archived months shrink to only their unread rows, so recipient list/count scans stay small.
+BEGIN;
+
+ALTER TABLE dev.notifications RENAME TO notifications_unpartitioned;
+ALTER SEQUENCE IF EXISTS dev.notifications_id_seq OWNED BY NONE;
+
+CREATE TABLE dev.notifications (
+  id bigint NOT NULL DEFAULT nextval('dev.notifications_id_seq'),
+  recipient_employee_id varchar(255) NOT NULL,
+  type varchar(128) NOT NULL,
+  title varchar(255),
+  message text,
+  payload_json text,
+  is_read boolean NOT NULL DEFAULT false,
+  read_at timestamp,
+  created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at timestamp,
+  -- the partition key has to be part of the primary key; ids stay globally unique via the shared sequence
+  CONSTRAINT notifications_pkey_partitioned PRIMARY KEY (id, created_at),
+  CONSTRAINT fk_notifications_recipient_partitioned FOREIGN KEY (recipient_employee_id)
+    REFERENCES dev.employees(employee_id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE dev.notifications_id_seq OWNED BY dev.notifications.id;
+
+-- Monthly partitions start at the month of the oldest existing row (or the current month for an empty table)
+CREATE TEMP TABLE notifications_first_month ON COMMIT DROP AS
+SELECT COALESCE(date_trunc('month', min(created_at)), date_trunc('month', CURRENT_DATE))::date AS first_month
+  FROM dev.notifications_unpartitioned;
+
+-- Catch-all for rows older than the first monthly partition created below
+DO $$
+BEGIN
+  EXECUTE format(
+    'CREATE TABLE dev.notifications_legacy PARTITION OF dev.notifications FOR VALUES FROM (MINVALUE) TO (%L)',
+    (SELECT first_month FROM notifications_first_month)
+  );
+END;
+$$;
+
+-- from_month defaults to the current month: the retention job only has to keep upcoming months created,
+-- earlier months were created when the table was converted.
+CREATE OR REPLACE FUNCTION dev.ensure_notification_partitions(months_ahead integer, from_month date DEFAULT NULL)
+RETURNS integer
+LANGUAGE plpgsql
+AS $$
+DECLARE
+  month_start date := date_trunc('month', CURRENT_DATE)::date;
+  first_month date := COALESCE(date_trunc('month', from_month)::date, month_start);
+  cursor_month date;
+  partition_name text;
+  created integer := 0;
+BEGIN
+  cursor_month := first_month;
+  WHILE cursor_month <= (month_start + make_interval(months => GREATEST(months_ahead, 0)))::date LOOP
+    partition_name := 'notifications_' || to_char(cursor_month, 'YYYY_MM');
+    IF to_regclass('dev.' || partition_name) IS NULL THEN
+      EXECUTE format(
+        'CREATE TABLE dev.%I PARTITION OF dev.notifications FOR VALUES FROM (%L) TO (%L)',
+        partition_name,
+        cursor_month,
+        (cursor_month + INTERVAL '1 month')::date
+      );
+      created := created + 1;
+    END IF;
+    cursor_month := (cursor_month + INTERVAL '1 month')::date;
+  END LOOP;
+  RETURN created;
+END;
+$$;
+
+SELECT dev.ensure_notification_partitions(2, (SELECT first_month FROM notifications_first_month));
+
+CREATE INDEX IF NOT EXISTS idx_notifications_p_recipient_created
+  ON dev.notifications(recipient_employee_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_p_recipient_read_created
+  ON dev.notifications(recipient_employee_id, is_read, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_p_read_created
+  ON dev.notifications(created_at)
+  WHERE is_read = true;
+
+INSERT INTO dev.notifications
+  (id, recipient_employee_id, type, title, message, payload_json, is_read, read_at, created_at, updated_at)
+SELECT id, recipient_employee_id, type, title, message, payload_json, is_read, read_at, created_at, updated_at
+  FROM dev.notifications_unpartitioned;
+
+DROP TABLE dev.notifications_unpartitioned;
+
+COMMIT;
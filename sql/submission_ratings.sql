@@ -0,0 +1,51 @@
+-- Rating extraction for dev.submission_ratings (see dev_schema.sql). Apply after dev_schema.sql on every
+-- database: SubmissionRatingRepository.extractFromSubmission calls dev.submission_rating_items on each save,
+-- and the backfill below uses the same function for submissions saved before rating facts existed.
+-- Safe to re-run: the function is replaced and only submissions without any fact rows are extracted.
+BEGIN;
+
+-- The numeric 1-5 ratings in a submission payload's kpiRatings and webknotValueResponses arrays. Items are
+-- identified by their id when the portal sent one and by their title otherwise; non-numeric or out-of-range
+-- ratings are skipped, as MonthlySubmissionService validation does.
+CREATE OR REPLACE FUNCTION dev.submission_rating_items(payload text)
+RETURNS TABLE (source text, ordinal integer, item_id text, item_label text, rating real)
+LANGUAGE sql IMMUTABLE AS $$
+  SELECT r.source, r.ordinal, left(r.item_id, 255), left(r.item_label, 255), r.rating
+    FROM (
+          SELECT 'KPI'::text AS source, k.ordinal::integer AS ordinal,
+                 coalesce(k.item ->> 'kpiId', k.item ->> 'kpiDefinitionId', k.item ->> 'id',
+                          k.item ->> 'kpiName', k.item ->> 'title') AS item_id,
+                 coalesce(k.item ->> 'title', k.item ->> 'kpiName', k.item ->> 'name') AS item_label,
+                 CASE WHEN k.item ->> 'rating' ~ '^ *([0-9]+|[0-9]+[.][0-9]+) *$'
+                      THEN (k.item ->> 'rating')::real END AS rating
+            FROM jsonb_array_elements(CASE
+                     WHEN jsonb_typeof(payload::jsonb -> 'kpiRatings') = 'array'
+                     THEN payload::jsonb -> 'kpiRatings'
+                     ELSE '[]'::jsonb END) WITH ORDINALITY AS k(item, ordinal)
+          UNION ALL
+          SELECT 'VALUE'::text, v.ordinal::integer,
+                 coalesce(v.item ->> 'valueId', v.item ->> 'webknotValueId', v.item ->> 'id',
+                          v.item ->> 'valueName', v.item ->> 'title'),
+                 coalesce(v.item ->> 'title', v.item ->> 'valueName', v.item ->> 'name'),
+                 CASE WHEN v.item ->> 'rating' ~ '^ *([0-9]+|[0-9]+[.][0-9]+) *$'
+                      THEN (v.item ->> 'rating')::real END
+            FROM jsonb_array_elements(CASE
+                     WHEN jsonb_typeof(payload::jsonb -> 'webknotValueResponses') = 'array'
+                     THEN payload::jsonb -> 'webknotValueResponses'
+                     ELSE '[]'::jsonb END) WITH ORDINALITY AS v(item, ordinal)
+         ) r
+   WHERE r.item_id IS NOT NULL
+     AND r.rating BETWEEN 1 AND 5
+$$;
+
+INSERT INTO dev.submission_ratings
+       (submission_id, source, ordinal, employee_id, month, submission_type, status,
+        band, stream, manager_id, item_id, item_label, rating)
+SELECT s.id, r.source, r.ordinal, s.employee_id, s.month, s.submission_type, s.status,
+       e.band::varchar, e.stream, e.manager_id, r.item_id, r.item_label, r.rating
+  FROM dev.monthly_submissions s
+  JOIN dev.employees e ON e.employee_id = s.employee_id
+  CROSS JOIN LATERAL dev.submission_rating_items(s.payload_json) r
+ WHERE NOT EXISTS (SELECT 1 FROM dev.submission_ratings f WHERE f.submission_id = s.id);
+
+COMMIT;
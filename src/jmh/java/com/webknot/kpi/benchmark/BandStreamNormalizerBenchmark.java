@@ -0,0 +1,115 @@
+package com.webknot.kpi.benchmark;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.CurrentStream;
+import com.webknot.kpi.util.BandStreamNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Band/stream parsing as it happens per CSV cell and per request filter, on mixed-case labels with separators
+ * and a share of misses. The {@code legacy*} benchmarks keep the previous regex/loop implementation for
+ * comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BandStreamNormalizerBenchmark {
+
+    private static final String[] BANDS = {
+            "B7L", "b7-l", " B5 ", "b5h", "B6 H", "b1", "B4", "b-8", "B3 ", "b9", "Band 5", "b2"
+    };
+
+    private static final String[] STREAMS = {
+            "Development", " backend ", "Full Stack", "QA", "Quality Assurance", "DevOps", "Dev-Sec-Ops",
+            "Data Science", "AI/ML", "UI/UX", "ux_design", "Marketing"
+    };
+
+    @Benchmark
+    public void parseBand(Blackhole bh) {
+        for (String raw : BANDS) {
+            bh.consume(BandStreamNormalizer.parseBand(raw));
+        }
+    }
+
+    @Benchmark
+    public void legacyParseBand(Blackhole bh) {
+        for (String raw : BANDS) {
+            bh.consume(Legacy.parseBand(raw));
+        }
+    }
+
+    @Benchmark
+    public void parseStream(Blackhole bh) {
+        for (String raw : STREAMS) {
+            bh.consume(BandStreamNormalizer.parseStream(raw));
+        }
+    }
+
+    @Benchmark
+    public void legacyParseStream(Blackhole bh) {
+        for (String raw : STREAMS) {
+            bh.consume(Legacy.parseStream(raw));
+        }
+    }
+
+    /**
+     * The implementation that {@link BandStreamNormalizer} replaced.
+     */
+    static final class Legacy {
+
+        static Optional<CurrentBand> parseBand(String raw) {
+            String key = normalizeBandKey(raw);
+            if (key.isBlank()) return Optional.empty();
+            for (CurrentBand band : CurrentBand.values()) {
+                if (normalizeBandKey(band.name()).equals(key)) {
+                    return Optional.of(band);
+                }
+            }
+            return Optional.empty();
+        }
+
+        static Optional<CurrentStream> parseStream(String raw) {
+            String key = normalizeStreamKey(raw);
+            if (key.isBlank()) return Optional.empty();
+            return switch (key) {
+                case "development", "dev", "backend", "frontend", "mobile", "fullstack", "engineering" ->
+                        Optional.of(CurrentStream.Development);
+                case "qa", "qualityassurance", "qualityengineering", "testing", "test" ->
+                        Optional.of(CurrentStream.QA);
+                case "devops", "devsecops", "sre", "ops", "operations" ->
+                        Optional.of(CurrentStream.Devops);
+                case "data", "datascience", "analytics", "ai", "ml", "aiml" ->
+                        Optional.of(CurrentStream.DATA);
+                case "uiux", "uxui", "ui", "ux", "design", "uidesign", "uxdesign" ->
+                        Optional.of(CurrentStream.UI_UX);
+                default -> Optional.empty();
+            };
+        }
+
+        private static String normalizeBandKey(String raw) {
+            if (raw == null) return "";
+            return raw.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+        }
+
+        private static String normalizeStreamKey(String raw) {
+            if (raw == null) return "";
+            return raw.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.webknot.kpi.benchmark;
+
+import com.webknot.kpi.service.CycleCalculationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cycle-key arithmetic behind {@code /cycles/*} and submission-window resolution. The {@code legacy*}
+ * benchmarks keep the previous formatter/{@code ZoneId.of} implementation for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CycleCalculationBenchmark {
+
+    private static final String TZ = "Asia/Kolkata";
+
+    private final CycleCalculationService service = new CycleCalculationService();
+
+    @Benchmark
+    public String nextCycleKey() {
+        return service.calculateNextCycleKey("2026-02");
+    }
+
+    @Benchmark
+    public String legacyNextCycleKey() {
+        return Legacy.calculateNextCycleKey("2026-02");
+    }
+
+    @Benchmark
+    public List<String> cycleRange() {
+        return service.getCycleRange("2025-01", "2026-12");
+    }
+
+    @Benchmark
+    public List<String> legacyCycleRange() {
+        return Legacy.getCycleRange("2025-01", "2026-12");
+    }
+
+    @Benchmark
+    public OffsetDateTime cycleStartAt() {
+        return service.getCycleStartAt("2026-02", TZ);
+    }
+
+    @Benchmark
+    public OffsetDateTime legacyCycleStartAt() {
+        return Legacy.getCycleStartAt("2026-02", TZ);
+    }
+
+    @Benchmark
+    public String currentCycleKey() {
+        return service.calculateCurrentCycleKey(TZ);
+    }
+
+    @Benchmark
+    public String legacyCurrentCycleKey() {
+        return Legacy.calculateCurrentCycleKey(TZ);
+    }
+
+    @Benchmark
+    public boolean isCurrentCycle() {
+        return service.isCurrentCycle("2026-02");
+    }
+
+    @Benchmark
+    public boolean legacyIsCurrentCycle() {
+        return Legacy.isCurrentCycle("2026-02");
+    }
+
+    /**
+     * The implementation that {@link CycleCalculationService} replaced.
+     */
+    static final class Legacy {
+
+        private static final DateTimeFormatter CYCLE_FMT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+        static String calculateCurrentCycleKey(String timezone) {
+            ZoneId zone = ZoneId.of(timezone);
+            ZonedDateTime localNow = ZonedDateTime.now().withZoneSameInstant(zone);
+            return YearMonth.from(localNow).format(CYCLE_FMT);
+        }
+
+        static String calculateNextCycleKey(String cycleKey) {
+            return YearMonth.parse(cycleKey, CYCLE_FMT).plusMonths(1).format(CYCLE_FMT);
+        }
+
+        static OffsetDateTime getCycleStartAt(String cycleKey, String timezone) {
+            YearMonth ym = YearMonth.parse(cycleKey, CYCLE_FMT);
+            LocalDateTime startLocal = ym.atDay(1).atStartOfDay();
+            return startLocal.atZone(ZoneId.of(timezone)).toOffsetDateTime();
+        }
+
+        static List<String> getCycleRange(String startCycleKey, String endCycleKey) {
+            YearMonth current = YearMonth.parse(startCycleKey, CYCLE_FMT);
+            YearMonth end = YearMonth.parse(endCycleKey, CYCLE_FMT);
+            List<String> cycles = new ArrayList<>();
+            while (!current.isAfter(end)) {
+                cycles.add(current.format(CYCLE_FMT));
+                current = current.plusMonths(1);
+            }
+            return cycles;
+        }
+
+        static boolean isCurrentCycle(String cycleKey) {
+            return YearMonth.parse(cycleKey, CYCLE_FMT).equals(YearMonth.now());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.webknot.kpi.benchmark;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification as run by the JWT filter on every authenticated request, for a token signed with the active
+ * key and for one signed with a previous key during rotation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String OLD_SECRET = "b2xkLXNpZ25pbmcta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+    private static final String NEW_SECRET = "bmV3LXNpZ25pbmcta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+
+    private JwtService jwtService;
+    private Employee employee;
+    private String activeKeyToken;
+    private String previousKeyToken;
+
+    @Setup
+    public void setUp() {
+        employee = new Employee();
+        employee.setEmployeeId("WK10042");
+        employee.setEmail("alex@webknot.in");
+        employee.setEmpRole(EmployeeRole.Manager);
+
+        long oneHour = TimeUnit.HOURS.toMillis(1);
+        previousKeyToken = new JwtService(OLD_SECRET, oneHour, "k1", "").generateToken(employee);
+        jwtService = new JwtService(NEW_SECRET, oneHour, "k2", "k1:" + OLD_SECRET);
+        activeKeyToken = jwtService.generateToken(employee);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyActiveKey() {
+        return jwtService.verify(activeKeyToken);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyPreviousKey() {
+        return jwtService.verify(previousKeyToken);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(employee);
+    }
+}
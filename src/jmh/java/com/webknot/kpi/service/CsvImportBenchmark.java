@@ -0,0 +1,65 @@
+package com.webknot.kpi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV decoding, record splitting and row-map building for an employee upload of 1k, 10k and 100k rows, with
+ * quoted fields and embedded commas. Lives in the service package because {@code parseCsv} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    private static final String[] STREAMS = {"Development", "QA", "DevOps", "Data Science", "UI/UX"};
+    private static final String[] BANDS = {"B8", "B7L", "B7H", "B6L", "B6H", "B5L", "B5H"};
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private CsvImportService service;
+    private MockMultipartFile file;
+
+    @Setup
+    public void setUp() {
+        service = new CsvImportService(null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, new SimpleMeterRegistry(), "Password@123", 200_000);
+        StringBuilder csv = new StringBuilder(rows * 120);
+        csv.append("employeeId,employeeName,email,stream,band,designation,managerId,empRole\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("WK").append(10_000 + i).append(',')
+                    .append('"').append("Surname").append(i).append(", Given").append('"').append(',')
+                    .append("user").append(i).append("@webknot.in").append(',')
+                    .append(STREAMS[i % STREAMS.length]).append(',')
+                    .append(BANDS[i % BANDS.length]).append(',')
+                    .append("Engineer").append(',')
+                    .append(i < 50 ? "" : "WK" + (10_000 + i % 50)).append(',')
+                    .append(i < 50 ? "Manager" : "Employee").append('\n');
+        }
+        file = new MockMultipartFile("file", "employees.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public CsvImportService.CsvData parseEmployees() {
+        return service.parseCsv(file);
+    }
+}
@@ -0,0 +1,142 @@
+package com.webknot.kpi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.MonthlySubmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload handling behind save, submit, review and the history/team reads, on a submission the size of a
+ * typical monthly review: 12 KPI ratings, 6 value responses, 3 certifications and manager review comments.
+ * Lives in the service package because the helpers are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonthlySubmissionBenchmark {
+
+    private MonthlySubmissionService service;
+    private Map<String, Object> payload;
+    private Map<String, Object> reviewPatch;
+    private MonthlySubmission row;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        service = new MonthlySubmissionService(null, null, objectMapper, null, null, new SimpleMeterRegistry(), null);
+        payload = selfReviewPayload();
+        reviewPatch = managerReviewPatch();
+
+        Employee employee = new Employee();
+        employee.setEmployeeId("WK10042");
+        employee.setEmployeeName("Alex Doe");
+        employee.setEmail("alex@webknot.in");
+        employee.setStream("Development");
+        employee.setBand(CurrentBand.B6H);
+
+        row = new MonthlySubmission();
+        row.setId(4242L);
+        row.setEmployee(employee);
+        row.setMonth("2026-02");
+        row.setSubmissionType("EMPLOYEE_MONTHLY_SUBMISSION");
+        row.setStatus("SUBMITTED");
+        row.setReviewStatus("MANAGER_APPROVED");
+        row.setPayloadJson(objectMapper.writeValueAsString(payload));
+        row.setManagerReviewJson(objectMapper.writeValueAsString(reviewPatch.get("managerReview")));
+        row.setSubmittedAt(LocalDateTime.of(2026, 2, 27, 10, 15));
+        row.setManagerSubmittedAt(LocalDateTime.of(2026, 3, 2, 16, 40));
+        row.setCreatedAt(LocalDateTime.of(2026, 2, 20, 9, 0));
+        row.setUpdatedAt(LocalDateTime.of(2026, 3, 2, 16, 40));
+    }
+
+    @Benchmark
+    public Map<String, Object> deepMerge() {
+        Map<String, Object> merged = new LinkedHashMap<>(payload);
+        service.deepMerge(merged, reviewPatch);
+        return merged;
+    }
+
+    @Benchmark
+    public Map<String, Object> validateForSubmit() {
+        service.validatePayload(payload, true);
+        return payload;
+    }
+
+    @Benchmark
+    public Map<String, Object> toResponse() {
+        return service.toResponse(row, true);
+    }
+
+    @Benchmark
+    public Map<String, Object> toReadResponse() {
+        return service.toReadResponse(row, true, null);
+    }
+
+    private static Map<String, Object> selfReviewPayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        List<Map<String, Object>> kpiRatings = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            Map<String, Object> rating = new LinkedHashMap<>();
+            rating.put("kpiId", "KPI-" + i);
+            rating.put("title", "Delivery objective " + i);
+            rating.put("weightage", 100 / 12);
+            rating.put("rating", 1 + i % 5);
+            rating.put("comment", "Closed the planned scope for objective " + i + " with two follow-ups carried over.");
+            kpiRatings.add(rating);
+        }
+        List<Map<String, Object>> valueResponses = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("valueId", "VAL-" + i);
+            value.put("rating", 1 + i % 5);
+            value.put("example", "Paired with the QA stream to unblock release " + i + ".");
+            valueResponses.add(value);
+        }
+        List<Map<String, Object>> certifications = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Map<String, Object> certification = new LinkedHashMap<>();
+            certification.put("certificationId", "CERT-" + i);
+            certification.put("status", i == 3 ? "IN_PROGRESS" : "COMPLETED");
+            certifications.add(certification);
+        }
+        payload.put("month", "2026-02");
+        payload.put("kpiRatings", kpiRatings);
+        payload.put("webknotValueResponses", valueResponses);
+        payload.put("certifications", certifications);
+        payload.put("recognitionsCount", 2);
+        payload.put("selfReviewText", "Shipped the billing migration, mentored two new joiners and reduced flaky tests.");
+        return payload;
+    }
+
+    private static Map<String, Object> managerReviewPatch() {
+        Map<String, Object> managerReview = new LinkedHashMap<>();
+        managerReview.put("action", "APPROVE");
+        managerReview.put("comments", "Strong month. Keep pushing on test coverage for the payments module.");
+        managerReview.put("overallRating", 4);
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("managerReview", managerReview);
+        patch.put("recognitionsCount", 3);
+        return patch;
+    }
+}
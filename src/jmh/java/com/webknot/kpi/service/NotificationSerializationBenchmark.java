@@ -0,0 +1,87 @@
+package com.webknot.kpi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification JSON on both sides: serializing the payload map when a notification is stored, and writing a
+ * 25-item page (the default list size, and what an SSE event carries per item) with the stored payload passed
+ * through as raw JSON. Lives in the service package because {@code serializePayload} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private NotificationService service;
+    private Map<String, Object> payload;
+    private NotificationService.NotificationPayload event;
+    private NotificationService.NotificationPage page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        service = new NotificationService(null, null, objectMapper, new SimpleMeterRegistry(), 180);
+
+        payload = new LinkedHashMap<>();
+        payload.put("employeeId", "WK10042");
+        payload.put("employeeName", "Alex Doe");
+        payload.put("managerId", "WK10007");
+        payload.put("managerName", "Sam Roe");
+        payload.put("month", "2026-02");
+        payload.put("submissionId", 4242L);
+        payload.put("link", "/monthly-submissions/4242");
+
+        String storedPayload = service.serializePayload(payload);
+        List<NotificationService.NotificationPayload> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            items.add(new NotificationService.NotificationPayload(
+                    String.valueOf(9000 + i),
+                    NotificationService.TYPE_EMPLOYEE_SUBMITTED_FOR_REVIEW,
+                    "Monthly submission ready for review",
+                    "Alex Doe submitted the 2026-02 review.",
+                    "2026-03-01T10:15:30",
+                    i % 3 == 0,
+                    storedPayload
+            ));
+        }
+        event = items.get(0);
+        page = new NotificationService.NotificationPage(items, "8975", 17L);
+    }
+
+    @Benchmark
+    public String storePayload() {
+        return service.serializePayload(payload);
+    }
+
+    @Benchmark
+    public String writeEvent() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public String writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+}
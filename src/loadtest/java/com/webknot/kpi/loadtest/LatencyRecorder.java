@@ -0,0 +1,77 @@
+package com.webknot.kpi.loadtest;
+
+import com.webknot.kpi.loadtest.LoadProfile.Operation;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Raw per-operation latencies for one measurement window. Samples are kept in full and sorted once at the end,
+ * so percentiles are exact rather than bucketed; a 60-second run at a few thousand requests per second fits
+ * comfortably in memory.
+ */
+class LatencyRecorder {
+
+    private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+        for (Operation operation : Operation.values()) {
+            samples.put(operation, new Samples());
+        }
+    }
+
+    void record(Operation operation, long nanos, boolean ok) {
+        samples.get(operation).add(nanos, ok);
+    }
+
+    record Summary(String operation, int count, long errors, double perSecond,
+                   double p50Ms, double p90Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+
+    Map<Operation, Summary> summarize(double windowSeconds) {
+        Map<Operation, Summary> summaries = new LinkedHashMap<>();
+        for (Map.Entry<Operation, Samples> entry : samples.entrySet()) {
+            long[] sorted = entry.getValue().snapshot();
+            if (sorted.length == 0) continue;
+            Arrays.sort(sorted);
+            summaries.put(entry.getKey(), new Summary(
+                    entry.getKey().key(),
+                    sorted.length,
+                    entry.getValue().errors.get(),
+                    sorted.length / Math.max(windowSeconds, 0.001),
+                    percentile(sorted, 0.50),
+                    percentile(sorted, 0.90),
+                    percentile(sorted, 0.95),
+                    percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1_000_000.0
+            ));
+        }
+        return summaries;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) errors.incrementAndGet();
+        }
+
+        synchronized long[] snapshot() {
+            return Arrays.copyOf(nanos, size);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.webknot.kpi.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shape of a load run, parsed from {@code key=value} program arguments. Unknown keys are rejected so a typo does
+ * not silently run the defaults.
+ *
+ * <pre>
+ * employees=500 months=6 teamSize=8 users=50 sse=100 warmupSeconds=15 durationSeconds=60
+ * mix=draft:40,submit:10,history:15,team:20,admin:15 threads=platform jdbcUrl=jdbc:postgresql://... sqlDir=sql
+ * </pre>
+ */
+record LoadProfile(int employees,
+                   int months,
+                   int teamSize,
+                   int users,
+                   int sseSubscribers,
+                   int warmupSeconds,
+                   int durationSeconds,
+                   Map<Operation, Integer> mix,
+                   boolean virtualThreads,
+                   String jdbcUrl,
+                   String jdbcUser,
+                   String jdbcPassword,
+                   Path sqlDir,
+                   Path resultFile) {
+
+    enum Operation {
+        DRAFT("draft"),
+        SUBMIT("submit"),
+        HISTORY("history"),
+        TEAM("team"),
+        ADMIN("admin"),
+        ANALYTICS("analytics");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key.trim())) return operation;
+            }
+            throw new IllegalArgumentException("Unknown operation in mix: " + key);
+        }
+    }
+
+    static LoadProfile parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg == null || arg.isBlank()) continue;
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            values.put(arg.substring(0, eq).trim().toLowerCase(Locale.ROOT), arg.substring(eq + 1).trim());
+        }
+
+        LoadProfile profile = new LoadProfile(
+                positive(values.remove("employees"), 500, "employees"),
+                nonNegative(values.remove("months"), 6, "months"),
+                positive(values.remove("teamsize"), 8, "teamSize"),
+                positive(values.remove("users"), 50, "users"),
+                nonNegative(values.remove("sse"), 100, "sse"),
+                nonNegative(values.remove("warmupseconds"), 15, "warmupSeconds"),
+                positive(values.remove("durationseconds"), 60, "durationSeconds"),
+                parseMix(values.remove("mix")),
+                parseThreads(values.remove("threads")),
+                blankToNull(values.remove("jdbcurl")),
+                values.getOrDefault("jdbcuser", "postgres"),
+                values.getOrDefault("jdbcpassword", "postgres"),
+                Path.of(values.getOrDefault("sqldir", "sql")),
+                Path.of(values.getOrDefault("result", "target/loadtest-result.json"))
+        );
+        values.remove("jdbcuser");
+        values.remove("jdbcpassword");
+        values.remove("sqldir");
+        values.remove("result");
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown load profile keys: " + values.keySet());
+        }
+        return profile;
+    }
+
+    int managers() {
+        return Math.max(1, (employees + teamSize - 1) / teamSize);
+    }
+
+    private static Map<Operation, Integer> parseMix(String raw) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        if (raw == null || raw.isBlank()) {
+            mix.put(Operation.DRAFT, 40);
+            mix.put(Operation.SUBMIT, 10);
+            mix.put(Operation.HISTORY, 15);
+            mix.put(Operation.TEAM, 20);
+            mix.put(Operation.ADMIN, 15);
+            return mix;
+        }
+        for (String part : raw.split(",")) {
+            String[] pair = part.split(":");
+            if (pair.length != 2) throw new IllegalArgumentException("Expected operation:weight in mix, got: " + part);
+            mix.put(Operation.fromKey(pair[0]), nonNegative(pair[1], 0, "mix weight"));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than zero.");
+        }
+        return mix;
+    }
+
+    private static boolean parseThreads(String raw) {
+        if (raw == null || raw.isBlank() || "platform".equalsIgnoreCase(raw.trim())) return false;
+        if ("virtual".equalsIgnoreCase(raw.trim())) return true;
+        throw new IllegalArgumentException("threads must be platform or virtual, got: " + raw);
+    }
+
+    private static int positive(String raw, int fallback, String name) {
+        int value = nonNegative(raw, fallback, name);
+        if (value == 0) throw new IllegalArgumentException(name + " must be greater than zero.");
+        return value;
+    }
+
+    private static int nonNegative(String raw, int fallback, String name) {
+        if (raw == null || raw.isBlank()) return fallback;
+        try {
+            int value = Integer.parseInt(raw.trim());
+            if (value < 0) throw new IllegalArgumentException(name + " cannot be negative.");
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + raw);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,299 @@
+package com.webknot.kpi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.webknot.kpi.KpiApplication;
+import com.webknot.kpi.loadtest.LoadProfile.Operation;
+import com.webknot.kpi.loadtest.OrgSeeder.Actor;
+import com.webknot.kpi.loadtest.OrgSeeder.Org;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.JwtService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application against an embedded PostgreSQL (or {@code jdbcUrl=}), seeds a synthetic org and replays a
+ * month-end mix of drafts, submits, history reads, manager team views and admin listings while notification
+ * streams stay open. Prints latency percentiles per operation and the peak Hikari pool wait, and writes the same
+ * numbers to {@code target/loadtest-result.json}.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="employees=2000 months=12 users=100 sse=300"
+ * </pre>
+ */
+public final class MonthEndLoadHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthEndLoadHarness.class);
+
+    private static final List<String> SCHEMA_SCRIPTS = List.of(
+            "dev_schema.sql",
+            "certifications_webknot_values_seed.sql",
+            "designation_lookup_details_seed.sql",
+            "submission_ratings.sql"
+    );
+
+    private MonthEndLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        EmbeddedPostgres postgres = null;
+        String jdbcUrl = profile.jdbcUrl();
+        String jdbcUser = profile.jdbcUser();
+        String jdbcPassword = profile.jdbcPassword();
+        try {
+            if (jdbcUrl == null) {
+                postgres = EmbeddedPostgres.builder().start();
+                jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+                jdbcUser = "postgres";
+                jdbcPassword = "postgres";
+                applySchema(postgres.getPostgresDatabase(), profile.sqlDir());
+            }
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(KpiApplication.class)
+                    .run(applicationArgs(profile, jdbcUrl, jdbcUser, jdbcPassword))) {
+                run(profile, app);
+            }
+        } finally {
+            if (postgres != null) postgres.close();
+        }
+    }
+
+    private static void run(LoadProfile profile, ConfigurableApplicationContext app) throws Exception {
+        int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        ObjectMapper objectMapper = app.getBean(ObjectMapper.class);
+        HikariDataSource dataSource = app.getBean(DataSource.class).unwrap(HikariDataSource.class);
+        MeterRegistry meterRegistry = app.getBean(MeterRegistry.class);
+
+        Org org = new OrgSeeder(
+                profile,
+                client,
+                baseUri,
+                new JdbcTemplate(dataSource),
+                app.getBean(PasswordEncoder.class),
+                app.getBean(JwtService.class),
+                app.getBean(EmployeeRepository.class),
+                objectMapper
+        ).seed();
+
+        List<Actor> subscribers = new ArrayList<>();
+        for (int i = 0; i < profile.sseSubscribers(); i++) {
+            int slot = i % (org.managers().size() + org.employees().size());
+            subscribers.add(slot < org.managers().size()
+                    ? org.managers().get(slot)
+                    : org.employees().get(slot - org.managers().size()));
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        MixRunner runner = new MixRunner(profile, client, baseUri, objectMapper, org, recorder);
+        try (SseSubscribers sse = new SseSubscribers(client, baseUri);
+             PoolWaitSampler sampler = new PoolWaitSampler(dataSource, meterRegistry)) {
+            sse.start(subscribers);
+            log.info("Warming up for {}s with {} users and {} notification streams on {} threads",
+                    profile.warmupSeconds(), profile.users(), subscribers.size(),
+                    profile.virtualThreads() ? "virtual" : "platform");
+            runner.run(profile.warmupSeconds(), false);
+
+            log.info("Measuring for {}s", profile.durationSeconds());
+            sampler.start();
+            long startedAt = System.nanoTime();
+            runner.run(profile.durationSeconds(), true);
+            double windowSeconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+            report(profile, recorder.summarize(windowSeconds), sampler.peak(), sse.stats(), objectMapper);
+        }
+    }
+
+    private static String[] applicationArgs(LoadProfile profile, String jdbcUrl, String jdbcUser, String jdbcPassword) {
+        return new String[]{
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + profile.virtualThreads(),
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + jdbcUser,
+                "--spring.datasource.password=" + jdbcPassword,
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.jpa.properties.hibernate.default_schema=dev",
+                "--spring.redis.enabled=false",
+                "--ai.enhance.stub.enabled=true",
+                "--imports.csv.max-rows=100000",
+                "--notifications.retention.enabled=false",
+                "--logging.level.com.webknot.kpi=WARN",
+                "--logging.level.com.webknot.kpi.loadtest=INFO"
+        };
+    }
+
+    private static void applySchema(DataSource dataSource, Path sqlDir) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            for (String script : SCHEMA_SCRIPTS) {
+                Path path = sqlDir.resolve(script);
+                if (!Files.isRegularFile(path)) {
+                    throw new IllegalStateException("Schema script not found: " + path.toAbsolutePath()
+                            + " (set sqlDir= to the repository's sql directory)");
+                }
+                // one statement per file: the driver splits it and keeps dollar-quoted function bodies intact
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(Files.readString(path));
+                }
+            }
+        }
+    }
+
+    private static void report(LoadProfile profile,
+                               Map<Operation, LatencyRecorder.Summary> operations,
+                               PoolWaitSampler.Peak pool,
+                               SseSubscribers.Stats sse,
+                               ObjectMapper objectMapper) throws Exception {
+        log.info(String.format("%-8s %8s %7s %9s %9s %9s %9s %9s %9s",
+                "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        for (LatencyRecorder.Summary s : operations.values()) {
+            log.info(String.format("%-8s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f",
+                    s.operation(), s.count(), s.errors(), s.perSecond(),
+                    s.p50Ms(), s.p90Ms(), s.p95Ms(), s.p99Ms(), s.maxMs()));
+        }
+        log.info("Hikari pool: maxSize={} peakActive={} peakPending={} peakAcquireMs={}",
+                pool.maxPoolSize(), pool.peakActive(), pool.peakPending(), String.format("%.1f", pool.peakAcquireMillis()));
+        log.info("Threads: mode={} peakPlatformThreads={} dbLimiterPeakWaiting={} dbLimiterPeakAcquireMs={}",
+                profile.virtualThreads() ? "virtual" : "platform", pool.peakPlatformThreads(),
+                pool.peakLimiterWaiting(), String.format("%.1f", pool.peakLimiterAcquireMillis()));
+        log.info("Notification streams: peakConnected={} connects={} failedConnects={} events={}",
+                sse.peakConnected(), sse.connects(), sse.failedConnects(), sse.events());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("profile", profile);
+        result.put("operations", operations.values());
+        result.put("pool", pool);
+        result.put("sse", sse);
+        Path resultFile = profile.resultFile();
+        if (resultFile.getParent() != null) Files.createDirectories(resultFile.getParent());
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), result);
+        log.info("Results written to {}", resultFile.toAbsolutePath());
+    }
+
+    /**
+     * Closed-loop virtual users: each picks an operation by weight, waits for the response and goes again.
+     */
+    private static final class MixRunner {
+
+        private final LoadProfile profile;
+        private final HttpClient client;
+        private final URI baseUri;
+        private final ObjectMapper objectMapper;
+        private final Org org;
+        private final LatencyRecorder recorder;
+        private final Operation[] weighted;
+
+        MixRunner(LoadProfile profile,
+                  HttpClient client,
+                  URI baseUri,
+                  ObjectMapper objectMapper,
+                  Org org,
+                  LatencyRecorder recorder) {
+            this.profile = profile;
+            this.client = client;
+            this.baseUri = baseUri;
+            this.objectMapper = objectMapper;
+            this.org = org;
+            this.recorder = recorder;
+            List<Operation> slots = new ArrayList<>();
+            profile.mix().forEach((operation, weight) -> {
+                for (int i = 0; i < weight; i++) slots.add(operation);
+            });
+            this.weighted = slots.toArray(new Operation[0]);
+        }
+
+        void run(int seconds, boolean measure) throws InterruptedException {
+            if (seconds <= 0) return;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            ExecutorService users = Executors.newFixedThreadPool(profile.users());
+            for (int i = 0; i < profile.users(); i++) {
+                users.submit(() -> {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+                        long startedAt = System.nanoTime();
+                        boolean ok = send(operation);
+                        if (measure) recorder.record(operation, System.nanoTime() - startedAt, ok);
+                    }
+                });
+            }
+            users.shutdown();
+            if (!users.awaitTermination(seconds + 60L, TimeUnit.SECONDS)) {
+                users.shutdownNow();
+            }
+        }
+
+        private boolean send(Operation operation) {
+            try {
+                String month = YearMonth.now().toString();
+                HttpRequest request = switch (operation) {
+                    case DRAFT -> post("/monthly-submissions/draft", randomOf(org.employees()), month);
+                    case SUBMIT -> post("/monthly-submissions/submit", randomOf(org.employees()), month);
+                    case HISTORY -> get("/monthly-submissions/me/history", randomOf(org.employees()));
+                    case TEAM -> get("/monthly-submissions/manager/team?month=" + month, randomOf(org.managers()));
+                    case ADMIN -> get("/monthly-submissions/admin/all?month=" + month, org.admin());
+                    case ANALYTICS -> get("/analytics/ratings?groupBy=kpi&month=" + YearMonth.now().minusMonths(1), org.admin());
+                };
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() / 100 == 2;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private HttpRequest post(String path, Actor actor, String month) throws Exception {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Authorization", "Bearer " + actor.token())
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(60))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(OrgSeeder.selfReview(month))))
+                    .build();
+        }
+
+        private HttpRequest get(String path, Actor actor) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .header("Authorization", "Bearer " + actor.token())
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+        }
+
+        private static Actor randomOf(List<Actor> actors) {
+            return actors.get(ThreadLocalRandom.current().nextInt(actors.size()));
+        }
+    }
+}
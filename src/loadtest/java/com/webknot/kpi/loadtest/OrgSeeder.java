@@ -0,0 +1,281 @@
+package com.webknot.kpi.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds the synthetic org a load run works against: one admin, {@code managers} team leads and their reports,
+ * plus {@code months} of approved monthly submissions per employee.
+ *
+ * <p>Employees go through the admin CSV import endpoint, so the run pays the same import cost as production.
+ * Past months are written with batched inserts because there is no import path for submission history and the
+ * submit endpoint only accepts the current cycle's workflow.
+ */
+class OrgSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgSeeder.class);
+
+    static final String ADMIN_ID = "LTA00001";
+    static final String TYPE_EMPLOYEE = "EMPLOYEE_MONTHLY_SUBMISSION";
+
+    private static final int CSV_CHUNK_ROWS = 1_000;
+    private static final int HISTORY_BATCH_ROWS = 500;
+    private static final String[] STREAMS = {"Development", "QA", "Devops", "DATA", "UI_UX"};
+    private static final String[] BANDS = {"B8", "B7L", "B7H", "B6L"};
+
+    private final LoadProfile profile;
+    private final HttpClient client;
+    private final URI baseUri;
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+
+    OrgSeeder(LoadProfile profile,
+              HttpClient client,
+              URI baseUri,
+              JdbcTemplate jdbc,
+              PasswordEncoder passwordEncoder,
+              JwtService jwtService,
+              EmployeeRepository employeeRepository,
+              ObjectMapper objectMapper) {
+        this.profile = profile;
+        this.client = client;
+        this.baseUri = baseUri;
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtService = jwtService;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    record Actor(String employeeId, String token) {
+    }
+
+    record Org(Actor admin, List<Actor> managers, List<Actor> employees) {
+    }
+
+    Org seed() throws IOException, InterruptedException {
+        long startedAt = System.nanoTime();
+        bootstrapAdmin();
+        Actor admin = mint(List.of(ADMIN_ID)).get(0);
+
+        List<String> managerIds = new ArrayList<>();
+        List<String> employeeIds = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        for (int m = 1; m <= profile.managers(); m++) {
+            String id = managerId(m);
+            managerIds.add(id);
+            rows.add(csvRow(id, "Manager", "B6H", STREAMS[m % STREAMS.length], ""));
+        }
+        for (int e = 1; e <= profile.employees(); e++) {
+            String id = String.format("LTE%05d", e);
+            employeeIds.add(id);
+            String manager = managerId(1 + (e - 1) / profile.teamSize());
+            rows.add(csvRow(id, "Employee", BANDS[e % BANDS.length], STREAMS[e % STREAMS.length], manager));
+        }
+        importEmployees(admin, rows);
+
+        int historyRows = insertHistory(employeeIds);
+        backfillRatings();
+        Org org = new Org(admin, mint(managerIds), mint(employeeIds));
+        log.info("Seeded org: managers={} employees={} historyRows={} durationMs={}",
+                managerIds.size(), employeeIds.size(), historyRows, (System.nanoTime() - startedAt) / 1_000_000L);
+        return org;
+    }
+
+    /**
+     * A self-review payload shaped like the portal's: 8 KPI ratings, 5 value responses and a couple of
+     * certifications.
+     */
+    static Map<String, Object> selfReview(String month) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> kpiRatings = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            Map<String, Object> rating = new LinkedHashMap<>();
+            rating.put("kpiId", "KPI-" + i);
+            rating.put("title", "Delivery objective " + i);
+            rating.put("weightage", 12.5);
+            rating.put("rating", 1 + random.nextInt(5));
+            rating.put("comment", "Closed the planned scope for objective " + i + " with follow-ups tracked.");
+            kpiRatings.add(rating);
+        }
+        List<Map<String, Object>> valueResponses = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Map<String, Object> value = new LinkedHashMap<>();
+            value.put("valueId", "VAL-" + i);
+            value.put("rating", 1 + random.nextInt(5));
+            value.put("example", "Paired across streams to unblock release " + i + ".");
+            valueResponses.add(value);
+        }
+        List<Map<String, Object>> certifications = List.of(
+                Map.of("certificationId", "CERT-1", "status", "COMPLETED"),
+                Map.of("certificationId", "CERT-2", "status", "IN_PROGRESS")
+        );
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("month", month);
+        payload.put("kpiRatings", kpiRatings);
+        payload.put("webknotValueResponses", valueResponses);
+        payload.put("certifications", certifications);
+        payload.put("recognitionsCount", random.nextInt(4));
+        payload.put("selfReviewText", "Shipped the planned milestones, reviewed peers' work and paid down test debt.");
+        return payload;
+    }
+
+    private void bootstrapAdmin() {
+        jdbc.update("""
+                INSERT INTO dev.employees (employee_id, employee_name, email, password, emp_role, stream, band,
+                                           created_at, updated_at, token_version)
+                VALUES (?, ?, ?, ?, CAST(? AS dev.employee_role), ?, CAST(? AS dev.current_band), now(), now(), 0)
+                ON CONFLICT (employee_id) DO NOTHING
+                """,
+                ADMIN_ID, "Load Test Admin", "loadtest.admin@webknot.in",
+                passwordEncoder.encode(UUID.randomUUID().toString()), "Admin", "Development", "B4");
+    }
+
+    private void importEmployees(Actor admin, List<String> rows) throws IOException, InterruptedException {
+        String header = "employeeId,employeeName,email,stream,band,designation,managerId,empRole\n";
+        for (int from = 0; from < rows.size(); from += CSV_CHUNK_ROWS) {
+            StringBuilder csv = new StringBuilder(header);
+            rows.subList(from, Math.min(rows.size(), from + CSV_CHUNK_ROWS)).forEach(row -> csv.append(row).append('\n'));
+
+            String boundary = "----kpi-loadtest-" + UUID.randomUUID();
+            String body = "--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"employees.csv\"\r\n"
+                    + "Content-Type: text/csv\r\n\r\n"
+                    + csv
+                    + "\r\n--" + boundary + "--\r\n";
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/admin/imports/csv/employees"))
+                    .header("Authorization", "Bearer " + admin.token())
+                    .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Employee import failed with status " + response.statusCode()
+                        + ": " + response.body());
+            }
+            log.info("Imported employee rows {}-{}", from + 1, Math.min(rows.size(), from + CSV_CHUNK_ROWS));
+        }
+    }
+
+    private int insertHistory(List<String> employeeIds) throws JsonProcessingException {
+        if (profile.months() == 0) return 0;
+        YearMonth current = YearMonth.now();
+        List<Object[]> batch = new ArrayList<>(HISTORY_BATCH_ROWS);
+        int inserted = 0;
+        for (String employeeId : employeeIds) {
+            for (int back = 1; back <= profile.months(); back++) {
+                YearMonth month = current.minusMonths(back);
+                LocalDateTime submittedAt = month.atDay(25).atTime(11, 0);
+                Map<String, Object> payload = selfReview(month.toString());
+                payload.put("submissionType", TYPE_EMPLOYEE);
+                payload.put("employeeId", employeeId);
+                payload.put("reviewStatus", "MANAGER_APPROVED");
+                Map<String, Object> managerReview = Map.of(
+                        "action", "APPROVE",
+                        "comments", "Consistent month, keep the test coverage trend going.",
+                        "overallRating", 1 + ThreadLocalRandom.current().nextInt(5));
+                payload.put("managerReview", managerReview);
+                batch.add(new Object[]{
+                        employeeId,
+                        month.toString(),
+                        TYPE_EMPLOYEE,
+                        "SUBMITTED",
+                        "MANAGER_APPROVED",
+                        objectMapper.writeValueAsString(payload),
+                        objectMapper.writeValueAsString(managerReview),
+                        Timestamp.valueOf(submittedAt),
+                        Timestamp.valueOf(submittedAt.plusDays(4)),
+                        Timestamp.valueOf(submittedAt.minusDays(5)),
+                        Timestamp.valueOf(submittedAt.plusDays(4))
+                });
+                if (batch.size() == HISTORY_BATCH_ROWS) {
+                    inserted += flushHistory(batch);
+                }
+            }
+        }
+        return inserted + flushHistory(batch);
+    }
+
+    /**
+     * History bypasses the service, so its rating facts come from the same backfill script an existing
+     * database would run.
+     */
+    private void backfillRatings() throws IOException {
+        if (profile.months() == 0) return;
+        // one statement for the whole file: the driver splits it and keeps the dollar-quoted function body intact
+        jdbc.execute(Files.readString(profile.sqlDir().resolve("submission_ratings.sql")));
+    }
+
+        private int flushHistory(List<Object[]> batch) {
+        if (batch.isEmpty()) return 0;
+        jdbc.batchUpdate("""
+                INSERT INTO dev.monthly_submissions (employee_id, month, submission_type, status, review_status,
+                                                     payload_json, manager_review_json, submitted_at,
+                                                     manager_submitted_at, created_at, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                ON CONFLICT ON CONSTRAINT monthly_submissions_employee_month_type_key DO NOTHING
+                """, batch);
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Signs tokens the same way login does, without paying a BCrypt check per simulated user.
+     */
+    private List<Actor> mint(List<String> employeeIds) {
+        Map<String, Employee> byId = new LinkedHashMap<>();
+        employeeRepository.findAllById(employeeIds).forEach(employee -> byId.put(employee.getEmployeeId(), employee));
+        List<Actor> actors = new ArrayList<>(employeeIds.size());
+        for (String id : employeeIds) {
+            Employee employee = byId.get(id);
+            if (employee == null) throw new IllegalStateException("Seeded employee is missing: " + id);
+            actors.add(new Actor(id, jwtService.generateToken(employee)));
+        }
+        return actors;
+    }
+
+    private static String managerId(int index) {
+        return String.format("LTM%05d", index);
+    }
+
+    private static String csvRow(String id, String role, String band, String stream, String managerId) {
+        return String.join(",",
+                id,
+                "Load " + id,
+                id.toLowerCase(Locale.ROOT) + "@loadtest.webknot.in",
+                stream,
+                band,
+                "Engineer",
+                managerId,
+                role);
+    }
+}
@@ -0,0 +1,103 @@
+package com.webknot.kpi.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the Hikari pool while the load runs and keeps the worst values seen: threads queued for a connection,
+ * connections in use, and the longest single acquire from {@code hikaricp.connections.acquire}. The timer's own
+ * max decays after a couple of minutes, so it is sampled alongside the pool rather than read once at the end.
+ * Also tracks the database limiter in front of the pool and the JVM's platform thread count, which is what
+ * differs between the platform and virtual thread modes.
+ */
+class PoolWaitSampler implements AutoCloseable {
+
+    private static final long INTERVAL_MILLIS = 20;
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile int peakPending;
+    private volatile int peakActive;
+    private volatile double peakAcquireMillis;
+    private volatile int peakLimiterWaiting;
+    private volatile double peakLimiterAcquireMillis;
+    private volatile int peakPlatformThreads;
+
+    PoolWaitSampler(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.thread = new Thread(this::run, "loadtest-pool-sampler");
+        this.thread.setDaemon(true);
+    }
+
+    record Peak(int maxPoolSize,
+                int peakActive,
+                int peakPending,
+                double peakAcquireMillis,
+                int peakLimiterWaiting,
+                double peakLimiterAcquireMillis,
+                int peakPlatformThreads) {
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    Peak peak() {
+        return new Peak(dataSource.getMaximumPoolSize(), peakActive, peakPending, peakAcquireMillis,
+                peakLimiterWaiting, peakLimiterAcquireMillis, peakPlatformThreads);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private void run() {
+        while (running) {
+            sample();
+            try {
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        sample();
+    }
+
+    private void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null) {
+            peakPending = Math.max(peakPending, pool.getThreadsAwaitingConnection());
+            peakActive = Math.max(peakActive, pool.getActiveConnections());
+        }
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire != null) {
+            peakAcquireMillis = Math.max(peakAcquireMillis, acquire.max(TimeUnit.MILLISECONDS));
+        }
+        // The limiter meters are tagged per bulkhead: sum the queues, take the worst single acquire.
+        int limiterWaiting = 0;
+        for (Gauge gauge : meterRegistry.find("kpi.db.limiter.waiting").gauges()) {
+            limiterWaiting += (int) gauge.value();
+        }
+        peakLimiterWaiting = Math.max(peakLimiterWaiting, limiterWaiting);
+        for (Timer limiterAcquire : meterRegistry.find("kpi.db.limiter.acquire").timers()) {
+            peakLimiterAcquireMillis = Math.max(peakLimiterAcquireMillis, limiterAcquire.max(TimeUnit.MILLISECONDS));
+        }
+        // Virtual threads are not counted here, so this shows how many carrier and pool threads the mode needs.
+        peakPlatformThreads = Math.max(peakPlatformThreads, threads.getThreadCount());
+    }
+}
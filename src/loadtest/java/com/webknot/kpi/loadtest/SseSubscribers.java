@@ -0,0 +1,123 @@
+package com.webknot.kpi.loadtest;
+
+import com.webknot.kpi.loadtest.OrgSeeder.Actor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open notification streams held for the whole run, like portal tabs left open at month end. Each subscriber
+ * reconnects when the server ends its stream, and counts the {@code data:} lines it receives.
+ */
+class SseSubscribers implements AutoCloseable {
+
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    private final HttpClient client;
+    private final URI streamUri;
+    private final List<Thread> threads = new ArrayList<>();
+    private final Set<InputStream> openStreams = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connected = new AtomicInteger();
+    private final AtomicInteger peakConnected = new AtomicInteger();
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong failedConnects = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    SseSubscribers(HttpClient client, URI baseUri) {
+        this.client = client;
+        this.streamUri = baseUri.resolve("/notifications/stream");
+    }
+
+    record Stats(int peakConnected, long connects, long failedConnects, long events) {
+    }
+
+    void start(List<Actor> subscribers) {
+        for (int i = 0; i < subscribers.size(); i++) {
+            Actor actor = subscribers.get(i);
+            Thread thread = new Thread(() -> listen(actor), "loadtest-sse-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    Stats stats() {
+        return new Stats(peakConnected.get(), connects.get(), failedConnects.get(), events.get());
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        for (InputStream stream : openStreams) {
+            try {
+                stream.close();
+            } catch (IOException ignored) {
+                // Closing is how the reader threads are told to stop.
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join(1_000);
+        }
+    }
+
+    private void listen(Actor actor) {
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+                .header("Authorization", "Bearer " + actor.token())
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        while (running) {
+            InputStream body = null;
+            try {
+                HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                body = response.body();
+                if (response.statusCode() != 200) {
+                    failedConnects.incrementAndGet();
+                    body.close();
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                    continue;
+                }
+                openStreams.add(body);
+                connects.incrementAndGet();
+                peakConnected.accumulateAndGet(connected.incrementAndGet(), Math::max);
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+                    String line;
+                    while (running && (line = reader.readLine()) != null) {
+                        if (line.startsWith("data:")) events.incrementAndGet();
+                    }
+                } finally {
+                    connected.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (!running) return;
+                failedConnects.incrementAndGet();
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                if (body != null) openStreams.remove(body);
+            }
+        }
+    }
+}
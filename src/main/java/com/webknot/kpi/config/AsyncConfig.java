@@ -1,28 +1,63 @@
 package com.webknot.kpi.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class AsyncConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * With {@code spring.threads.virtual.enabled} (Java 21+) each {@code @Async} task gets its own virtual thread,
+     * capped by {@code async.virtual.max-concurrency}; submitters block at the cap instead of running the task
+     * themselves. Otherwise a bounded platform pool, where overflow still runs on the caller but is counted as
+     * {@code kpi.async.caller_runs}.
+     */
     @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
+    public Executor taskExecutor(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                 @Value("${async.virtual.max-concurrency:200}") int virtualMaxConcurrency,
+                                 MeterRegistry meterRegistry) {
+        if (virtualThreads) {
+            if (Runtime.version().feature() >= 21) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("kpi-async-");
+                executor.setVirtualThreads(true);
+                executor.setConcurrencyLimit(Math.max(1, virtualMaxConcurrency));
+                executor.setTaskTerminationTimeout(5_000);
+                return executor;
+            }
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; using the platform task pool",
+                    Runtime.version().feature());
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        
+
         executor.setCorePoolSize(5);
         executor.setMaxPoolSize(20);
         executor.setQueueCapacity(100);
         executor.setThreadNamePrefix("kpi-async-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(5);
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        
+        Counter callerRuns = Counter.builder("kpi.async.caller_runs")
+                .description("Async tasks that overflowed the pool and ran on the submitting thread")
+                .register(meterRegistry);
+        ThreadPoolExecutor.CallerRunsPolicy callerRunsPolicy = new ThreadPoolExecutor.CallerRunsPolicy();
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            callerRuns.increment();
+            callerRunsPolicy.rejectedExecution(task, pool);
+        });
+
         executor.initialize();
         return executor;
     }
 }
-
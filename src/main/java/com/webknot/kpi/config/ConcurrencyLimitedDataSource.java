@@ -0,0 +1,102 @@
+package com.webknot.kpi.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits connection requests through {@link DatabaseBulkheads} before they reach the pool, using the calling
+ * thread's {@link DbWorkload}. Callers queue on the bulkheads (prioritised, metered as {@code kpi.db.limiter.*})
+ * rather than inside Hikari's handoff, which matters most with virtual threads where there is no request-thread
+ * ceiling. The permit is held until the connection is closed, and the wait and hold times feed the adaptive limits.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final DatabaseBulkheads bulkheads;
+
+    public ConcurrencyLimitedDataSource(DataSource target, DatabaseBulkheads bulkheads) {
+        super(target);
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DbWorkload workload = DbWorkload.current();
+        long startedAt = System.nanoTime();
+        acquire(workload);
+        try {
+            return releasing(obtainTargetDataSource().getConnection(), workload, startedAt);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.abandon(workload);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DbWorkload workload = DbWorkload.current();
+        long startedAt = System.nanoTime();
+        acquire(workload);
+        try {
+            return releasing(obtainTargetDataSource().getConnection(username, password), workload, startedAt);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.abandon(workload);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void acquire(DbWorkload workload) throws SQLException {
+        try {
+            if (!bulkheads.acquire(workload)) {
+                throw new SQLTransientConnectionException("Timed out after " + bulkheads.acquireTimeoutMillis(workload)
+                        + "ms waiting for a " + workload.key() + " database permit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+    }
+
+    private Connection releasing(Connection target, DbWorkload workload, long requestedAt) {
+        long checkedOutAt = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("equals".equals(name)) return proxy == args[0];
+                    if ("hashCode".equals(name)) return System.identityHashCode(proxy);
+                    if ("close".equals(name)) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                bulkheads.release(workload, checkedOutAt - requestedAt, System.nanoTime() - checkedOutAt);
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
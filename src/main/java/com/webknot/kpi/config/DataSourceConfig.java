@@ -2,19 +2,28 @@ package com.webknot.kpi.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
 import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 public class DataSourceConfig {
 
     private final Environment env;
+    private final MeterRegistry meterRegistry;
 
-    public DataSourceConfig(Environment env) {
+    public DataSourceConfig(Environment env, MeterRegistry meterRegistry) {
         this.env = env;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean(destroyMethod = "close")
@@ -51,7 +60,90 @@ public class DataSourceConfig {
         config.setInitializationFailTimeout(env.getProperty("spring.datasource.hikari.initialization-fail-timeout", Long.class, 1L));
         config.setRegisterMbeans(env.getProperty("spring.datasource.hikari.register-mbeans", Boolean.class, true));
         config.setPoolName(env.getProperty("spring.datasource.hikari.pool-name", "KpiApplicationPool"));
+
+        // The pool starts in the constructor below, after which Hikari refuses a metrics tracker, so the
+        // hikaricp.connections.* meters (acquire time, pending threads) have to be wired here.
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         
-        return new HikariDataSource(config);
+        DataSource primary = limited(new HikariDataSource(config), config);
+        List<String> replicaUrls = Arrays.stream(env.getProperty("db.replicas.urls", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        if (replicaUrls.isEmpty()) {
+            return primary;
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            replicas.put(name, new HikariDataSource(replicaConfig(config, replicaUrls.get(i), name)));
+        }
+        ReadReplicaDataSource readReplicas = new ReadReplicaDataSource(
+                replicas,
+                primary,
+                env.getProperty("db.replicas.max-lag-ms", Long.class, 2000L),
+                env.getProperty("db.replicas.lag-check-interval-ms", Long.class, 1000L),
+                env.getProperty("db.replicas.read-your-writes-ms", Long.class, 5000L),
+                env.getProperty("db.replicas.lag-query", ReadReplicaDataSource.POSTGRES_LAG_QUERY),
+                meterRegistry
+        );
+        return new ReplicaRoutingDataSource(primary, readReplicas);
+    }
+
+    /**
+     * A copy of the primary pool's settings pointed at a replica. Replica pools are read-only, get their own size
+     * and name (so {@code hikaricp.connections.*} is reported per replica) and do not fail startup when a replica
+     * is down: reads fall back to the primary until the lag check reaches it.
+     */
+    private HikariConfig replicaConfig(HikariConfig primary, String url, String name) {
+        HikariConfig config = new HikariConfig();
+        primary.copyStateTo(config);
+        config.setJdbcUrl(url);
+        config.setUsername(env.getProperty("db.replicas.username", primary.getUsername()));
+        config.setPassword(env.getProperty("db.replicas.password", primary.getPassword()));
+        config.setMaximumPoolSize(env.getProperty("db.replicas.maximum-pool-size", Integer.class, primary.getMaximumPoolSize()));
+        config.setMinimumIdle(Math.min(config.getMinimumIdle(), config.getMaximumPoolSize()));
+        config.setReadOnly(true);
+        config.setInitializationFailTimeout(-1);
+        config.setPoolName(primary.getPoolName() + "-" + name);
+        return config;
+    }
+
+    private DataSource limited(HikariDataSource pool, HikariConfig config) {
+        if (!env.getProperty("db.concurrency-limit.enabled", Boolean.class, true)) {
+            return pool;
+        }
+        // Sized to the pool by default, so callers queue on the bulkheads (prioritised, metered) rather than in Hikari.
+        int capacity = env.getProperty("db.concurrency-limit.max-concurrent", Integer.class, config.getMaximumPoolSize());
+        long acquireTimeoutMs = env.getProperty("db.concurrency-limit.acquire-timeout-ms", Long.class, config.getConnectionTimeout());
+        Map<DbWorkload, DatabaseBulkheads.Limits> limits = new EnumMap<>(DbWorkload.class);
+        limits.put(DbWorkload.INTERACTIVE_WRITE, bulkheadLimits(DbWorkload.INTERACTIVE_WRITE, capacity, false, acquireTimeoutMs));
+        limits.put(DbWorkload.INTERACTIVE_READ, bulkheadLimits(DbWorkload.INTERACTIVE_READ, capacity * 3 / 4, false, acquireTimeoutMs));
+        limits.put(DbWorkload.BACKGROUND, bulkheadLimits(DbWorkload.BACKGROUND, capacity / 4, true, acquireTimeoutMs));
+        limits.put(DbWorkload.BULK, bulkheadLimits(DbWorkload.BULK, capacity / 3, true, acquireTimeoutMs));
+        DatabaseBulkheads bulkheads = new DatabaseBulkheads(
+                capacity,
+                limits,
+                env.getProperty("db.concurrency-limit.adaptive.enabled", Boolean.class, true),
+                env.getProperty("db.concurrency-limit.adaptive.target-wait-ms", Long.class, 50L),
+                env.getProperty("db.concurrency-limit.adaptive.latency-tolerance", Double.class, 2.0),
+                env.getProperty("db.concurrency-limit.adaptive.adjust-interval-ms", Long.class, 1000L),
+                meterRegistry
+        );
+        return new ConcurrencyLimitedDataSource(pool, bulkheads);
+    }
+
+    /**
+     * Reads {@code db.concurrency-limit.bulkheads.<workload>.{max,min,adaptive,acquire-timeout-ms}}. Adaptive
+     * bulkheads start at their max and may be throttled down to their min; fixed ones stay at max.
+     */
+    private DatabaseBulkheads.Limits bulkheadLimits(DbWorkload workload, int defaultMax, boolean defaultAdaptive,
+                                                    long defaultAcquireTimeoutMs) {
+        String prefix = "db.concurrency-limit.bulkheads." + workload.key() + ".";
+        int max = Math.max(1, env.getProperty(prefix + "max", Integer.class, Math.max(1, defaultMax)));
+        boolean adaptive = env.getProperty(prefix + "adaptive", Boolean.class, defaultAdaptive);
+        int min = Math.max(1, Math.min(max, env.getProperty(prefix + "min", Integer.class, adaptive ? 1 : max)));
+        long acquireTimeoutMs = env.getProperty(prefix + "acquire-timeout-ms", Long.class, defaultAcquireTimeoutMs);
+        return new DatabaseBulkheads.Limits(min, max, adaptive, acquireTimeoutMs);
     }
 }
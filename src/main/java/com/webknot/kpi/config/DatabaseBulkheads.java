@@ -0,0 +1,326 @@
+package com.webknot.kpi.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control ahead of connection checkout. Each {@link DbWorkload} has its own concurrency limit, all of
+ * them share {@code capacity} (the pool size), and when callers are queued the highest-priority workload that
+ * still has headroom goes first.
+ *
+ * <p>The limits of adaptive workloads (background and bulk by default) move with what interactive traffic sees:
+ * once per {@code adjustIntervalMillis} the average interactive checkout wait and connection hold time are
+ * compared with {@code targetWaitMillis} and with a moving baseline of the hold time. If either is exceeded the
+ * adaptive limits are halved (down to their minimum), otherwise they grow by one (up to their maximum).
+ */
+public class DatabaseBulkheads {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseBulkheads.class);
+    private static final DbWorkload[] PRIORITY = DbWorkload.values();
+    private static final double BASELINE_WEIGHT = 0.2;
+
+    public record Limits(int min, int max, boolean adaptive, long acquireTimeoutMillis) {
+    }
+
+    private final int capacity;
+    private final Map<DbWorkload, Limits> limits;
+    private final boolean adaptive;
+    private final long targetWaitNanos;
+    private final double latencyTolerance;
+    private final long adjustIntervalNanos;
+    private final LongSupplier ticker;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<DbWorkload, Condition> turns = new EnumMap<>(DbWorkload.class);
+    private final int[] limit = new int[PRIORITY.length];
+    private final int[] inUse = new int[PRIORITY.length];
+    private final int[] waiting = new int[PRIORITY.length];
+    private int totalInUse;
+
+    private final long[] windowWaitNanos = new long[PRIORITY.length];
+    private final long[] windowHoldNanos = new long[PRIORITY.length];
+    private final int[] windowCount = new int[PRIORITY.length];
+    private long windowStartedAt;
+    private double baselineHoldNanos;
+
+    private final Map<DbWorkload, Timer> acquireTimers = new EnumMap<>(DbWorkload.class);
+    private final Map<DbWorkload, Counter> rejections = new EnumMap<>(DbWorkload.class);
+    private final Counter decreases;
+
+    public DatabaseBulkheads(int capacity,
+                             Map<DbWorkload, Limits> limits,
+                             boolean adaptive,
+                             long targetWaitMillis,
+                             double latencyTolerance,
+                             long adjustIntervalMillis,
+                             MeterRegistry meterRegistry) {
+        this(capacity, limits, adaptive, targetWaitMillis, latencyTolerance, adjustIntervalMillis, meterRegistry,
+                System::nanoTime);
+    }
+
+    /**
+     * @param ticker nanosecond time source for the adjustment window
+     */
+    DatabaseBulkheads(int capacity,
+                      Map<DbWorkload, Limits> limits,
+                      boolean adaptive,
+                      long targetWaitMillis,
+                      double latencyTolerance,
+                      long adjustIntervalMillis,
+                      MeterRegistry meterRegistry,
+                      LongSupplier ticker) {
+        this.capacity = Math.max(1, capacity);
+        this.limits = new EnumMap<>(limits);
+        this.adaptive = adaptive;
+        this.targetWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, targetWaitMillis));
+        this.latencyTolerance = Math.max(1.0, latencyTolerance);
+        this.adjustIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(100, adjustIntervalMillis));
+        this.ticker = ticker;
+        this.windowStartedAt = ticker.getAsLong();
+
+        for (DbWorkload workload : PRIORITY) {
+            Limits configured = limits(workload);
+            limit[workload.ordinal()] = configured.max();
+            turns.put(workload, lock.newCondition());
+            String tag = workload.key();
+            acquireTimers.put(workload, Timer.builder("kpi.db.limiter.acquire")
+                    .description("Time spent waiting for a database permit ahead of the connection pool")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry));
+            rejections.put(workload, Counter.builder("kpi.db.limiter.rejections")
+                    .description("Connection requests that gave up waiting for a database permit")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry));
+            Gauge.builder("kpi.db.limiter.waiting", this, bulkheads -> bulkheads.read(bulkheads.waiting, workload))
+                    .description("Callers currently waiting for a database permit")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("kpi.db.limiter.in_use", this, bulkheads -> bulkheads.read(bulkheads.inUse, workload))
+                    .description("Database permits held")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+            Gauge.builder("kpi.db.limiter.limit", this, bulkheads -> bulkheads.read(bulkheads.limit, workload))
+                    .description("Current concurrency limit")
+                    .tag("bulkhead", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("kpi.db.limiter.available", this, DatabaseBulkheads::available)
+                .description("Database permits currently free")
+                .register(meterRegistry);
+        this.decreases = Counter.builder("kpi.db.limiter.decreases")
+                .description("Times the adaptive bulkheads were throttled because interactive traffic slowed down")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits for a permit for {@code workload}, up to its acquire timeout.
+     *
+     * @return false if the timeout passed first
+     */
+    public boolean acquire(DbWorkload workload) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        int index = workload.ordinal();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(limits(workload).acquireTimeoutMillis());
+        lock.lock();
+        try {
+            if (!admissible(workload, false)) {
+                waiting[index]++;
+                // Room may already be free behind an earlier waiter of this workload; make sure someone takes it.
+                signalNext();
+                try {
+                    while (!admissible(workload, true)) {
+                        if (remaining <= 0) {
+                            rejections.get(workload).increment();
+                            return false;
+                        }
+                        remaining = turns.get(workload).awaitNanos(remaining);
+                    }
+                } finally {
+                    waiting[index]--;
+                    // A caller that gave up (or was interrupted) may have been holding back lower priorities.
+                    signalNext();
+                }
+            }
+            inUse[index]++;
+            totalInUse++;
+            signalNext();
+            return true;
+        } finally {
+            lock.unlock();
+            acquireTimers.get(workload).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the permit and feeds the adaptive limits with how long the caller waited (admission plus pool
+     * checkout) and how long it held the connection.
+     */
+    public void release(DbWorkload workload, long waitNanos, long holdNanos) {
+        int index = workload.ordinal();
+        lock.lock();
+        try {
+            inUse[index]--;
+            totalInUse--;
+            windowWaitNanos[index] += waitNanos;
+            windowHoldNanos[index] += holdNanos;
+            windowCount[index]++;
+            if (adaptive && ticker.getAsLong() - windowStartedAt >= adjustIntervalNanos) {
+                adjust();
+            }
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the permit back without feeding the window, when checkout itself failed.
+     */
+    public void abandon(DbWorkload workload) {
+        lock.lock();
+        try {
+            inUse[workload.ordinal()]--;
+            totalInUse--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long acquireTimeoutMillis(DbWorkload workload) {
+        return limits(workload).acquireTimeoutMillis();
+    }
+
+    private Limits limits(DbWorkload workload) {
+        Limits configured = limits.get(workload);
+        if (configured == null) throw new IllegalStateException("No bulkhead limits for " + workload);
+        return configured;
+    }
+
+    /**
+     * A caller may go ahead when its bulkhead and the shared capacity have room and no higher-priority workload
+     * with room of its own is queued. New arrivals also wait behind queued callers of their own workload.
+     */
+    private boolean admissible(DbWorkload workload, boolean queued) {
+        int index = workload.ordinal();
+        if (totalInUse >= capacity || inUse[index] >= limit[index]) return false;
+        if (!queued && waiting[index] > 0) return false;
+        for (int higher = 0; higher < index; higher++) {
+            if (waiting[higher] > 0 && inUse[higher] < limit[higher]) return false;
+        }
+        return true;
+    }
+
+    private void signalNext() {
+        if (totalInUse >= capacity) return;
+        for (DbWorkload workload : PRIORITY) {
+            int index = workload.ordinal();
+            if (waiting[index] > 0 && inUse[index] < limit[index]) {
+                turns.get(workload).signal();
+                return;
+            }
+        }
+    }
+
+    private void adjust() {
+        long waitNanos = 0;
+        long holdNanos = 0;
+        int count = 0;
+        for (DbWorkload workload : new DbWorkload[]{DbWorkload.INTERACTIVE_WRITE, DbWorkload.INTERACTIVE_READ}) {
+            int index = workload.ordinal();
+            waitNanos += windowWaitNanos[index];
+            holdNanos += windowHoldNanos[index];
+            count += windowCount[index];
+        }
+        Arrays.fill(windowWaitNanos, 0);
+        Arrays.fill(windowHoldNanos, 0);
+        Arrays.fill(windowCount, 0);
+        windowStartedAt = ticker.getAsLong();
+        if (count == 0) {
+            // No interactive traffic to protect: let throttled workloads recover.
+            grow();
+            return;
+        }
+
+        double averageWait = (double) waitNanos / count;
+        double averageHold = (double) holdNanos / count;
+        boolean slowHold = baselineHoldNanos > 0 && averageHold > baselineHoldNanos * latencyTolerance;
+        if (averageWait > targetWaitNanos || slowHold) {
+            shrink(averageWait, averageHold);
+        } else {
+            baselineHoldNanos = baselineHoldNanos == 0
+                    ? averageHold
+                    : baselineHoldNanos + BASELINE_WEIGHT * (averageHold - baselineHoldNanos);
+            grow();
+        }
+    }
+
+    private void shrink(double averageWaitNanos, double averageHoldNanos) {
+        boolean changed = false;
+        for (DbWorkload workload : PRIORITY) {
+            Limits configured = limits(workload);
+            int index = workload.ordinal();
+            if (!configured.adaptive() || limit[index] <= configured.min()) continue;
+            limit[index] = Math.max(configured.min(), limit[index] / 2);
+            changed = true;
+        }
+        if (changed) {
+            decreases.increment();
+            log.info("Throttling database bulkheads: interactiveWaitMs={} interactiveHoldMs={} baselineHoldMs={} limits={}",
+                    Math.round(averageWaitNanos / 1_000_000.0),
+                    Math.round(averageHoldNanos / 1_000_000.0),
+                    Math.round(baselineHoldNanos / 1_000_000.0),
+                    describeLimits());
+        }
+    }
+
+    private void grow() {
+        for (DbWorkload workload : PRIORITY) {
+            Limits configured = limits(workload);
+            int index = workload.ordinal();
+            if (configured.adaptive() && limit[index] < configured.max()) {
+                limit[index]++;
+                turns.get(workload).signal();
+            }
+        }
+    }
+
+    private String describeLimits() {
+        StringBuilder description = new StringBuilder();
+        for (DbWorkload workload : PRIORITY) {
+            if (!description.isEmpty()) description.append(',');
+            description.append(workload.key()).append('=').append(limit[workload.ordinal()]);
+        }
+        return description.toString();
+    }
+
+    private int read(int[] values, DbWorkload workload) {
+        lock.lock();
+        try {
+            return values[workload.ordinal()];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int available() {
+        lock.lock();
+        try {
+            return capacity - totalInUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
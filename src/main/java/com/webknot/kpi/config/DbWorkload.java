@@ -0,0 +1,61 @@
+package com.webknot.kpi.config;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The bulkhead a connection request is admitted through, in priority order: when the pool is contended, a
+ * waiting interactive write is let in before a waiting read, and so on down to bulk work. The current workload is
+ * bound to the thread by {@link DbWorkloadFilter} for web requests; threads without one (schedulers, async tasks)
+ * count as {@link #BACKGROUND}.
+ */
+public enum DbWorkload {
+    INTERACTIVE_WRITE,
+    INTERACTIVE_READ,
+    BACKGROUND,
+    BULK;
+
+    private static final ThreadLocal<DbWorkload> CURRENT = new ThreadLocal<>();
+
+    public static DbWorkload current() {
+        DbWorkload workload = CURRENT.get();
+        return workload == null ? BACKGROUND : workload;
+    }
+
+    /**
+     * Runs {@code work} as {@code workload}, restoring the previous binding afterwards. For code outside a web
+     * request that should not be treated as background, or request code that is really bulk.
+     */
+    public static <T> T callAs(DbWorkload workload, Supplier<T> work) {
+        DbWorkload previous = bind(workload);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Binds {@code workload} and returns the raw previous binding (possibly null) for {@link #restore}.
+     */
+    static DbWorkload bind(DbWorkload workload) {
+        DbWorkload previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(DbWorkload previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Property and tag name, e.g. {@code interactive-write}.
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
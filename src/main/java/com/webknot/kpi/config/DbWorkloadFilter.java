@@ -0,0 +1,57 @@
+package com.webknot.kpi.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Classifies each request into a {@link DbWorkload} for the database bulkheads: paths matching
+ * {@code db.concurrency-limit.bulk-paths} (imports, admin listings) are bulk, other reads are interactive reads,
+ * everything else is an interactive write.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class DbWorkloadFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<String> bulkPaths;
+
+    public DbWorkloadFilter(@Value("${db.concurrency-limit.bulk-paths:/admin/imports/**,/monthly-submissions/admin/all,/monthly-submissions/cycles,/admin/notifications/**,/analytics/**}")
+                            List<String> bulkPaths) {
+        this.bulkPaths = bulkPaths.stream().map(String::trim).filter(path -> !path.isEmpty()).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        DbWorkload previous = DbWorkload.bind(classify(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DbWorkload.restore(previous);
+        }
+    }
+
+    DbWorkload classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : bulkPaths) {
+            if (pathMatcher.match(pattern, path)) return DbWorkload.BULK;
+        }
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return DbWorkload.INTERACTIVE_READ;
+        }
+        return DbWorkload.INTERACTIVE_WRITE;
+    }
+}
@@ -29,10 +29,10 @@ public class FallbackCacheConfig {
             "stream-directory",
             "employees",
             "employee-by-id",
-            "designation-lookup",
-            "designation-lookups-by-stream",
-            "designation-lookups-by-band",
-            "designation-lookups"
+            "designation-lookups",
+            "token-versions",
+            "employee-directory-stats",
+            "ai-enhancements"
         );
     }
 }
@@ -0,0 +1,37 @@
+package com.webknot.kpi.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that must see the latest commit, so {@link ReadReplicaDataSource} serves them from the primary even
+ * inside a read-only transaction. For loaders that refill a cache or snapshot right after a write invalidated
+ * it: a lagging replica would hand them the pre-write rows, which would then be kept for the whole TTL.
+ *
+ * <p>Connections are fetched on the first statement, so the scope applies to any transaction whose first
+ * statement runs inside it, including one begun just outside it by a {@code @Transactional} proxy.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> work) {
+        Boolean previous = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            } else {
+                ACTIVE.set(previous);
+            }
+        }
+    }
+
+    static boolean active() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,237 @@
+package com.webknot.kpi.config;
+
+import com.webknot.kpi.security.EmployeePrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the connections of read-only transactions (see {@link ReplicaRoutingDataSource}). Replicas are used in
+ * turn, skipping any whose last measured lag exceeds {@code maxLagMillis} or that could not be reached; the
+ * primary takes the read instead when
+ * <ul>
+ *     <li>no replica qualifies,</li>
+ *     <li>the caller is inside a write request ({@link DbWorkload#INTERACTIVE_WRITE}),</li>
+ *     <li>the caller is reloading a cache that must not see stale rows ({@link PrimaryReads}), or</li>
+ *     <li>the signed-in employee committed a write within {@code readYourWritesMillis}, so they see their own
+ *     changes even on a lagging replica.</li>
+ * </ul>
+ * Write times are kept per instance, which is enough while a user's requests land on the instance that took the
+ * write or replica lag stays below the window.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    static final String POSTGRES_LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+            END""";
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final long maxLagMillis;
+    private final long readYourWritesNanos;
+    private final String lagQuery;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService lagMonitor;
+
+    public ReadReplicaDataSource(Map<String, DataSource> replicas,
+                                 DataSource primary,
+                                 long maxLagMillis,
+                                 long lagCheckIntervalMillis,
+                                 long readYourWritesMillis,
+                                 String lagQuery,
+                                 MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, readYourWritesMillis));
+        this.lagQuery = lagQuery;
+        this.meterRegistry = meterRegistry;
+        List<Replica> configured = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> configured.add(new Replica(name, dataSource)));
+        this.replicas = List.copyOf(configured);
+        for (Replica replica : this.replicas) {
+            Gauge.builder("kpi.db.replica.lag", replica, current -> current.lagMillis / 1000.0)
+                    .description("Replication lag last measured on the replica, in seconds (infinite while unreachable)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+
+        // Measure once up front so the first reads are not sent to a replica that is far behind.
+        refreshLag();
+        this.lagMonitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(100, lagCheckIntervalMillis);
+        lagMonitor.scheduleWithFixedDelay(this::refreshLag, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routes like {@link #getConnection()}, passing the credentials to whichever pool is picked.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Records that the current employee committed a write, pinning their reads to the primary for the
+     * read-your-writes window.
+     */
+    public void recordWrite() {
+        if (readYourWritesNanos == 0) return;
+        String employeeId = currentEmployeeId();
+        if (employeeId == null) return;
+        long now = System.nanoTime();
+        lastWriteAt.put(employeeId, now);
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    /**
+     * Re-measures every replica and forgets write times older than the read-your-writes window.
+     */
+    void refreshLag() {
+        for (Replica replica : replicas) {
+            replica.lagMillis = measureLag(replica);
+        }
+        long now = System.nanoTime();
+        lastWriteAt.values().removeIf(writtenAt -> now - writtenAt > readYourWritesNanos);
+    }
+
+    private Connection route(Checkout checkout) throws SQLException {
+        String reason = primaryReason();
+        if (reason == null) {
+            Replica replica = pick();
+            if (replica != null) {
+                try {
+                    Connection connection = checkout.from(replica.dataSource);
+                    routed("replica", replica.name);
+                    return connection;
+                } catch (SQLFeatureNotSupportedException e) {
+                    // the pool does not take per-call credentials; that says nothing about the replica's health
+                    throw e;
+                } catch (SQLException e) {
+                    replica.lagMillis = Double.POSITIVE_INFINITY;
+                    log.warn("Replica {} unavailable, reading from the primary until the next lag check: {}",
+                            replica.name, e.getMessage());
+                    reason = "replica-error";
+                }
+            } else {
+                reason = "replica-lag";
+            }
+        }
+        routed(reason, "primary");
+        return checkout.from(primary);
+    }
+
+    private String primaryReason() {
+        if (DbWorkload.current() == DbWorkload.INTERACTIVE_WRITE) return "write-request";
+        if (PrimaryReads.active()) return "primary-only";
+        if (readYourWritesNanos == 0) return null;
+        String employeeId = currentEmployeeId();
+        if (employeeId == null) return null;
+        Long writtenAt = lastWriteAt.get(employeeId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= readYourWritesNanos ? "read-your-writes" : null;
+    }
+
+    private Replica pick() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int offset = 0; offset < size; offset++) {
+            Replica candidate = replicas.get((start + offset) % size);
+            if (candidate.lagMillis <= maxLagMillis) return candidate;
+        }
+        return null;
+    }
+
+    private double measureLag(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            if (lag > maxLagMillis && replica.lagMillis <= maxLagMillis) {
+                log.warn("Replica {} is {}ms behind (max {}ms); reading from the primary", replica.name,
+                        Math.round(lag), maxLagMillis);
+            }
+            return lag;
+        } catch (SQLException | RuntimeException e) {
+            if (Double.isFinite(replica.lagMillis)) {
+                log.warn("Replica {} lag check failed; reading from the primary: {}", replica.name, e.getMessage());
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private void routed(String route, String target) {
+        Counter.builder("kpi.db.replica.reads")
+                .description("Read-only transactions by where they were served and why")
+                .tag("route", route)
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static String currentEmployeeId() {
+        EmployeePrincipal principal = EmployeePrincipal.from(SecurityContextHolder.getContext().getAuthentication());
+        return principal == null ? null : principal.employeeId();
+    }
+
+    @FunctionalInterface
+    private interface Checkout {
+        Connection from(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile double lagMillis;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -92,8 +92,10 @@ public class RedisConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new Jackson2JsonRedisSerializer<>(Object.class)))
                 .disableCachingNullValues();
 
+        // Statistics feed the cache.gets{result=hit|miss} meters that actuator binds for each cache.
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultCacheConfig)
+                .enableStatistics()
                 .withCacheConfiguration("kpi-definitions", 
                     RedisCacheConfiguration.defaultCacheConfig()
                         .entryTtl(Duration.ofMinutes(15)))
@@ -118,15 +120,15 @@ public class RedisConfig {
                 .withCacheConfiguration("designation-lookups",
                     RedisCacheConfiguration.defaultCacheConfig()
                         .entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("designation-lookup",
+                .withCacheConfiguration("token-versions",
                     RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("designation-lookups-by-stream",
+                        .entryTtl(Duration.ofMinutes(10)))
+                .withCacheConfiguration("employee-directory-stats",
                     RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("designation-lookups-by-band",
+                        .entryTtl(Duration.ofMinutes(15)))
+                .withCacheConfiguration("ai-enhancements",
                     RedisCacheConfiguration.defaultCacheConfig()
-                        .entryTtl(Duration.ofHours(1)))
+                        .entryTtl(Duration.ofHours(24)))
                 .build();
     }
 }
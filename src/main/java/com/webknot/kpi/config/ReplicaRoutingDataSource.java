@@ -0,0 +1,82 @@
+package com.webknot.kpi.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to {@link ReadReplicaDataSource} and everything else to the primary.
+ *
+ * <p>Connections are fetched lazily, on the first statement, because the transaction manager only marks a
+ * connection read-only after it has asked for it. Commits on the primary are reported back so the committing
+ * employee's next reads stay on the primary for the read-your-writes window.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final DataSource primary;
+    private final ReadReplicaDataSource replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicaDataSource replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+        setTargetDataSource(new WriteRecordingDataSource(primary, replicas));
+        setReadOnlyDataSource(replicas);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void close() throws IOException {
+        replicas.close();
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static final class WriteRecordingDataSource extends DelegatingDataSource {
+
+        private final ReadReplicaDataSource replicas;
+
+        private WriteRecordingDataSource(DataSource primary, ReadReplicaDataSource replicas) {
+            super(primary);
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(obtainTargetDataSource().getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(obtainTargetDataSource().getConnection(username, password));
+        }
+
+        private Connection recording(Connection target) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if ("equals".equals(name)) return proxy == args[0];
+                        if ("hashCode".equals(name)) return System.identityHashCode(proxy);
+                        Object result;
+                        try {
+                            result = method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                        if ("commit".equals(name) && !target.isReadOnly()) {
+                            replicas.recordWrite();
+                        }
+                        return result;
+                    });
+        }
+    }
+}
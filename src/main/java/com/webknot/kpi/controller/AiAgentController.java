@@ -2,17 +2,26 @@ package com.webknot.kpi.controller;
 
 import com.webknot.kpi.models.AiAgent;
 import com.webknot.kpi.service.AiAgentService;
+import com.webknot.kpi.service.AiEnhancementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
 
 @RestController
 @RequestMapping("/ai-agents")
@@ -20,9 +29,15 @@ public class AiAgentController {
 
     private static final Logger log = LoggerFactory.getLogger(AiAgentController.class);
     private final AiAgentService aiAgentService;
+    private final AiEnhancementService aiEnhancementService;
+    private final long batchStreamTimeoutMillis;
 
-    public AiAgentController(AiAgentService aiAgentService) {
+    public AiAgentController(AiAgentService aiAgentService,
+                             AiEnhancementService aiEnhancementService,
+                             @Value("${ai.enhance.batch.stream-timeout-seconds:300}") long batchStreamTimeoutSeconds) {
         this.aiAgentService = aiAgentService;
+        this.aiEnhancementService = aiEnhancementService;
+        this.batchStreamTimeoutMillis = Math.max(1, batchStreamTimeoutSeconds) * 1000L;
     }
 
     @GetMapping("/list")
@@ -108,20 +123,53 @@ public class AiAgentController {
     }
 
     @PostMapping("/enhance")
-    public ResponseEntity<?> enhance(@RequestBody(required = false) Map<String, Object> body) {
+    public CompletableFuture<ResponseEntity<?>> enhance(@RequestBody(required = false) Map<String, Object> body,
+                                                        Authentication authentication) {
+        CompletableFuture<AiEnhancementService.EnhanceResult> pending;
         try {
             String text = firstNonBlank(body, "text", "input", "content");
             String mode = firstNonBlankAllowNull(body, "mode", "type");
-            AiAgentService.EnhanceResult result = aiAgentService.enhanceReviewText(text, mode);
-            return ResponseEntity.ok(Map.of(
-                    "text", result.text(),
-                    "provider", result.provider(),
-                    "model", result.model()
-            ));
+            pending = aiEnhancementService.enhance(requesterKey(authentication), text, mode);
         } catch (Exception e) {
-            log.error("Failed to enhance review text", e);
-            return ResponseEntity.badRequest().body(e.getMessage());
+            return CompletableFuture.completedFuture(enhanceFailure(e));
         }
+        return pending.<ResponseEntity<?>>handle((result, error) -> error != null
+                ? enhanceFailure(error)
+                : ResponseEntity.ok(Map.of(
+                        "text", result.text(),
+                        "provider", result.provider(),
+                        "model", result.model()
+                )));
+    }
+
+    /**
+     * Enhances many comments in one request and streams the results as server-sent events: one {@code item}
+     * or {@code item-error} event per input item in completion order, then a {@code done} summary. A request
+     * that cannot start (no items, too many items, no agent) gets a single {@code error} event.
+     */
+    @PostMapping(path = "/enhance/batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter enhanceBatch(@RequestBody(required = false) Map<String, Object> body,
+                                   Authentication authentication) {
+        SseEmitter emitter = new SseEmitter(batchStreamTimeoutMillis);
+        ReentrantLock sendLock = new ReentrantLock();
+        CompletableFuture<AiEnhancementService.BatchSummary> run;
+        try {
+            run = aiEnhancementService.enhanceBatch(requesterKey(authentication), parseBatchItems(body),
+                    result -> sendEvent(emitter, sendLock, result.error() == null ? "item" : "item-error", result));
+        } catch (Exception e) {
+            log.warn("Failed to start AI enhancement batch: {}", e.getMessage());
+            sendEvent(emitter, sendLock, "error", Map.of("message", String.valueOf(e.getMessage())));
+            emitter.complete();
+            return emitter;
+        }
+        emitter.onCompletion(() -> run.cancel(false));
+        emitter.onTimeout(() -> run.cancel(false));
+        emitter.onError(ex -> run.cancel(false));
+        run.whenComplete((summary, error) -> {
+            if (summary != null) sendEvent(emitter, sendLock, "done", summary);
+            emitter.complete();
+        });
+        return emitter;
     }
 
     @GetMapping("/active")
@@ -139,6 +187,61 @@ public class AiAgentController {
         }
     }
 
+    private static ResponseEntity<?> enhanceFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(cause.getMessage());
+        }
+        log.error("Failed to enhance review text", cause);
+        return ResponseEntity.badRequest().body(cause.getMessage());
+    }
+
+    /**
+     * Sends one event; {@link SseEmitter#send} is not safe for concurrent use, and batch results arrive on
+     * provider threads. A failed send means the client went away, which {@code onError} already handles.
+     */
+    private static void sendEvent(SseEmitter emitter, ReentrantLock sendLock, String name, Object data) {
+        sendLock.lock();
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (Exception e) {
+            throw new IllegalStateException("AI enhancement stream closed", e);
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<AiEnhancementService.BatchItem> parseBatchItems(Map<String, Object> body) {
+        Object raw = body == null ? null : body.get("items");
+        if (!(raw instanceof List<?> list)) {
+            throw new IllegalArgumentException("items must be a list");
+        }
+        String defaultMode = firstNonBlankAllowNull(body, "mode", "type");
+        List<AiEnhancementService.BatchItem> items = new ArrayList<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            Object entry = list.get(i);
+            if (entry instanceof Map<?, ?> map) {
+                Map<String, Object> item = (Map<String, Object>) map;
+                String id = firstNonBlankAllowNull(item, "id");
+                String mode = firstNonBlankAllowNull(item, "mode", "type");
+                items.add(new AiEnhancementService.BatchItem(
+                        id == null ? String.valueOf(i) : id,
+                        firstNonBlankAllowNull(item, "text", "input", "content"),
+                        mode == null ? defaultMode : mode
+                ));
+            } else {
+                items.add(new AiEnhancementService.BatchItem(
+                        String.valueOf(i), entry == null ? null : String.valueOf(entry), defaultMode));
+            }
+        }
+        return items;
+    }
+
+    private static String requesterKey(Authentication authentication) {
+        return authentication != null && authentication.getName() != null ? authentication.getName() : null;
+    }
+
     private static void requireAdmin(Authentication authentication) {
         boolean isAdmin = authentication != null && authentication.getAuthorities() != null
                 && authentication.getAuthorities().stream()
@@ -3,14 +3,15 @@ package com.webknot.kpi.controller;
 import com.webknot.kpi.exceptions.CrudOperationException;
 import com.webknot.kpi.exceptions.CrudValidationException;
 import com.webknot.kpi.models.CurrentBand;
-import com.webknot.kpi.models.DesignationLookup;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
-import com.webknot.kpi.repository.DesignationLookupRepository;
+import com.webknot.kpi.repository.EmployeeListRow;
+import com.webknot.kpi.service.BulkPromotionService;
+import com.webknot.kpi.service.DesignationTable;
 import com.webknot.kpi.service.EmployeeService;
-import com.webknot.kpi.util.BandStreamNormalizer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,15 +25,18 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
-    private final DesignationLookupRepository designationLookupRepository;
+    private final BulkPromotionService bulkPromotionService;
+    private final DesignationTable designationTable;
     private final String defaultEmployeePassword;
     private final Logger log = LogManager.getLogger(EmployeeController.class);
 
     public EmployeeController(EmployeeService employeeService,
-                              DesignationLookupRepository designationLookupRepository,
+                              BulkPromotionService bulkPromotionService,
+                              DesignationTable designationTable,
                               @Value("${employee.default-password:Password@123}") String defaultEmployeePassword) {
         this.employeeService = employeeService;
-        this.designationLookupRepository = designationLookupRepository;
+        this.bulkPromotionService = bulkPromotionService;
+        this.designationTable = designationTable;
         this.defaultEmployeePassword = defaultEmployeePassword;
     }
 
@@ -59,7 +63,7 @@ public class EmployeeController {
                 );
             }
 
-            List<Employee> employees = employeeService.getAllEmployees();
+            List<EmployeeListRow> employees = employeeService.getAllEmployees();
             log.info("Successfully fetched " + employees.size() + " employees");
 
             List<EmployeeResponse> response = employees.stream()
@@ -285,6 +289,33 @@ public class EmployeeController {
         }
     }
 
+    @PostMapping("/promote/bulk")
+    public ResponseEntity<?> promoteEmployees(@RequestBody BulkPromotionRequest request) {
+        try {
+            BulkPromotionService.BulkPromotionResult result = bulkPromotionService.promote(
+                    new BulkPromotionService.BulkPromotionCommand(
+                            request == null ? null : request.employeeIds(),
+                            request == null ? null : request.band(),
+                            request == null ? null : request.stream(),
+                            request == null ? null : request.managerId(),
+                            request != null && Boolean.TRUE.equals(request.dryRun())
+                    )
+            );
+            log.info("Bulk promotion processed " + result.requested() + " employee(s), succeeded=" + result.succeeded()
+                    + ", dryRun=" + result.dryRun());
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (CrudOperationException e) {
+            log.error("Error while promoting employees: " + e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        } catch (CrudValidationException e) {
+            log.error("Validation error while promoting employees: " + e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Unexpected error while promoting employees: " + e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
     private EmployeeResponse toResponse(Employee e) {
         return new EmployeeResponse(
                 e.getEmployeeId(),
@@ -295,24 +326,33 @@ public class EmployeeController {
                 e.getStream(),
                 e.getBand() != null ? e.getBand().name() : null,
                 e.getManager() != null ? e.getManager().getEmployeeId() : null,
+                e.getManager() != null && Hibernate.isInitialized(e.getManager()) ? e.getManager().getEmployeeName() : null,
                 e.getUpdatedBy() != null ? e.getUpdatedBy().getEmployeeId() : null,
                 e.getCreatedAt(),
                 e.getUpdatedAt()
         );
     }
 
+    private EmployeeResponse toResponse(EmployeeListRow row) {
+        return new EmployeeResponse(
+                row.employeeId(),
+                row.employeeName(),
+                row.email(),
+                row.empRole() != null ? row.empRole().name() : null,
+                row.designation(),
+                row.stream(),
+                row.band() != null ? row.band().name() : null,
+                row.managerId(),
+                row.managerName(),
+                row.updatedById(),
+                row.createdAt(),
+                row.updatedAt()
+        );
+    }
+
     private String resolveDesignation(Employee e) {
-        String stream = e != null ? e.getStream() : null;
-        CurrentBand band = e != null ? e.getBand() : null;
-        if (stream == null || stream.isBlank() || band == null) return null;
-        String canonicalStream = BandStreamNormalizer.canonicalStreamLabel(stream);
-        if (canonicalStream != null && !canonicalStream.isBlank()) {
-            DesignationLookup.DesignationId canonicalId = new DesignationLookup.DesignationId(canonicalStream, band);
-            var canonical = designationLookupRepository.findById(canonicalId).map(DesignationLookup::getDesignation);
-            if (canonical.isPresent()) return canonical.get();
-        }
-        DesignationLookup.DesignationId rawId = new DesignationLookup.DesignationId(stream, band);
-        return designationLookupRepository.findById(rawId).map(DesignationLookup::getDesignation).orElse(null);
+        if (e == null) return null;
+        return designationTable.designationFor(e.getStream(), e.getBand());
     }
 
     private static EmployeeRole parseRole(String value) {
@@ -363,6 +403,7 @@ public class EmployeeController {
             String stream,
             String band,
             String managerId,
+            String managerName,
             String updatedById,
             java.time.LocalDateTime createdAt,
             java.time.LocalDateTime updatedAt
@@ -393,6 +434,14 @@ public class EmployeeController {
             String password
     ) {}
 
+    public record BulkPromotionRequest(
+            List<String> employeeIds,
+            String band,
+            String stream,
+            String managerId,
+            Boolean dryRun
+    ) {}
+
     public record CursorPageResponse<T>(
             List<T> items,
             String nextCursor,
@@ -5,6 +5,7 @@ import com.webknot.kpi.models.CurrentBand;
 import com.webknot.kpi.models.CurrentStream;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.RequestActorContext;
 import com.webknot.kpi.service.KpiDefinitionService;
 import com.webknot.kpi.service.WebknotValueService;
 import com.webknot.kpi.util.BandStreamNormalizer;
@@ -34,13 +35,16 @@ public class EmployeePortalReadController {
     private final KpiDefinitionService kpiDefinitionService;
     private final WebknotValueService webknotValueService;
     private final EmployeeRepository employeeRepository;
+    private final RequestActorContext actorContext;
 
     public EmployeePortalReadController(KpiDefinitionService kpiDefinitionService,
                                         WebknotValueService webknotValueService,
-                                        EmployeeRepository employeeRepository) {
+                                        EmployeeRepository employeeRepository,
+                                        RequestActorContext actorContext) {
         this.kpiDefinitionService = kpiDefinitionService;
         this.webknotValueService = webknotValueService;
         this.employeeRepository = employeeRepository;
+        this.actorContext = actorContext;
     }
 
     @GetMapping("/kpi-definitions")
@@ -108,9 +112,7 @@ public class EmployeePortalReadController {
         if (employeeId != null) {
             return employeeRepository.findById(employeeId);
         }
-        String email = authentication == null ? null : trimToNull(authentication.getName());
-        if (email == null || "anonymousUser".equalsIgnoreCase(email)) return Optional.empty();
-        return employeeRepository.findByEmail(email);
+        return actorContext.currentActor(authentication);
     }
 
     private static int parsePositiveInt(String raw, int defaultValue, int maxValue) {
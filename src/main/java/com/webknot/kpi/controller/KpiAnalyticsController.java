@@ -0,0 +1,42 @@
+package com.webknot.kpi.controller;
+
+import com.webknot.kpi.service.KpiAnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/analytics")
+public class KpiAnalyticsController {
+    private static final Logger log = LoggerFactory.getLogger(KpiAnalyticsController.class);
+
+    private final KpiAnalyticsService kpiAnalyticsService;
+
+    public KpiAnalyticsController(KpiAnalyticsService kpiAnalyticsService) {
+        this.kpiAnalyticsService = kpiAnalyticsService;
+    }
+
+    @GetMapping("/ratings")
+    public ResponseEntity<?> getRatingAggregates(@RequestParam(required = false) Map<String, String> query,
+                                                 Authentication authentication) {
+        try {
+            return ResponseEntity.ok(kpiAnalyticsService.ratingAggregates(authentication, query));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to fetch rating aggregates", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch rating aggregates");
+        }
+    }
+}
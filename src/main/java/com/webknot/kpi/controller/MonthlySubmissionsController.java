@@ -71,9 +71,10 @@ public class MonthlySubmissionsController {
     }
 
     @GetMapping("/me/history")
-    public ResponseEntity<?> getMyHistory(Authentication authentication) {
+    public ResponseEntity<?> getMyHistory(@RequestParam(required = false) String fields,
+                                          Authentication authentication) {
         try {
-            List<Map<String, Object>> history = monthlySubmissionService.getMyHistory(authentication);
+            List<Map<String, Object>> history = monthlySubmissionService.getMyHistory(authentication, fields);
             return ResponseEntity.ok(history);
         } catch (AccessDeniedException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
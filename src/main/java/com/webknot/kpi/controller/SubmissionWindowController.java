@@ -5,6 +5,7 @@ import com.webknot.kpi.dto.ScheduleWindowRequest;
 import com.webknot.kpi.dto.SubmissionWindowResponse;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.EmployeePrincipal;
 import com.webknot.kpi.service.SubmissionWindowService;
 import jakarta.validation.Valid;
 import org.apache.logging.log4j.LogManager;
@@ -16,7 +17,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/submission-window")
@@ -107,7 +111,82 @@ public class SubmissionWindowController {
         }
     }
 
+    @PostMapping("/employees/open-now")
+    public ResponseEntity<?> openNowForEmployees(@RequestBody(required = false) Map<String, Object> body,
+                                                 Authentication authentication) {
+        return bulkUpdate(body, true, authentication);
+    }
+
+    @PostMapping("/employees/close-now")
+    public ResponseEntity<?> closeNowForEmployees(@RequestBody(required = false) Map<String, Object> body,
+                                                  Authentication authentication) {
+        return bulkUpdate(body, false, authentication);
+    }
+
+    @PostMapping("/manager/{managerId}/team/open-now")
+    public ResponseEntity<?> openNowForTeam(@PathVariable String managerId, Authentication authentication) {
+        return teamUpdate(managerId, true, authentication);
+    }
+
+    @PostMapping("/manager/{managerId}/team/close-now")
+    public ResponseEntity<?> closeNowForTeam(@PathVariable String managerId, Authentication authentication) {
+        return teamUpdate(managerId, false, authentication);
+    }
+
+    @GetMapping("/manager/{managerId}/team")
+    public ResponseEntity<?> getTeamWindowStatus(@PathVariable String managerId, Authentication authentication) {
+        try {
+            requireAdmin(authentication);
+            return ResponseEntity.ok(service.getManagerTeamWindowStatus(managerId));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to fetch team submission window status", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch team window status");
+        }
+    }
+
+    private ResponseEntity<?> bulkUpdate(Map<String, Object> body, boolean open, Authentication authentication) {
+        try {
+            requireAdmin(authentication);
+            Object raw = body == null ? null : body.get("employeeIds");
+            if (!(raw instanceof Collection<?> values)) {
+                throw new IllegalArgumentException("employeeIds must be a list");
+            }
+            List<String> employeeIds = values.stream()
+                    .filter(Objects::nonNull)
+                    .map(String::valueOf)
+                    .toList();
+            return ResponseEntity.ok(service.setWindowForEmployees(employeeIds, open, resolveActorEmployeeId(authentication)));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to update submission window for employees", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update employee windows");
+        }
+    }
+
+    private ResponseEntity<?> teamUpdate(String managerId, boolean open, Authentication authentication) {
+        try {
+            requireAdmin(authentication);
+            return ResponseEntity.ok(service.setWindowForManagerTeam(managerId, open, resolveActorEmployeeId(authentication)));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to update submission window for team of manager={}", managerId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update team windows");
+        }
+    }
+
     private String resolveActorEmployeeId(Authentication authentication) {
+        EmployeePrincipal principal = EmployeePrincipal.from(authentication);
+        if (principal != null && principal.employeeId() != null) return principal.employeeId();
         String email = authentication == null ? null : authentication.getName();
         if (email == null || email.isBlank() || "anonymousUser".equalsIgnoreCase(email)) return null;
         return employeeRepository.findByEmail(email).map(Employee::getEmployeeId).orElse(null);
@@ -0,0 +1,93 @@
+package com.webknot.kpi.logging;
+
+/**
+ * Per-request counters for JDBC statements, Redis round trips and JSON parsing, bound to the request thread by
+ * {@link RequestProfilingFilter}. The {@code record*} methods are no-ops on threads without an active profile
+ * (schedulers, async completions), so callers never need to check.
+ */
+public final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long statementNanos;
+    private int redisCalls;
+    private long redisNanos;
+    private int jsonParses;
+    private long jsonParseNanos;
+    private long jsonParseStartedAt;
+
+    private RequestProfile() {
+    }
+
+    static RequestProfile begin() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void recordStatement(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) return;
+        profile.statements++;
+        profile.statementNanos += nanos;
+    }
+
+    public static void recordRedisCall(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) return;
+        profile.redisCalls++;
+        profile.redisNanos += nanos;
+    }
+
+    public static void recordJsonParse(long nanos) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) return;
+        profile.jsonParses++;
+        profile.jsonParseNanos += nanos;
+    }
+
+    /**
+     * Marks the start of a parse that {@link #jsonParseFinished()} completes, for callers that see the two ends
+     * in separate callbacks.
+     */
+    public static void jsonParseStarted() {
+        RequestProfile profile = CURRENT.get();
+        if (profile != null) profile.jsonParseStartedAt = System.nanoTime();
+    }
+
+    public static void jsonParseFinished() {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null || profile.jsonParseStartedAt == 0) return;
+        recordJsonParse(System.nanoTime() - profile.jsonParseStartedAt);
+        profile.jsonParseStartedAt = 0;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long statementMillis() {
+        return statementNanos / 1_000_000L;
+    }
+
+    int redisCalls() {
+        return redisCalls;
+    }
+
+    long redisMillis() {
+        return redisNanos / 1_000_000L;
+    }
+
+    int jsonParses() {
+        return jsonParses;
+    }
+
+    long jsonParseMillis() {
+        return jsonParseNanos / 1_000_000L;
+    }
+}
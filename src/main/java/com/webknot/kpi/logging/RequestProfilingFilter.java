@@ -0,0 +1,160 @@
+package com.webknot.kpi.logging;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Collects a {@link RequestProfile} for each request, records the number of JDBC statements per endpoint as
+ * {@code kpi.request.statements}, and logs a one-line breakdown for requests slower than
+ * {@code request-profiler.slow-threshold-ms}. Runs inside {@link RequestLoggingFilter}, so the line carries the
+ * same {@code requestId}.
+ * <p>
+ * Async requests are recorded when the async cycle completes, so the duration covers the whole exchange. Only
+ * work done on the initial request thread is counted: statements run on executor threads or during the
+ * dispatch back to the container have no profile bound. SSE streams are left out of the slow-request log.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestProfilingFilter.class);
+
+    private final boolean enabled;
+    private final long slowThresholdMillis;
+    private final MeterRegistry meterRegistry;
+
+    public RequestProfilingFilter(@Value("${request-profiler.enabled:true}") boolean enabled,
+                                  @Value("${request-profiler.slow-threshold-ms:1000}") long slowThresholdMillis,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.slowThresholdMillis = Math.max(0, slowThresholdMillis);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.begin();
+        long startedAtNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, profile, startedAtNanos));
+            } else {
+                record(request, response, profile, startedAtNanos);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request,
+                        HttpServletResponse response,
+                        RequestProfile profile,
+                        long startedAtNanos) {
+        long durationMs = (System.nanoTime() - startedAtNanos) / 1_000_000L;
+        String uri = resolveUriTemplate(request);
+        DistributionSummary.builder("kpi.request.statements")
+                .description("JDBC statements executed per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .serviceLevelObjectives(1, 2, 5, 10, 25, 50, 100, 250)
+                .register(meterRegistry)
+                .record(profile.statements());
+        if (durationMs >= slowThresholdMillis && !isEventStream(response)) {
+            log.warn("Slow request method={} uri={} status={} durationMs={} statements={} statementMs={} "
+                            + "redisCalls={} redisMs={} jsonParses={} jsonParseMs={}",
+                    request.getMethod(),
+                    uri,
+                    response.getStatus(),
+                    durationMs,
+                    profile.statements(),
+                    profile.statementMillis(),
+                    profile.redisCalls(),
+                    profile.redisMillis(),
+                    profile.jsonParses(),
+                    profile.jsonParseMillis());
+        }
+    }
+
+    /**
+     * SSE connections stay open by design, so their duration says nothing about latency.
+     */
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * The matched handler pattern (e.g. {@code /employees/{id}}), so neither the metric nor the log line carries
+     * ids from the path.
+     */
+    private static String resolveUriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+
+    /**
+     * Records an async request (CompletableFuture, SseEmitter) when it completes instead of when the initial
+     * dispatch returns.
+     */
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final RequestProfile profile;
+        private final long startedAtNanos;
+
+        private CompletionListener(HttpServletRequest request,
+                                   HttpServletResponse response,
+                                   RequestProfile profile,
+                                   long startedAtNanos) {
+            this.request = request;
+            this.response = response;
+            this.profile = profile;
+            this.startedAtNanos = startedAtNanos;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, profile, startedAtNanos);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // a new async cycle drops registered listeners; stay on it to record the final completion
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
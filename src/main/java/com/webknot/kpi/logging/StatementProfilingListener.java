@@ -0,0 +1,34 @@
+package com.webknot.kpi.logging;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC statement and batch Hibernate executes and adds it to the current {@link RequestProfile}.
+ * Registered for every session through {@code hibernate.session.events.auto}; Hibernate creates one instance
+ * per session, and a session is only used by one thread at a time.
+ */
+public class StatementProfilingListener implements SessionEventListener {
+
+    private long statementStartedAt;
+    private long batchStartedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestProfile.recordStatement(System.nanoTime() - statementStartedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestProfile.recordStatement(System.nanoTime() - batchStartedAt);
+    }
+}
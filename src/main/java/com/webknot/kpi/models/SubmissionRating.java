@@ -0,0 +1,117 @@
+package com.webknot.kpi.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * One rating from a submission's {@code kpiRatings} or {@code webknotValueResponses}, together with the
+ * employee's band, stream and manager at the time it was saved. Rows are rewritten from the payload on every
+ * save (see {@code SubmissionRatingRepository}) and only read through aggregate queries.
+ */
+@Entity
+@Immutable
+@Table(name = "submission_ratings", schema = "dev")
+public class SubmissionRating {
+
+    public static final String SOURCE_KPI = "KPI";
+    public static final String SOURCE_VALUE = "VALUE";
+
+    @EmbeddedId
+    private RatingId id;
+
+    @Column(name = "employee_id", nullable = false)
+    private String employeeId;
+
+    @Column(name = "month", nullable = false, length = 7)
+    private String month;
+
+    @Column(name = "submission_type", nullable = false, length = 64)
+    private String submissionType;
+
+    @Column(name = "status", nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "band", length = 16)
+    private String band;
+
+    @Column(name = "stream")
+    private String stream;
+
+    @Column(name = "manager_id")
+    private String managerId;
+
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Column(name = "item_label")
+    private String itemLabel;
+
+    @Column(name = "rating", nullable = false)
+    private float rating;
+
+    public RatingId getId() { return id; }
+
+    public String getEmployeeId() { return employeeId; }
+
+    public String getMonth() { return month; }
+
+    public String getSubmissionType() { return submissionType; }
+
+    public String getStatus() { return status; }
+
+    public String getBand() { return band; }
+
+    public String getStream() { return stream; }
+
+    public String getManagerId() { return managerId; }
+
+    public String getItemId() { return itemId; }
+
+    public String getItemLabel() { return itemLabel; }
+
+    public float getRating() { return rating; }
+
+    @Embeddable
+    public static class RatingId implements Serializable {
+
+        @Column(name = "submission_id", nullable = false)
+        private Long submissionId;
+
+        @Column(name = "source", nullable = false, length = 8)
+        private String source;
+
+        @Column(name = "ordinal", nullable = false)
+        private Integer ordinal;
+
+        public RatingId() {}
+
+        public RatingId(Long submissionId, String source, Integer ordinal) {
+            this.submissionId = submissionId;
+            this.source = source;
+            this.ordinal = ordinal;
+        }
+
+        public Long getSubmissionId() { return submissionId; }
+
+        public String getSource() { return source; }
+
+        public Integer getOrdinal() { return ordinal; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RatingId that)) return false;
+            return Objects.equals(submissionId, that.submissionId)
+                    && Objects.equals(source, that.source)
+                    && Objects.equals(ordinal, that.ordinal);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(submissionId, source, ordinal);
+        }
+    }
+}
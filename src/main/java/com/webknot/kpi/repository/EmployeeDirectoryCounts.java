@@ -0,0 +1,14 @@
+package com.webknot.kpi.repository;
+
+import java.io.Serializable;
+
+/**
+ * Directory-wide employee counters, computed in one aggregate query.
+ */
+public record EmployeeDirectoryCounts(
+        Long total,
+        Long managerCount,
+        Long adminCount,
+        Long employeeCount,
+        Long bandCount
+) implements Serializable {}
@@ -0,0 +1,42 @@
+package com.webknot.kpi.repository;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.EmployeeRole;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat employee listing row: employee columns plus the manager's id and name, selected in one joined query so
+ * list endpoints never touch the lazy {@code manager}/{@code updatedBy} associations. The designation is
+ * resolved in memory after the select.
+ */
+public record EmployeeListRow(
+        String employeeId,
+        String employeeName,
+        String email,
+        EmployeeRole empRole,
+        String stream,
+        CurrentBand band,
+        String managerId,
+        String managerName,
+        String updatedById,
+        String designation,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    /**
+     * Constructor used by the JPQL projection, before the designation is known.
+     */
+    public EmployeeListRow(String employeeId, String employeeName, String email, EmployeeRole empRole,
+                           String stream, CurrentBand band, String managerId, String managerName,
+                           String updatedById, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(employeeId, employeeName, email, empRole, stream, band, managerId, managerName, updatedById,
+                null, createdAt, updatedAt);
+    }
+
+    public EmployeeListRow withDesignation(String designation) {
+        return new EmployeeListRow(employeeId, employeeName, email, empRole, stream, band, managerId, managerName,
+                updatedById, designation, createdAt, updatedAt);
+    }
+}
@@ -3,13 +3,15 @@ package com.webknot.kpi.repository;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, String> {
+public interface EmployeeRepository extends JpaRepository<Employee, String>, JpaSpecificationExecutor<Employee> {
     Optional<Employee> findByEmail(String email);
 
     boolean existsByEmail(String email);
@@ -18,12 +20,64 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
 
     List<Employee> findByManager_EmployeeId(String managerId);
 
-    List<Employee> findAllByOrderByEmployeeIdAsc(Pageable pageable);
+    @Query("select e.employeeId, m.employeeId from Employee e left join e.manager m")
+    List<Object[]> findManagerEdges();
 
-    List<Employee> findByEmployeeIdGreaterThanOrderByEmployeeIdAsc(String employeeId, Pageable pageable);
+    @Query("select e.employeeId from Employee e order by e.employeeId")
+    List<String> findAllEmployeeIds();
 
-    long countByEmpRole(EmployeeRole role);
+    /**
+     * Direct and skip-level reportees of {@code managerId}, excluding the manager. {@code union} drops rows
+     * already seen, so a manager cycle ends the walk instead of looping.
+     */
+    @Query(value = """
+        with recursive org(employee_id) as (
+            select e.employee_id from dev.employees e where e.manager_id = :managerId
+            union
+            select e.employee_id from dev.employees e join org o on e.manager_id = o.employee_id
+        )
+        select o.employee_id from org o where o.employee_id <> :managerId order by o.employee_id
+        """, nativeQuery = true)
+    List<String> findOrgEmployeeIds(@Param("managerId") String managerId);
 
-    @Query("select count(distinct e.band) from Employee e")
-    long countDistinctBand();
+    /**
+     * Shared select for the list endpoints. The designation is filled in from {@code DesignationTable} by the
+     * service, which falls back from the canonical stream label to the stored one.
+     */
+    String LIST_ROW_SELECT = """
+        select new com.webknot.kpi.repository.EmployeeListRow(
+               e.employeeId, e.employeeName, e.email, e.empRole, e.stream, e.band,
+               m.employeeId, m.employeeName, u.employeeId, e.createdAt, e.updatedAt)
+          from Employee e
+          left join e.manager m
+          left join e.updatedBy u
+        """;
+
+    @Query(LIST_ROW_SELECT + " order by e.employeeId")
+    List<EmployeeListRow> findListRows(Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " where e.employeeId > :startAfter order by e.employeeId")
+    List<EmployeeListRow> findListRowsAfter(@Param("startAfter") String startAfter, Pageable pageable);
+
+    @Query(LIST_ROW_SELECT + " order by e.employeeId")
+    List<EmployeeListRow> findAllListRows();
+
+    @Query(LIST_ROW_SELECT + " where m.employeeId = :managerId order by e.employeeId")
+    List<EmployeeListRow> findListRowsByManagerId(@Param("managerId") String managerId);
+
+    @Query("""
+        select new com.webknot.kpi.repository.EmployeeDirectoryCounts(
+               count(e),
+               coalesce(sum(case when e.empRole = :manager then 1L else 0L end), 0L),
+               coalesce(sum(case when e.empRole = :admin then 1L else 0L end), 0L),
+               coalesce(sum(case when e.empRole = :employee then 1L else 0L end), 0L),
+               count(distinct e.band))
+          from Employee e
+        """)
+    EmployeeDirectoryCounts aggregateDirectoryCounts(@Param("manager") EmployeeRole manager,
+                                                     @Param("admin") EmployeeRole admin,
+                                                     @Param("employee") EmployeeRole employee);
+
+    @Query("select e.tokenVersion from Employee e where e.employeeId = :employeeId")
+    Optional<Long> findTokenVersionByEmployeeId(@Param("employeeId") String employeeId);
 }
@@ -1,64 +1,19 @@
 package com.webknot.kpi.repository;
 
 import com.webknot.kpi.models.NotificationEvent;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 
-public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long> {
-
-    List<NotificationEvent> findByRecipient_EmployeeIdOrderByIdDesc(String recipientEmployeeId, Pageable pageable);
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndIdLessThanOrderByIdDesc(
-            String recipientEmployeeId,
-            Long id,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndTypeInOrderByIdDesc(
-            String recipientEmployeeId,
-            Collection<String> types,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndTypeInAndIdLessThanOrderByIdDesc(
-            String recipientEmployeeId,
-            Collection<String> types,
-            Long id,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndReadFalseOrderByIdDesc(
-            String recipientEmployeeId,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndReadFalseAndIdLessThanOrderByIdDesc(
-            String recipientEmployeeId,
-            Long id,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndReadFalseAndTypeInOrderByIdDesc(
-            String recipientEmployeeId,
-            Collection<String> types,
-            Pageable pageable
-    );
-
-    List<NotificationEvent> findByRecipient_EmployeeIdAndReadFalseAndTypeInAndIdLessThanOrderByIdDesc(
-            String recipientEmployeeId,
-            Collection<String> types,
-            Long id,
-            Pageable pageable
-    );
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Long>, NotificationEventRepositoryCustom {
 
+    // Unread rows are counted whatever their age: retention never removes them, so neither may the inbox.
     long countByRecipient_EmployeeIdAndReadFalse(String recipientEmployeeId);
 
     long countByRecipient_EmployeeIdAndReadFalseAndTypeIn(String recipientEmployeeId, Collection<String> types);
@@ -90,4 +45,53 @@ public interface NotificationEventRepository extends JpaRepository<NotificationE
     """)
     int markAllRead(@Param("recipientEmployeeId") String recipientEmployeeId,
                     @Param("now") LocalDateTime now);
+
+    @Transactional(timeout = 60)
+    @Modifying
+    @Query(value = """
+        with moved as (
+            delete from dev.notifications n
+             where n.id in (
+                   select c.id
+                     from dev.notifications c
+                    where c.is_read = true
+                      and c.created_at < :cutoff
+                    order by c.created_at, c.id
+                    limit :batchSize
+                    for update skip locked
+             )
+            returning n.id, n.recipient_employee_id, n.type, n.title, n.message, n.payload_json,
+                      n.is_read, n.read_at, n.created_at, n.updated_at
+        )
+        insert into dev.notifications_archive
+            (id, recipient_employee_id, type, title, message, payload_json,
+             is_read, read_at, created_at, updated_at, archived_at)
+        select id, recipient_employee_id, type, title, message, payload_json,
+               is_read, read_at, created_at, updated_at, :archivedAt
+          from moved
+    """, nativeQuery = true)
+    int archiveReadBatch(@Param("cutoff") LocalDateTime cutoff,
+                         @Param("batchSize") int batchSize,
+                         @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Transactional(timeout = 60)
+    @Modifying
+    @Query(value = """
+        delete from dev.notifications n
+         where n.id in (
+               select c.id
+                 from dev.notifications c
+                where c.is_read = true
+                  and c.created_at < :cutoff
+                order by c.created_at, c.id
+                limit :batchSize
+                for update skip locked
+         )
+    """, nativeQuery = true)
+    int deleteReadBatch(@Param("cutoff") LocalDateTime cutoff,
+                        @Param("batchSize") int batchSize);
+
+    @Transactional(timeout = 60)
+    @Query(value = "select dev.ensure_notification_partitions(:monthsAhead)", nativeQuery = true)
+    Integer ensureMonthlyPartitions(@Param("monthsAhead") int monthsAhead);
 }
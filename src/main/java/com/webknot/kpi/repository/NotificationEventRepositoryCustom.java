@@ -0,0 +1,35 @@
+package com.webknot.kpi.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationEventRepositoryCustom {
+
+    /**
+     * Keyset page of a recipient's notifications, newest first, projected straight into {@link NotificationRow}
+     * so no {@code NotificationEvent} entities (or recipient proxies) are hydrated.
+     *
+     * @param types      optional type filter; empty or {@code null} means all types
+     * @param unreadOnly restrict to unread rows
+     * @param beforeId   optional cursor; only rows with a smaller id are returned
+     * @param since      inbox horizon for read rows; unread rows are returned whatever their age
+     * @param limit      maximum number of rows to return
+     */
+    List<NotificationRow> findPageForRecipient(String recipientEmployeeId,
+                                               Collection<String> types,
+                                               boolean unreadOnly,
+                                               Long beforeId,
+                                               LocalDateTime since,
+                                               int limit);
+
+    record NotificationRow(
+            Long id,
+            String type,
+            String title,
+            String message,
+            LocalDateTime createdAt,
+            Boolean read,
+            String payloadJson
+    ) {}
+}
@@ -0,0 +1,67 @@
+package com.webknot.kpi.repository;
+
+import com.webknot.kpi.models.NotificationEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class NotificationEventRepositoryCustomImpl implements NotificationEventRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<NotificationRow> findPageForRecipient(String recipientEmployeeId,
+                                                      Collection<String> types,
+                                                      boolean unreadOnly,
+                                                      Long beforeId,
+                                                      LocalDateTime since,
+                                                      int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NotificationRow> query = cb.createQuery(NotificationRow.class);
+        Root<NotificationEvent> n = query.from(NotificationEvent.class);
+
+        // Only the predicates that apply are added, so each filter combination gets its own tight SQL.
+        // The horizon only bounds read rows: unread ones stay in the table until read, so they stay listed too.
+        List<Predicate> predicates = new ArrayList<>(4);
+        predicates.add(cb.equal(n.get("recipient").get("employeeId"), recipientEmployeeId));
+        if (unreadOnly) {
+            predicates.add(cb.isFalse(n.get("read")));
+        } else {
+            predicates.add(cb.or(
+                    cb.isFalse(n.get("read")),
+                    cb.greaterThanOrEqualTo(n.<LocalDateTime>get("createdAt"), since)));
+        }
+        if (types != null && !types.isEmpty()) {
+            predicates.add(n.get("type").in(types));
+        }
+        if (beforeId != null) {
+            predicates.add(cb.lessThan(n.get("id"), beforeId));
+        }
+
+        query.select(cb.construct(
+                        NotificationRow.class,
+                        n.get("id"),
+                        n.get("type"),
+                        n.get("title"),
+                        n.get("message"),
+                        n.get("createdAt"),
+                        n.get("read"),
+                        n.get("payloadJson")
+                ))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(n.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
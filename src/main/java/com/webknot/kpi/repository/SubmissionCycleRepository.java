@@ -3,10 +3,30 @@ package com.webknot.kpi.repository;
 import com.webknot.kpi.models.SubmissionCycle;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface SubmissionCycleRepository extends JpaRepository<SubmissionCycle, UUID> {
     Optional<SubmissionCycle> findByCycleKey(String cycleKey);
+
+    @Transactional(timeout = 10)
+    @Modifying
+    @Query(value = """
+        insert into dev.submission_cycles
+            (id, cycle_key, timezone, window_start_at, window_end_at, manual_closed, created_at, updated_at)
+        values (:id, :cycleKey, :timezone, :windowStartAt, :windowEndAt, true, :now, :now)
+        on conflict (cycle_key) do nothing
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("cycleKey") String cycleKey,
+                       @Param("timezone") String timezone,
+                       @Param("windowStartAt") OffsetDateTime windowStartAt,
+                       @Param("windowEndAt") OffsetDateTime windowEndAt,
+                       @Param("now") OffsetDateTime now);
 }
@@ -0,0 +1,85 @@
+package com.webknot.kpi.repository;
+
+import com.webknot.kpi.models.SubmissionRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SubmissionRatingRepository extends JpaRepository<SubmissionRating, SubmissionRating.RatingId> {
+
+    /**
+     * Flushes first so the extraction below reads the payload being saved, not the previous version.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from dev.submission_ratings where submission_id = :submissionId", nativeQuery = true)
+    int deleteBySubmissionId(@Param("submissionId") Long submissionId);
+
+    /**
+     * Copies the numeric 1-5 ratings out of the stored payload in one statement, through
+     * {@code dev.submission_rating_items} (defined in {@code sql/submission_ratings.sql}, which the backfill
+     * there uses as well).
+     */
+    @Modifying
+    @Query(value = """
+        insert into dev.submission_ratings
+               (submission_id, source, ordinal, employee_id, month, submission_type, status,
+                band, stream, manager_id, item_id, item_label, rating)
+        select s.id, r.source, r.ordinal, s.employee_id, s.month, s.submission_type, s.status,
+               cast(e.band as varchar), e.stream, e.manager_id, r.item_id, r.item_label, r.rating
+          from dev.monthly_submissions s
+          join dev.employees e on e.employee_id = s.employee_id
+          cross join lateral dev.submission_rating_items(s.payload_json) r
+         where s.id = :submissionId
+        """, nativeQuery = true)
+    int extractFromSubmission(@Param("submissionId") Long submissionId);
+
+    /**
+     * Rating statistics for one month and source, grouped by {@code dimension} ({@code band}, {@code stream},
+     * {@code manager}, {@code item} or {@code all}). Each row is
+     * {@code [groupKey, groupLabel, ratings, employees, mean, p25, p50, p75, p90, r1, r2, r3, r4, r5]}, where
+     * {@code r1..r5} count ratings rounded to that score. {@code managerId} limits the rows to one manager's
+     * direct reports; drafts are left out unless {@code includeDrafts}.
+     */
+    @Query(value = """
+        select case :dimension
+                    when 'band' then r.band
+                    when 'stream' then r.stream
+                    when 'manager' then r.manager_id
+                    when 'item' then r.item_id
+                    else 'all' end as group_key,
+               max(case :dimension
+                    when 'manager' then m.employee_name
+                    when 'item' then r.item_label
+                    else null end) as group_label,
+               count(*) as ratings,
+               count(distinct r.employee_id) as employees,
+               avg(r.rating) as mean,
+               percentile_cont(0.25) within group (order by r.rating) as p25,
+               percentile_cont(0.5) within group (order by r.rating) as p50,
+               percentile_cont(0.75) within group (order by r.rating) as p75,
+               percentile_cont(0.9) within group (order by r.rating) as p90,
+               count(*) filter (where r.rating < 1.5) as r1,
+               count(*) filter (where r.rating >= 1.5 and r.rating < 2.5) as r2,
+               count(*) filter (where r.rating >= 2.5 and r.rating < 3.5) as r3,
+               count(*) filter (where r.rating >= 3.5 and r.rating < 4.5) as r4,
+               count(*) filter (where r.rating >= 4.5) as r5
+          from dev.submission_ratings r
+          left join dev.employees m on m.employee_id = r.manager_id
+         where r.month = :month
+           and r.source = :source
+           and r.submission_type = :submissionType
+           and (:includeDrafts = true or r.status <> 'DRAFT')
+           and (cast(:managerId as varchar) is null or r.manager_id = cast(:managerId as varchar))
+         group by 1
+         order by 1
+        """, nativeQuery = true)
+    List<Object[]> aggregate(@Param("month") String month,
+                             @Param("source") String source,
+                             @Param("submissionType") String submissionType,
+                             @Param("dimension") String dimension,
+                             @Param("includeDrafts") boolean includeDrafts,
+                             @Param("managerId") String managerId);
+}
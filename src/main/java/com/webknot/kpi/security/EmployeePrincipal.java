@@ -0,0 +1,32 @@
+package com.webknot.kpi.security;
+
+import org.springframework.security.core.Authentication;
+
+import java.security.Principal;
+
+/**
+ * Authenticated caller built from verified token claims.
+ * <p>
+ * {@link #getName()} returns the email so existing {@code authentication.getName()} lookups keep working,
+ * while callers that only need the id or role can read them without loading the {@code Employee} row.
+ */
+public record EmployeePrincipal(String employeeId, String email, String role, long tokenVersion) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isAdmin() {
+        return "Admin".equals(role);
+    }
+
+    /**
+     * Returns the principal carried by {@code authentication}, or {@code null} for anonymous or foreign
+     * authentication types.
+     */
+    public static EmployeePrincipal from(Authentication authentication) {
+        if (authentication == null) return null;
+        return authentication.getPrincipal() instanceof EmployeePrincipal principal ? principal : null;
+    }
+}
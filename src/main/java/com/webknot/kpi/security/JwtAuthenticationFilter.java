@@ -2,6 +2,8 @@ package com.webknot.kpi.security;
 
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -24,22 +26,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
     private final EmployeeRepository employeeRepository;
+    private final TokenVersionService tokenVersionService;
+    private final RequestActorContext actorContext;
     private final String authCookieName;
+    private final boolean statelessPrincipal;
+    private final MeterRegistry meterRegistry;
 
     public JwtAuthenticationFilter(JwtService jwtService,
                                    TokenBlacklistService tokenBlacklistService,
                                    EmployeeRepository employeeRepository,
-                                   @Value("${auth.cookie.name:access_token}") String authCookieName) {
+                                   TokenVersionService tokenVersionService,
+                                   RequestActorContext actorContext,
+                                   @Value("${auth.cookie.name:access_token}") String authCookieName,
+                                   @Value("${auth.stateless-principal.enabled:true}") boolean statelessPrincipal,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.tokenBlacklistService = tokenBlacklistService;
         this.employeeRepository = employeeRepository;
+        this.tokenVersionService = tokenVersionService;
+        this.actorContext = actorContext;
         this.authCookieName = authCookieName;
+        this.statelessPrincipal = statelessPrincipal;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = authenticate(request);
+        sample.stop(Timer.builder("kpi.jwt.filter")
+                .description("Time spent resolving the caller from the access token")
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Populates the security context from the request's access token, if any, and returns a low-cardinality
+     * outcome for the {@code kpi.jwt.filter} timer.
+     */
+    private String authenticate(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
         String token = null;
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -53,36 +81,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
         if (token == null || token.isBlank()) {
-            filterChain.doFilter(request, response);
-            return;
+            return "anonymous";
         }
         if (tokenBlacklistService.isRevoked(token)) {
-            filterChain.doFilter(request, response);
-            return;
+            return "revoked";
         }
 
-        String email;
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return "preauthenticated";
+        }
+
+        JwtService.VerifiedToken verified;
         try {
-            email = jwtService.extractEmail(token);
+            verified = jwtService.verify(token);
         } catch (Exception e) {
-            filterChain.doFilter(request, response);
-            return;
+            return "invalid";
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            Employee employee = employeeRepository.findByEmail(email).orElse(null);
-            if (employee != null && jwtService.isTokenValid(token, employee.getEmail())) {
-                String role = employee.getEmpRole() != null ? employee.getEmpRole().name() : "Employee";
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        employee.getEmail(),
-                        null,
-                        List.of(new SimpleGrantedAuthority("ROLE_" + role))
-                );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        EmployeePrincipal principal = verified == null ? null : resolvePrincipal(verified);
+        if (principal == null) {
+            return "rejected";
+        }
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                principal,
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + principal.role()))
+        );
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        return "authenticated";
+    }
+
+    /**
+     * Builds the principal from verified claims alone when the token carries an employee id and token version,
+     * checking the version against the cached current value. Older tokens without those claims (or with the
+     * stateless mode disabled) fall back to loading the employee by email.
+     */
+    private EmployeePrincipal resolvePrincipal(JwtService.VerifiedToken verified) {
+        String email = verified.subject();
+        if (email == null) return null;
+
+        if (statelessPrincipal
+                && verified.employeeId() != null
+                && verified.tokenVersion() != null
+                && verified.role() != null) {
+            if (!tokenVersionService.isCurrent(verified.employeeId(), verified.tokenVersion())) {
+                return null;
             }
+            return new EmployeePrincipal(verified.employeeId(), email, verified.role(), verified.tokenVersion());
         }
 
-        filterChain.doFilter(request, response);
+        Employee employee = employeeRepository.findByEmail(email).orElse(null);
+        if (employee == null) return null;
+        if (verified.tokenVersion() != null && verified.tokenVersion() != employee.getTokenVersion()) {
+            return null;
+        }
+        actorContext.seed(employee);
+        String role = employee.getEmpRole() != null ? employee.getEmpRole().name() : "Employee";
+        return new EmployeePrincipal(employee.getEmployeeId(), employee.getEmail(), role, employee.getTokenVersion());
     }
 }
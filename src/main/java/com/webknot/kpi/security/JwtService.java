@@ -2,67 +2,158 @@ package com.webknot.kpi.security;
 
 import com.webknot.kpi.models.Employee;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Issues and verifies access tokens.
+ * <p>
+ * Signing keys and the parser are built once at startup. Tokens are signed with the active key and carry its
+ * id in the {@code kid} header; verification picks the key by {@code kid}, so previous keys listed in
+ * {@code jwt.previous-keys} ({@code kid:secret,kid:secret}) keep validating tokens issued before a rotation.
+ * Tokens without a {@code kid} (issued before key ids were introduced) are verified with the active key.
+ */
 @Service
 public class JwtService {
 
-    private final String jwtSecret;
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EMPLOYEE_ID = "eid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     private final long jwtExpirationMs;
+    private final String activeKeyId;
+    private final SecretKey activeKey;
+    private final Map<String, SecretKey> verificationKeys;
+    private final JwtParser parser;
 
     public JwtService(@Value("${jwt.secret}") String jwtSecret,
-                      @Value("${jwt.expiration-ms:86400000}") long jwtExpirationMs) {
-        this.jwtSecret = jwtSecret;
+                      @Value("${jwt.expiration-ms:86400000}") long jwtExpirationMs,
+                      @Value("${jwt.key-id:primary}") String activeKeyId,
+                      @Value("${jwt.previous-keys:}") String previousKeys) {
         this.jwtExpirationMs = jwtExpirationMs;
+        this.activeKeyId = activeKeyId == null || activeKeyId.isBlank() ? "primary" : activeKeyId.trim();
+        this.activeKey = toSigningKey(jwtSecret);
+
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        keys.put(this.activeKeyId, activeKey);
+        keys.putAll(parsePreviousKeys(previousKeys, this.activeKeyId));
+        this.verificationKeys = Collections.unmodifiableMap(keys);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        if (kid == null || kid.isBlank()) return activeKey;
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) throw new JwtException("Unknown signing key id: " + kid);
+                        return key;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Employee employee) {
         Instant now = Instant.now();
         return Jwts.builder()
+                .header().keyId(activeKeyId).and()
                 .subject(employee.getEmail())
-                .claim("role", employee.getEmpRole() != null ? employee.getEmpRole().name() : "Employee")
+                .claim(CLAIM_ROLE, employee.getEmpRole() != null ? employee.getEmpRole().name() : "Employee")
+                .claim(CLAIM_EMPLOYEE_ID, employee.getEmployeeId())
+                .claim(CLAIM_TOKEN_VERSION, employee.getTokenVersion())
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(now.plusMillis(jwtExpirationMs)))
-                .signWith(getSigningKey())
+                .signWith(activeKey)
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry in a single parse.
+     *
+     * @throws JwtException when the token is malformed, expired, or signed with an unknown key
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get(CLAIM_EMPLOYEE_ID, String.class),
+                claims.get(CLAIM_ROLE, String.class),
+                tokenVersion != null ? tokenVersion.longValue() : null,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims
+        );
+    }
+
     public String extractEmail(String token) {
-        return extractAllClaims(token).getSubject();
+        return verify(token).subject();
     }
 
     public boolean isTokenValid(String token, String email) {
-        Claims claims = extractAllClaims(token);
-        return email.equals(claims.getSubject()) && claims.getExpiration().after(new Date());
+        VerifiedToken verified = verify(token);
+        return email.equals(verified.subject()) && verified.expiresAt() != null && verified.expiresAt().isAfter(Instant.now());
     }
 
     public Instant extractExpiration(String token) {
-        return extractAllClaims(token).getExpiration().toInstant();
+        return verify(token).expiresAt();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static Map<String, SecretKey> parsePreviousKeys(String raw, String activeKeyId) {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        if (raw == null || raw.isBlank()) return keys;
+        for (String entry : raw.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) continue;
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0 || separator == trimmed.length() - 1) {
+                throw new IllegalStateException("Invalid jwt.previous-keys entry; expected 'kid:secret'");
+            }
+            String kid = trimmed.substring(0, separator).trim();
+            if (kid.equals(activeKeyId)) {
+                throw new IllegalStateException("jwt.previous-keys must not reuse the active key id '" + kid + "'");
+            }
+            keys.put(kid, toSigningKey(trimmed.substring(separator + 1).trim()));
+        }
+        return keys;
     }
 
-    private Key getSigningKey() {
+    private static SecretKey toSigningKey(String secret) {
         byte[] keyBytes;
         try {
-            keyBytes = Decoders.BASE64.decode(jwtSecret);
+            keyBytes = Decoders.BASE64.decode(secret);
         } catch (Exception ignored) {
-            keyBytes = jwtSecret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
         }
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    /**
+     * {@code employeeId} and {@code tokenVersion} are {@code null} for tokens issued before those claims existed.
+     */
+    public record VerifiedToken(
+            String subject,
+            String employeeId,
+            String role,
+            Long tokenVersion,
+            Instant issuedAt,
+            Instant expiresAt,
+            Claims claims
+    ) {}
 }
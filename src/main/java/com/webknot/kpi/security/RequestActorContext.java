@@ -0,0 +1,105 @@
+package com.webknot.kpi.security;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Resolves the calling employee at most once per HTTP request.
+ * <p>
+ * The resolved {@link Employee} is memoized in a request attribute, so the filter, services and controllers
+ * handling one request share a single lookup. The cached actor is a detached snapshot taken when it was first
+ * resolved; it is meant for identity, role and audit references, not for lazy associations. Outside a
+ * request (scheduled jobs, async workers) nothing is memoized and every call reads the database.
+ */
+@Component
+public class RequestActorContext {
+
+    private static final String ATTRIBUTE = RequestActorContext.class.getName() + ".MEMO";
+
+    private final EmployeeRepository employeeRepository;
+
+    public RequestActorContext(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    public Optional<Employee> currentActor() {
+        return currentActor(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public Optional<Employee> currentActor(Authentication authentication) {
+        String email = actorEmail(authentication);
+        if (email == null) return Optional.empty();
+
+        Memo memo = memo();
+        if (memo != null && memo.actorResolved && email.equalsIgnoreCase(memo.actorEmail)) {
+            return Optional.ofNullable(memo.actor);
+        }
+
+        Employee actor = load(authentication, email);
+        if (memo != null) {
+            memo.remember(email, actor);
+        }
+        return Optional.ofNullable(actor);
+    }
+
+    public Employee requireActor(Authentication authentication) {
+        return currentActor(authentication).orElseThrow(() -> new AccessDeniedException("Unauthorized"));
+    }
+
+    /**
+     * Seeds the current request with an employee the caller has already loaded (the auth filter does this for
+     * tokens that still need an email lookup).
+     */
+    public void seed(Employee employee) {
+        Memo memo = memo();
+        if (memo == null || employee == null || employee.getEmail() == null) return;
+        memo.remember(employee.getEmail(), employee);
+    }
+
+    private Employee load(Authentication authentication, String email) {
+        EmployeePrincipal principal = EmployeePrincipal.from(authentication);
+        if (principal != null && principal.employeeId() != null) {
+            return employeeRepository.findById(principal.employeeId()).orElse(null);
+        }
+        return employeeRepository.findByEmail(email).orElse(null);
+    }
+
+    private static String actorEmail(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) return null;
+        String email = authentication.getName();
+        if (email == null) return null;
+        email = email.trim();
+        if (email.isEmpty() || "anonymousUser".equalsIgnoreCase(email)) return null;
+        return email;
+    }
+
+    private static Memo memo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        Object existing = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (existing instanceof Memo memo) return memo;
+        Memo memo = new Memo();
+        attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        return memo;
+    }
+
+    private static final class Memo {
+        private boolean actorResolved;
+        private String actorEmail;
+        private Employee actor;
+
+        private void remember(String email, Employee employee) {
+            this.actorResolved = true;
+            this.actorEmail = email;
+            this.actor = employee;
+        }
+    }
+}
@@ -73,6 +73,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> {
                     auth.requestMatchers("/auth/**").permitAll();
+                    // ahead of the legacy open /employees/** rule so bulk promotion stays admin-only
+                    auth.requestMatchers(HttpMethod.POST, "/employees/promote/bulk").hasRole("Admin");
 
                     if (permitOpenLegacyEndpoints) {
                         auth.requestMatchers("/employees/**").permitAll();
@@ -0,0 +1,100 @@
+package com.webknot.kpi.security;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-employee token versions used to revoke stateless sessions.
+ * <p>
+ * Tokens carry the employee's {@code token_version} at issue time. Any change that must end existing sessions
+ * (role, email or password change) bumps the version, and deleting the employee removes it entirely, so a
+ * token whose version no longer matches is rejected. Current versions are cached in {@value #CACHE_NAME} and
+ * evicted after the bumping transaction commits.
+ */
+@Service
+public class TokenVersionService {
+
+    public static final String CACHE_NAME = "token-versions";
+    private static final long MISSING = -1L;
+
+    private static final Logger log = LoggerFactory.getLogger(TokenVersionService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final CacheManager cacheManager;
+
+    public TokenVersionService(EmployeeRepository employeeRepository, CacheManager cacheManager) {
+        this.employeeRepository = employeeRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public boolean isCurrent(String employeeId, long tokenVersion) {
+        long current = currentVersion(employeeId);
+        return current != MISSING && current == tokenVersion;
+    }
+
+    public long currentVersion(String employeeId) {
+        if (employeeId == null || employeeId.isBlank()) return MISSING;
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            try {
+                Cache.ValueWrapper hit = cache.get(employeeId);
+                // values may come back as Integer from the JSON Redis serializer
+                if (hit != null && hit.get() instanceof Number cached) return cached.longValue();
+            } catch (Exception e) {
+                log.warn("Token version cache read failed for employeeId={}: {}", employeeId, e.getMessage());
+            }
+        }
+        long loaded = employeeRepository.findTokenVersionByEmployeeId(employeeId).orElse(MISSING);
+        // misses are not cached, so an id that is re-used by a newly created employee is picked up immediately
+        if (cache != null && loaded != MISSING) {
+            try {
+                cache.put(employeeId, loaded);
+            } catch (Exception e) {
+                log.warn("Token version cache write failed for employeeId={}: {}", employeeId, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Increments the employee's token version on the entity; the caller persists it with its own save and then
+     * calls {@link #evictAfterCompletion(String)}.
+     */
+    public void bump(Employee employee) {
+        if (employee == null) return;
+        employee.setTokenVersion(employee.getTokenVersion() + 1);
+    }
+
+    /**
+     * Evicts the cached version now and, when a transaction is active, again once it completes so a concurrent
+     * read cannot re-cache the pre-commit value.
+     */
+    public void evictAfterCompletion(String employeeId) {
+        evict(employeeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(employeeId);
+                }
+            });
+        }
+    }
+
+    private void evict(String employeeId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) return;
+        try {
+            cache.evict(employeeId);
+        } catch (Exception e) {
+            log.warn("Token version cache evict failed for employeeId={}: {}", employeeId, e.getMessage());
+        }
+    }
+}
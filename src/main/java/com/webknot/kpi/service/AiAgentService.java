@@ -1,7 +1,5 @@
 package com.webknot.kpi.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webknot.kpi.models.AiAgent;
 import com.webknot.kpi.repository.AiAgentRepository;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,16 +9,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * AI agent configuration. The active agent is held in memory and reloaded every
+ * {@code ai.enhance.agent-refresh-seconds}, or right after an add, update or delete commits, so enhancement
+ * requests do not query {@code ai_agents}. Enhancement itself lives in {@link AiEnhancementService}.
+ */
 @Service
 public class AiAgentService {
     private static final Logger log = LoggerFactory.getLogger(AiAgentService.class);
@@ -28,19 +28,17 @@ public class AiAgentService {
     private static final int MAX_CURSOR_LIMIT = 100;
 
     private final AiAgentRepository aiAgentRepository;
-    private final ObjectMapper objectMapper;
     private final String defaultEnhanceModel;
-    private final HttpClient httpClient;
+    private final long agentRefreshMillis;
+    private final AtomicLong agentGeneration = new AtomicLong();
+    private volatile ActiveAgentSnapshot activeAgentSnapshot;
 
     public AiAgentService(AiAgentRepository aiAgentRepository,
-                          ObjectMapper objectMapper,
-                          @Value("${ai.enhance.model:gpt-4o-mini}") String defaultEnhanceModel) {
+                          @Value("${ai.enhance.model:gpt-4o-mini}") String defaultEnhanceModel,
+                          @Value("${ai.enhance.agent-refresh-seconds:60}") long agentRefreshSeconds) {
         this.aiAgentRepository = aiAgentRepository;
-        this.objectMapper = objectMapper;
         this.defaultEnhanceModel = defaultEnhanceModel;
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(20))
-                .build();
+        this.agentRefreshMillis = Math.max(1, agentRefreshSeconds) * 1000L;
     }
 
     @Transactional(readOnly = true)
@@ -84,6 +82,7 @@ public class AiAgentService {
         aiAgent.setApiKey(normalizedApiKey);
         aiAgent.setActive(active == null || active);
         AiAgent saved = aiAgentRepository.save(aiAgent);
+        invalidateActiveAgentAfterCompletion();
         log.info("AI agent created: id={}, provider={}", saved.getId(), saved.getProvider());
         return saved;
     }
@@ -104,6 +103,7 @@ public class AiAgentService {
         agent.setApiKey(nextApiKey);
         if (active != null) agent.setActive(active);
         AiAgent saved = aiAgentRepository.save(agent);
+        invalidateActiveAgentAfterCompletion();
         log.info("AI agent updated: id={}, provider={}", saved.getId(), saved.getProvider());
         return saved;
     }
@@ -114,38 +114,48 @@ public class AiAgentService {
             throw new IllegalArgumentException("AI agent not found: " + id);
         }
         aiAgentRepository.deleteById(id);
+        invalidateActiveAgentAfterCompletion();
         log.info("AI agent deleted: id={}", id);
     }
 
-    @Transactional(readOnly = true)
-    public EnhanceResult enhanceReviewText(String text, String mode) {
-        String input = normalizeEnhanceText(text);
-        String requestedMode = String.valueOf(mode == null ? "self_review" : mode).trim().toLowerCase();
-
-        AiAgent agent = aiAgentRepository.findFirstByActiveTrueOrderByUpdatedAtDesc()
-                .orElseThrow(() -> new IllegalArgumentException("No active AI agent configured."));
-        String provider = normalizeProvider(agent.getProvider()).toLowerCase();
-        if (!"openai".equals(provider)) {
-            throw new IllegalArgumentException("AI provider is not wired yet: " + agent.getProvider());
+    /**
+     * The most recently updated active agent, served from memory.
+     */
+    public Optional<ActiveAgent> activeAgent() {
+        ActiveAgentSnapshot snapshot = activeAgentSnapshot;
+        if (snapshot != null && System.currentTimeMillis() - snapshot.loadedAtMillis() < agentRefreshMillis) {
+            return Optional.ofNullable(snapshot.agent());
+        }
+        long generation = agentGeneration.get();
+        ActiveAgent loaded = aiAgentRepository.findFirstByActiveTrueOrderByUpdatedAtDesc()
+                .map(agent -> new ActiveAgent(agent.getId(), agent.getProvider(), agent.getApiKey()))
+                .orElse(null);
+        // an add/update/delete that committed while we were reading wins; the next call reloads
+        if (agentGeneration.get() == generation) {
+            activeAgentSnapshot = new ActiveAgentSnapshot(loaded, System.currentTimeMillis());
         }
+        return Optional.ofNullable(loaded);
+    }
 
-        String systemPrompt = buildSystemPrompt(requestedMode);
-        // IMPORTANT: Extract apiKey while still in transaction context
-        String apiKey = agent.getApiKey();
-        // Release the database connection before making external HTTP call
-        return callOpenAiOutsideTransaction(apiKey, systemPrompt, input, agent.getProvider());
+    public Optional<ActiveAgentSummary> getActiveAgentSummary() {
+        return activeAgent().map(agent -> new ActiveAgentSummary(agent.provider(), defaultEnhanceModel));
     }
 
-    // Helper method that doesn't require a transaction context
-    private EnhanceResult callOpenAiOutsideTransaction(String apiKey, String systemPrompt, String input, String provider) {
-        String enhanced = callOpenAi(apiKey, systemPrompt, input);
-        return new EnhanceResult(enhanced, provider, defaultEnhanceModel);
+    private void invalidateActiveAgentAfterCompletion() {
+        invalidateActiveAgent();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateActiveAgent();
+                }
+            });
+        }
     }
 
-    @Transactional(readOnly = true, timeout = 10) // 10 second timeout for read-only operations
-    public Optional<ActiveAgentSummary> getActiveAgentSummary() {
-        return aiAgentRepository.findFirstByActiveTrueOrderByUpdatedAtDesc()
-                .map(agent -> new ActiveAgentSummary(agent.getProvider(), defaultEnhanceModel));
+    private void invalidateActiveAgent() {
+        agentGeneration.incrementAndGet();
+        activeAgentSnapshot = null;
     }
 
     private int normalizeCursorLimit(Integer limit) {
@@ -176,55 +186,9 @@ public class AiAgentService {
         return normalized;
     }
 
-    private String normalizeEnhanceText(String text) {
-        String normalized = String.valueOf(text == null ? "" : text).trim();
-        if (normalized.isEmpty()) throw new IllegalArgumentException("Text is required for AI enhancement.");
-        return normalized;
-    }
-
-    private String buildSystemPrompt(String mode) {
-        if ("manager_review".equalsIgnoreCase(mode) || "manager".equalsIgnoreCase(mode)) {
-            return "You are improving a manager review comment. Keep facts unchanged. Make it concise, clear, constructive, and professional. Use plain text only.";
-        }
-        return "You are improving a self review comment. Keep facts unchanged. Make it concise, clear, and professional. Use plain text only.";
-    }
-
-    private String callOpenAi(String apiKey, String systemPrompt, String userText) {
-        try {
-            String requestJson = objectMapper.writeValueAsString(Map.of(
-                    "model", defaultEnhanceModel,
-                    "temperature", 0.3,
-                    "messages", List.of(
-                            Map.of("role", "system", "content", systemPrompt),
-                            Map.of("role", "user", "content", userText)
-                    )
-            ));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create("https://api.openai.com/v1/chat/completions"))
-                    .timeout(Duration.ofSeconds(40))
-                    .header("Content-Type", "application/json")
-                    .header("Authorization", "Bearer " + apiKey)
-                    .POST(HttpRequest.BodyPublishers.ofString(requestJson))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                throw new IllegalArgumentException("AI request failed with status " + response.statusCode());
-            }
-
-            JsonNode root = objectMapper.readTree(response.body());
-            String enhanced = root.path("choices").path(0).path("message").path("content").asText("").trim();
-            if (enhanced.isBlank()) throw new IllegalArgumentException("AI returned an empty response.");
-            return enhanced;
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Failed to call AI provider.");
-        }
-    }
-
     public record CursorPage(List<AiAgent> items, String nextCursor) {}
-    public record EnhanceResult(String text, String provider, String model) {}
     public record ActiveAgentSummary(String provider, String model) {}
+    public record ActiveAgent(Long id, String provider, String apiKey) {}
+
+    private record ActiveAgentSnapshot(ActiveAgent agent, long loadedAtMillis) {}
 }
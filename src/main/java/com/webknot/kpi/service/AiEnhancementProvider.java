@@ -0,0 +1,21 @@
+package com.webknot.kpi.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A text-enhancement backend, selected by the {@code provider} of the active AI agent.
+ * <p>
+ * Implementations must not block the calling thread: the returned future completes with the enhanced text, or
+ * exceptionally with an {@link IllegalArgumentException} whose message can be shown to the user.
+ */
+public interface AiEnhancementProvider {
+
+    /**
+     * Provider name as stored on {@code ai_agents.provider}, compared case-insensitively.
+     */
+    String name();
+
+    String model();
+
+    CompletableFuture<String> enhance(String apiKey, String systemPrompt, String text);
+}
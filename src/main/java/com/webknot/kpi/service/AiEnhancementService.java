@@ -0,0 +1,443 @@
+package com.webknot.kpi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Enhances review comments through the active agent's {@link AiEnhancementProvider} without tying up request
+ * threads.
+ * <p>
+ * Results are cached by a SHA-256 of (provider, model, mode, text), and identical requests already in flight
+ * share one provider call. Provider calls run under a global concurrency limit
+ * ({@code ai.enhance.max-concurrent}); each user has at most one call in flight and a bounded queue
+ * ({@code ai.enhance.max-queued-per-user}) behind it, and users are served round-robin so one person
+ * enhancing a whole team's reviews cannot starve everyone else. A full queue fails fast with
+ * {@link RejectedExecutionException}.
+ * <p>
+ * {@link #enhanceBatch} takes a whole team's comments at once: duplicate (mode, text) items are sent once,
+ * cached items are answered immediately, and the rest run with up to {@code ai.enhance.batch.parallelism}
+ * calls in flight for that user, reporting each item as soon as it completes.
+ */
+@Service
+public class AiEnhancementService {
+
+    public static final String CACHE_NAME = "ai-enhancements";
+    static final String MODE_SELF_REVIEW = "self_review";
+    static final String MODE_MANAGER_REVIEW = "manager_review";
+
+    private static final Logger log = LoggerFactory.getLogger(AiEnhancementService.class);
+
+    private final AiAgentService aiAgentService;
+    private final Map<String, AiEnhancementProvider> providers;
+    private final CacheManager cacheManager;
+    private final int maxConcurrent;
+    private final int maxQueuedPerUser;
+    private final int maxBatchItems;
+    private final int batchParallelism;
+
+    private final Map<String, CompletableFuture<EnhanceResult>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, ArrayDeque<Job>> queuedByUser = new LinkedHashMap<>();
+    private final Map<String, Integer> activeByUser = new HashMap<>();
+    private int running;
+
+    public AiEnhancementService(AiAgentService aiAgentService,
+                                List<AiEnhancementProvider> providers,
+                                CacheManager cacheManager,
+                                @Value("${ai.enhance.max-concurrent:8}") int maxConcurrent,
+                                @Value("${ai.enhance.max-queued-per-user:5}") int maxQueuedPerUser,
+                                @Value("${ai.enhance.batch.max-items:50}") int maxBatchItems,
+                                @Value("${ai.enhance.batch.parallelism:4}") int batchParallelism) {
+        this.aiAgentService = aiAgentService;
+        this.providers = new HashMap<>();
+        for (AiEnhancementProvider provider : providers) {
+            this.providers.put(provider.name().toLowerCase(Locale.ROOT), provider);
+        }
+        this.cacheManager = cacheManager;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxQueuedPerUser = Math.max(0, maxQueuedPerUser);
+        this.maxBatchItems = Math.max(1, maxBatchItems);
+        this.batchParallelism = Math.max(1, batchParallelism);
+    }
+
+    /**
+     * Enhances {@code text} for {@code userKey}. Validation and configuration errors are thrown directly;
+     * provider failures complete the returned future exceptionally.
+     */
+    public CompletableFuture<EnhanceResult> enhance(String userKey, String text, String mode) {
+        String input = normalizeEnhanceText(text);
+        String requestedMode = normalizeMode(mode);
+        Target target = resolveTarget();
+        String key = cacheKey(target.provider(), requestedMode, input);
+
+        String cached = cachedText(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(new EnhanceResult(cached, target.label(), target.provider().model()));
+        }
+
+        return submit(userKey, 1, target, key, requestedMode, input);
+    }
+
+    /**
+     * Enhances every item for {@code userKey} and reports each one to {@code listener} as it completes, on
+     * whichever thread completed it. Items that repeat the same (mode, text) share one provider call and are
+     * reported once per id. The returned future completes once every item has been reported; cancelling it
+     * stops further provider calls for the batch.
+     */
+    public CompletableFuture<BatchSummary> enhanceBatch(String userKey, List<BatchItem> items,
+                                                        Consumer<BatchItemResult> listener) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required for AI enhancement.");
+        }
+        if (items.size() > maxBatchItems) {
+            throw new IllegalArgumentException("At most " + maxBatchItems + " items can be enhanced at once.");
+        }
+        Target target = resolveTarget();
+        BatchRun run = new BatchRun(userKey, target, listener, items.size());
+
+        LinkedHashMap<String, UniqueItem> unique = new LinkedHashMap<>();
+        for (BatchItem item : items) {
+            String input;
+            try {
+                input = normalizeEnhanceText(item.text());
+            } catch (IllegalArgumentException e) {
+                run.fail(List.of(item.id()), e);
+                continue;
+            }
+            String mode = normalizeMode(item.mode());
+            String key = cacheKey(target.provider(), mode, input);
+            unique.computeIfAbsent(key, ignored -> new UniqueItem(key, mode, input, new ArrayList<>()))
+                    .ids().add(item.id());
+        }
+        run.uniqueItems = unique.size();
+        for (UniqueItem item : unique.values()) {
+            String cached = cachedText(item.key());
+            if (cached != null) {
+                run.succeed(item.ids(), new EnhanceResult(cached, target.label(), target.provider().model()), true);
+            } else {
+                run.queue.add(item);
+            }
+        }
+        run.pump();
+        return run.done;
+    }
+
+    private CompletableFuture<EnhanceResult> submit(String userKey, int slots, Target target, String key,
+                                                    String mode, String input) {
+        CompletableFuture<EnhanceResult> pending = new CompletableFuture<>();
+        CompletableFuture<EnhanceResult> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return existing.copy();
+        }
+        pending.whenComplete((result, error) -> {
+            inFlight.remove(key, pending);
+            if (error == null) cacheText(key, result.text());
+        });
+
+        String systemPrompt = buildSystemPrompt(mode);
+        try {
+            schedule(userKey, slots, () -> target.provider().enhance(target.apiKey(), systemPrompt, input))
+                    .whenComplete((enhanced, error) -> {
+                        if (error != null) {
+                            pending.completeExceptionally(unwrap(error));
+                        } else {
+                            pending.complete(new EnhanceResult(enhanced, target.label(), target.provider().model()));
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        return pending.copy();
+    }
+
+    static String normalizeMode(String mode) {
+        String requested = String.valueOf(mode == null ? MODE_SELF_REVIEW : mode).trim().toLowerCase(Locale.ROOT);
+        return "manager_review".equals(requested) || "manager".equals(requested) ? MODE_MANAGER_REVIEW : MODE_SELF_REVIEW;
+    }
+
+    static String normalizeEnhanceText(String text) {
+        String normalized = String.valueOf(text == null ? "" : text).trim();
+        if (normalized.isEmpty()) throw new IllegalArgumentException("Text is required for AI enhancement.");
+        return normalized;
+    }
+
+    private Target resolveTarget() {
+        Optional<AiAgentService.ActiveAgent> agent = aiAgentService.activeAgent();
+        if (agent.isEmpty()) {
+            AiEnhancementProvider stub = providers.get("stub");
+            if (stub != null) return new Target(stub, null, stub.name());
+            throw new IllegalArgumentException("No active AI agent configured.");
+        }
+        String configured = agent.get().provider();
+        AiEnhancementProvider provider = configured == null
+                ? null
+                : providers.get(configured.trim().toLowerCase(Locale.ROOT));
+        if (provider == null) {
+            throw new IllegalArgumentException("AI provider is not wired yet: " + configured);
+        }
+        return new Target(provider, agent.get().apiKey(), configured);
+    }
+
+    private static String buildSystemPrompt(String mode) {
+        if (MODE_MANAGER_REVIEW.equals(mode)) {
+            return "You are improving a manager review comment. Keep facts unchanged. Make it concise, clear, constructive, and professional. Use plain text only.";
+        }
+        return "You are improving a self review comment. Keep facts unchanged. Make it concise, clear, and professional. Use plain text only.";
+    }
+
+    private static String cacheKey(AiEnhancementProvider provider, String mode, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((provider.name() + '\n' + provider.model() + '\n' + mode + '\n').getBytes(StandardCharsets.UTF_8));
+            return "v1:" + HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String cachedText(String key) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) return null;
+        try {
+            return cache.get(key, String.class);
+        } catch (Exception e) {
+            log.warn("AI enhancement cache read failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void cacheText(String key, String text) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) return;
+        try {
+            cache.put(key, text);
+        } catch (Exception e) {
+            log.warn("AI enhancement cache write failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues {@code call} behind the user's other work. {@code slots} is how many of the user's calls may run
+     * at once while this job is next in line: 1 for single requests, the batch parallelism for batch items.
+     */
+    private CompletableFuture<String> schedule(String userKey, int slots, Supplier<CompletableFuture<String>> call) {
+        String user = userKey == null || userKey.isBlank() ? "anonymous" : userKey;
+        Job job = new Job(user, slots, call, new CompletableFuture<>());
+        List<Job> startable;
+        lock.lock();
+        try {
+            ArrayDeque<Job> queue = queuedByUser.get(user);
+            int waiting = queue == null ? 0 : queue.size();
+            boolean startsNow = waiting == 0 && activeByUser.getOrDefault(user, 0) < slots && running < maxConcurrent;
+            if (!startsNow && waiting >= Math.max(maxQueuedPerUser, slots)) {
+                throw new RejectedExecutionException("Too many AI enhancement requests queued; try again shortly.");
+            }
+            queuedByUser.computeIfAbsent(user, ignored -> new ArrayDeque<>()).add(job);
+            startable = pollStartable();
+        } finally {
+            lock.unlock();
+        }
+        startable.forEach(this::start);
+        return job.result();
+    }
+
+    private void start(Job job) {
+        CompletableFuture<String> call;
+        try {
+            call = job.call().get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((text, error) -> {
+            List<Job> startable;
+            lock.lock();
+            try {
+                running--;
+                activeByUser.computeIfPresent(job.user(), (user, active) -> active > 1 ? active - 1 : null);
+                startable = pollStartable();
+            } finally {
+                lock.unlock();
+            }
+            startable.forEach(this::start);
+            if (error != null) {
+                job.result().completeExceptionally(unwrap(error));
+            } else {
+                job.result().complete(text);
+            }
+        });
+    }
+
+    /**
+     * Takes one job per user with a free slot, in round-robin order, and repeats while permits remain and
+     * something was taken. Caller holds the lock.
+     */
+    private List<Job> pollStartable() {
+        List<Job> startable = new ArrayList<>();
+        List<Map.Entry<String, ArrayDeque<Job>>> rotate = new ArrayList<>();
+        boolean progressed = true;
+        while (progressed && running < maxConcurrent) {
+            progressed = false;
+            Iterator<Map.Entry<String, ArrayDeque<Job>>> it = queuedByUser.entrySet().iterator();
+            while (running < maxConcurrent && it.hasNext()) {
+                Map.Entry<String, ArrayDeque<Job>> entry = it.next();
+                Job job = entry.getValue().peek();
+                if (activeByUser.getOrDefault(entry.getKey(), 0) >= job.slots()) continue;
+                entry.getValue().poll();
+                it.remove();
+                if (!entry.getValue().isEmpty()) rotate.add(entry);
+                running++;
+                activeByUser.merge(entry.getKey(), 1, Integer::sum);
+                startable.add(job);
+                progressed = true;
+            }
+            for (Map.Entry<String, ArrayDeque<Job>> entry : rotate) {
+                queuedByUser.put(entry.getKey(), entry.getValue());
+            }
+            rotate.clear();
+        }
+        return startable;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Feeds one batch's unique items to the scheduler, keeping at most {@link #batchParallelism} in flight.
+     */
+    private final class BatchRun {
+        private final String userKey;
+        private final Target target;
+        private final Consumer<BatchItemResult> listener;
+        private final int items;
+        private final ArrayDeque<UniqueItem> queue = new ArrayDeque<>();
+        private final CompletableFuture<BatchSummary> done = new CompletableFuture<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int uniqueItems;
+        private int active;
+        private int reported;
+        private int cached;
+        private int failed;
+
+        private BatchRun(String userKey, Target target, Consumer<BatchItemResult> listener, int items) {
+            this.userKey = userKey;
+            this.target = target;
+            this.listener = listener;
+            this.items = items;
+        }
+
+        private void pump() {
+            while (true) {
+                UniqueItem next;
+                lock.lock();
+                try {
+                    if (done.isDone() || active >= batchParallelism || queue.isEmpty()) return;
+                    next = queue.poll();
+                    active++;
+                } finally {
+                    lock.unlock();
+                }
+                CompletableFuture<EnhanceResult> call;
+                try {
+                    call = submit(userKey, batchParallelism, target, next.key(), next.mode(), next.input());
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                call.whenComplete((result, error) -> {
+                    lock.lock();
+                    try {
+                        active--;
+                    } finally {
+                        lock.unlock();
+                    }
+                    if (error != null) {
+                        fail(next.ids(), unwrap(error));
+                    } else {
+                        succeed(next.ids(), result, false);
+                    }
+                    pump();
+                });
+            }
+        }
+
+        private void succeed(List<String> ids, EnhanceResult result, boolean fromCache) {
+            for (String id : ids) {
+                report(new BatchItemResult(id, result.text(), result.provider(), result.model(), fromCache, null),
+                        fromCache, false);
+            }
+        }
+
+        private void fail(List<String> ids, Throwable error) {
+            for (String id : ids) {
+                report(new BatchItemResult(id, null, null, null, false, error.getMessage()), false, true);
+            }
+        }
+
+        private void report(BatchItemResult result, boolean fromCache, boolean failure) {
+            if (!done.isDone()) {
+                try {
+                    listener.accept(result);
+                } catch (RuntimeException e) {
+                    log.debug("AI enhancement batch listener failed: {}", e.getMessage());
+                    done.cancel(false);
+                }
+            }
+            BatchSummary summary = null;
+            lock.lock();
+            try {
+                reported++;
+                if (fromCache) cached++;
+                if (failure) failed++;
+                if (reported == items) summary = new BatchSummary(items, uniqueItems, cached, failed);
+            } finally {
+                lock.unlock();
+            }
+            if (summary != null) done.complete(summary);
+        }
+    }
+
+    private record Target(AiEnhancementProvider provider, String apiKey, String label) {}
+
+    private record Job(String user, int slots, Supplier<CompletableFuture<String>> call,
+                       CompletableFuture<String> result) {}
+
+    private record UniqueItem(String key, String mode, String input, List<String> ids) {}
+
+    public record EnhanceResult(String text, String provider, String model) {}
+
+    public record BatchItem(String id, String text, String mode) {}
+
+    /**
+     * One item's outcome: {@code text}, {@code provider} and {@code model} on success, {@code error} otherwise.
+     */
+    public record BatchItemResult(String id, String text, String provider, String model, boolean cached,
+                                  String error) {}
+
+    public record BatchSummary(int items, int uniqueItems, int cached, int failed) {}
+}
@@ -1,13 +1,11 @@
 package com.webknot.kpi.service;
 
-import com.webknot.kpi.models.DesignationLookup;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
-import com.webknot.kpi.repository.DesignationLookupRepository;
 import com.webknot.kpi.repository.EmployeeRepository;
 import com.webknot.kpi.security.JwtService;
 import com.webknot.kpi.security.TokenBlacklistService;
-import com.webknot.kpi.util.BandStreamNormalizer;
+import com.webknot.kpi.security.TokenVersionService;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,11 +29,12 @@ public class AuthService {
 
     private static final String RESET_REQUEST_PREFIX = "auth:reset:";
     private final EmployeeRepository employeeRepository;
-    private final DesignationLookupRepository designationLookupRepository;
+    private final DesignationTable designationTable;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
     private final NotificationService notificationService;
+    private final TokenVersionService tokenVersionService;
     private final long resetTokenExpirationMs;
     private final Map<String, AdminResetRequestData> adminResetRequests = new ConcurrentHashMap<>();
     private final SecureRandom secureRandom = new SecureRandom();
@@ -44,19 +43,21 @@ public class AuthService {
     private final Logger log = LogManager.getLogger(AuthService.class);
 
     public AuthService(EmployeeRepository employeeRepository,
-                       DesignationLookupRepository designationLookupRepository,
+                       DesignationTable designationTable,
                        PasswordEncoder passwordEncoder,
                        JwtService jwtService,
                        TokenBlacklistService tokenBlacklistService,
                        NotificationService notificationService,
+                       TokenVersionService tokenVersionService,
                        @Autowired(required = false) RedisTemplate<String, Object> redisTemplate,
                        @Value("${auth.reset-token-expiration-ms:900000}") long resetTokenExpirationMs) {
         this.employeeRepository = employeeRepository;
-        this.designationLookupRepository = designationLookupRepository;
+        this.designationTable = designationTable;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.tokenBlacklistService = tokenBlacklistService;
         this.notificationService = notificationService;
+        this.tokenVersionService = tokenVersionService;
         this.resetTokenExpirationMs = resetTokenExpirationMs;
         this.redisTemplate = Optional.ofNullable(redisTemplate);
         this.redisEnabled = isRedisAvailable();
@@ -208,7 +209,9 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("No user found with this email"));
 
         employee.setPassword(passwordEncoder.encode(newPassword));
+        tokenVersionService.bump(employee);
         employeeRepository.save(employee);
+        tokenVersionService.evictAfterCompletion(employee.getEmployeeId());
         adminResetRequests.remove(normalizedRequestId);
         redisTemplate.ifPresent(rt -> rt.delete(RESET_REQUEST_PREFIX + normalizedRequestId));
         log.info(
@@ -263,17 +266,8 @@ public class AuthService {
     ) {}
 
     private String resolveDesignation(Employee employee) {
-        if (employee == null || employee.getBand() == null || employee.getStream() == null || employee.getStream().isBlank()) {
-            return null;
-        }
-        String canonicalStream = BandStreamNormalizer.canonicalStreamLabel(employee.getStream());
-        if (canonicalStream != null && !canonicalStream.isBlank()) {
-            DesignationLookup.DesignationId canonicalId = new DesignationLookup.DesignationId(canonicalStream, employee.getBand());
-            var canonical = designationLookupRepository.findById(canonicalId).map(DesignationLookup::getDesignation);
-            if (canonical.isPresent()) return canonical.get();
-        }
-        DesignationLookup.DesignationId rawId = new DesignationLookup.DesignationId(employee.getStream(), employee.getBand());
-        return designationLookupRepository.findById(rawId).map(DesignationLookup::getDesignation).orElse(null);
+        if (employee == null) return null;
+        return designationTable.designationFor(employee.getStream(), employee.getBand());
     }
     private String generateAdminCode() {
         int value = secureRandom.nextInt(900_000) + 100_000;
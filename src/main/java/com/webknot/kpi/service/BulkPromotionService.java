@@ -0,0 +1,238 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.exceptions.CrudValidationErrorCode;
+import com.webknot.kpi.exceptions.CrudValidationException;
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.util.BandStreamNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Promotes many employees by one band in a single transaction.
+ * <p>
+ * Targets are loaded in one query (by id list or by band/stream/manager filter; a filter is counted first so an
+ * oversized one is rejected before any rows are loaded) and designations are checked against the preloaded
+ * {@link DesignationTable}, so validation runs in memory. Updates are flushed through Hibernate's JDBC batching
+ * ({@code hibernate.jdbc.batch_size}). Invalid rows are reported per employee and never abort the rest of the
+ * batch; {@code dryRun} runs the same validation without writing.
+ */
+@Service
+public class BulkPromotionService {
+
+    static final int MAX_BULK_PROMOTIONS = 1000;
+
+    public static final String STATUS_PROMOTED = "PROMOTED";
+    public static final String STATUS_WOULD_PROMOTE = "WOULD_PROMOTE";
+    public static final String STATUS_NOT_FOUND = "NOT_FOUND";
+    public static final String STATUS_HIGHEST_BAND = "AT_HIGHEST_BAND";
+    public static final String STATUS_NO_DESIGNATION = "NO_DESIGNATION";
+    public static final String STATUS_INVALID = "INVALID";
+
+    private static final Logger log = LoggerFactory.getLogger(BulkPromotionService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final DesignationTable designationTable;
+    private final EmployeeDirectoryStatsService directoryStatsService;
+    private final RequestActorContext actorContext;
+
+    public BulkPromotionService(EmployeeRepository employeeRepository,
+                                DesignationTable designationTable,
+                                EmployeeDirectoryStatsService directoryStatsService,
+                                RequestActorContext actorContext) {
+        this.employeeRepository = employeeRepository;
+        this.designationTable = designationTable;
+        this.directoryStatsService = directoryStatsService;
+        this.actorContext = actorContext;
+    }
+
+    @Transactional(timeout = 60)
+    public BulkPromotionResult promote(BulkPromotionCommand command) {
+        if (command == null) {
+            throw new CrudValidationException(Employee.class,
+                    "Promotion request cannot be empty",
+                    CrudValidationErrorCode.DATA_VALIDATION);
+        }
+        boolean dryRun = command.dryRun();
+        List<PromotionOutcome> outcomes = new ArrayList<>();
+        List<Employee> targets = loadTargets(command, outcomes);
+
+        Employee actor = dryRun ? null : actorContext.currentActor()
+                .map(found -> employeeRepository.getReferenceById(found.getEmployeeId()))
+                .orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        List<Employee> toSave = new ArrayList<>();
+        for (Employee employee : targets) {
+            CurrentBand from = employee.getBand();
+            if (from == null) {
+                outcomes.add(outcome(employee, null, null, STATUS_INVALID, "Employee band cannot be null"));
+                continue;
+            }
+            CurrentBand next = from.oneBandAbove().orElse(null);
+            if (next == null) {
+                outcomes.add(outcome(employee, from, null, STATUS_HIGHEST_BAND,
+                        "Employee is already at the highest band: " + from));
+                continue;
+            }
+            String designationStream = EmployeeService.resolveDesignationLookupStream(
+                    employee.getStream(), next, designationTable::exists);
+            if (designationStream == null
+                    || !designationTable.exists(designationStream, next)) {
+                outcomes.add(outcome(employee, from, next, STATUS_NO_DESIGNATION,
+                        "No designation configured for stream=" + designationStream + " and band=" + next));
+                continue;
+            }
+            if (dryRun) {
+                outcomes.add(new PromotionOutcome(employee.getEmployeeId(), from.name(), next.name(),
+                        designationStream, STATUS_WOULD_PROMOTE, null));
+                continue;
+            }
+            employee.setStream(designationStream);
+            employee.setBand(next);
+            employee.setUpdatedAt(now);
+            employee.setUpdatedBy(actor != null ? actor : employee);
+            toSave.add(employee);
+            outcomes.add(new PromotionOutcome(employee.getEmployeeId(), from.name(), next.name(),
+                    designationStream, STATUS_PROMOTED, null));
+        }
+
+        if (!toSave.isEmpty()) {
+            employeeRepository.saveAll(toSave);
+            employeeRepository.flush();
+            directoryStatsService.invalidateAfterCompletion();
+            log.info("Bulk promotion updated {} employee(s)", toSave.size());
+        }
+
+        int succeeded = (int) outcomes.stream()
+                .filter(o -> STATUS_PROMOTED.equals(o.status()) || STATUS_WOULD_PROMOTE.equals(o.status()))
+                .count();
+        return new BulkPromotionResult(dryRun, outcomes.size(), succeeded, outcomes.size() - succeeded, outcomes);
+    }
+
+    private List<Employee> loadTargets(BulkPromotionCommand command, List<PromotionOutcome> outcomes) {
+        List<String> requestedIds = normalizeIds(command.employeeIds());
+        if (!requestedIds.isEmpty()) {
+            if (requestedIds.size() > MAX_BULK_PROMOTIONS) {
+                throw new CrudValidationException(Employee.class,
+                        "Too many employees for a single promotion batch (max " + MAX_BULK_PROMOTIONS + ")",
+                        CrudValidationErrorCode.DATA_VALIDATION);
+            }
+            Map<String, Employee> byId = new HashMap<>();
+            for (Employee employee : employeeRepository.findAllById(requestedIds)) {
+                byId.put(employee.getEmployeeId(), employee);
+            }
+            List<Employee> targets = new ArrayList<>(byId.size());
+            for (String id : requestedIds) {
+                Employee employee = byId.get(id);
+                if (employee == null) {
+                    outcomes.add(new PromotionOutcome(id, null, null, null, STATUS_NOT_FOUND, "Employee not found: " + id));
+                } else {
+                    targets.add(employee);
+                }
+            }
+            return targets;
+        }
+
+        CurrentBand band = command.band() == null || command.band().isBlank()
+                ? null
+                : BandStreamNormalizer.parseBand(command.band())
+                .orElseThrow(() -> new CrudValidationException(Employee.class,
+                        "Invalid band: " + command.band(),
+                        CrudValidationErrorCode.DATA_VALIDATION));
+        String stream = trimToNull(command.stream());
+        String managerId = trimToNull(command.managerId());
+        if (band == null && stream == null && managerId == null) {
+            throw new CrudValidationException(Employee.class,
+                    "Provide employeeIds or at least one of band, stream, managerId",
+                    CrudValidationErrorCode.DATA_VALIDATION);
+        }
+
+        Specification<Employee> spec = (root, query, cb) -> cb.conjunction();
+        if (band != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("band"), band));
+        }
+        if (stream != null) {
+            Set<String> streams = new LinkedHashSet<>();
+            streams.add(stream);
+            String canonical = BandStreamNormalizer.canonicalStreamLabel(stream);
+            if (canonical != null) streams.add(canonical);
+            spec = spec.and((root, query, cb) -> root.get("stream").in(streams));
+        }
+        if (managerId != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("manager").get("employeeId"), managerId));
+        }
+        long matching = employeeRepository.count(spec);
+        if (matching > MAX_BULK_PROMOTIONS) {
+            throw new CrudValidationException(Employee.class,
+                    "Filter matches " + matching + " employees; narrow it to at most " + MAX_BULK_PROMOTIONS,
+                    CrudValidationErrorCode.DATA_VALIDATION);
+        }
+        return employeeRepository.findAll(spec, Sort.by("employeeId"));
+    }
+
+    private static PromotionOutcome outcome(Employee employee, CurrentBand from, CurrentBand to, String status, String message) {
+        return new PromotionOutcome(
+                employee.getEmployeeId(),
+                from != null ? from.name() : null,
+                to != null ? to.name() : null,
+                employee.getStream(),
+                status,
+                message
+        );
+    }
+
+    private static List<String> normalizeIds(List<String> raw) {
+        if (raw == null || raw.isEmpty()) return List.of();
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : raw) {
+            String trimmed = trimToNull(id);
+            if (trimmed != null) ids.add(trimmed);
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private static String trimToNull(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    public record BulkPromotionCommand(
+            List<String> employeeIds,
+            String band,
+            String stream,
+            String managerId,
+            boolean dryRun
+    ) {}
+
+    public record PromotionOutcome(
+            String employeeId,
+            String fromBand,
+            String toBand,
+            String stream,
+            String status,
+            String message
+    ) {}
+
+    public record BulkPromotionResult(
+            boolean dryRun,
+            int requested,
+            int succeeded,
+            int failed,
+            List<PromotionOutcome> results
+    ) {}
+}
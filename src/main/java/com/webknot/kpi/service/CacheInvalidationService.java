@@ -10,9 +10,11 @@ import org.springframework.stereotype.Service;
 public class CacheInvalidationService {
     private static final Logger log = LoggerFactory.getLogger(CacheInvalidationService.class);
     private final CacheManager cacheManager;
+    private final DesignationTable designationTable;
 
-    public CacheInvalidationService(CacheManager cacheManager) {
+    public CacheInvalidationService(CacheManager cacheManager, DesignationTable designationTable) {
         this.cacheManager = cacheManager;
+        this.designationTable = designationTable;
     }
 
     @CacheEvict(value = "kpi-definitions", allEntries = true)
@@ -47,10 +49,12 @@ public class CacheInvalidationService {
 
     @CacheEvict(value = "designation-lookups", allEntries = true)
     public void invalidateDesignationLookups() {
+        designationTable.invalidate();
         log.info("Designation Lookups cache invalidated");
     }
 
     public void invalidateAll() {
+        designationTable.invalidate();
         if (cacheManager != null) {
             cacheManager.getCacheNames().forEach(cacheName -> {
                 var cache = cacheManager.getCache(cacheName);
@@ -18,6 +18,9 @@ import com.webknot.kpi.repository.KpiDefinitionRepository;
 import com.webknot.kpi.repository.StreamDirectoryRepository;
 import com.webknot.kpi.repository.WebknotValueRepository;
 import com.webknot.kpi.util.BandStreamNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +37,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 @Service
@@ -55,6 +59,8 @@ public class CsvImportService {
     private final CertificationService certificationService;
     private final CertificationRepository certificationRepository;
     private final DesignationLookupRepository designationLookupRepository;
+    private final DesignationTable designationTable;
+    private final MeterRegistry meterRegistry;
     private final String defaultEmployeePassword;
     private final int maxCsvRows;
 
@@ -71,6 +77,8 @@ public class CsvImportService {
                             CertificationService certificationService,
                             CertificationRepository certificationRepository,
                             DesignationLookupRepository designationLookupRepository,
+                            DesignationTable designationTable,
+                            MeterRegistry meterRegistry,
                             @Value("${employee.default-password:Password@123}") String defaultEmployeePassword,
                             @Value("${imports.csv.max-rows:10000}") int maxCsvRows) {
         this.employeeService = employeeService;
@@ -86,6 +94,8 @@ public class CsvImportService {
         this.certificationService = certificationService;
         this.certificationRepository = certificationRepository;
         this.designationLookupRepository = designationLookupRepository;
+        this.designationTable = designationTable;
+        this.meterRegistry = meterRegistry;
         this.defaultEmployeePassword = defaultEmployeePassword;
         this.maxCsvRows = Math.max(1, maxCsvRows);
     }
@@ -96,6 +106,7 @@ public class CsvImportService {
 
     public ImportSummary importEmployees(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(
                 csv,
@@ -209,7 +220,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("employees", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("employees", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importBands(MultipartFile file) {
@@ -218,6 +229,7 @@ public class CsvImportService {
 
     public ImportSummary importBands(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(csv, List.of("code", "band", "bandcode"));
         int created = 0;
@@ -260,7 +272,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("bands", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("bands", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importStreams(MultipartFile file) {
@@ -269,6 +281,7 @@ public class CsvImportService {
 
     public ImportSummary importStreams(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(csv, List.of("code", "stream", "streamcode"));
         int created = 0;
@@ -311,7 +324,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("streams", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("streams", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importWebknotValues(MultipartFile file) {
@@ -320,6 +333,7 @@ public class CsvImportService {
 
     public ImportSummary importWebknotValues(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(csv, List.of("title", "value", "name", "label"));
         int created = 0;
@@ -362,7 +376,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("webknot-values", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("webknot-values", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importKpiDefinitions(MultipartFile file) {
@@ -371,6 +385,7 @@ public class CsvImportService {
 
     public ImportSummary importKpiDefinitions(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(
                 csv,
@@ -435,7 +450,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("kpi-definitions", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("kpi-definitions", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importCertifications(MultipartFile file) {
@@ -444,6 +459,7 @@ public class CsvImportService {
 
     public ImportSummary importCertifications(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(csv, List.of("name", "certification", "certificationname", "title"));
         int created = 0;
@@ -484,7 +500,7 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("certifications", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("certifications", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
     public ImportSummary importDesignationLookups(MultipartFile file) {
@@ -493,6 +509,7 @@ public class CsvImportService {
 
     public ImportSummary importDesignationLookups(MultipartFile file, ImportOptions options) {
         ImportOptions resolvedOptions = resolveOptions(options);
+        long startedAtNanos = System.nanoTime();
         CsvData csv = parseCsv(file);
         validateRequiredColumns(
                 csv,
@@ -522,7 +539,7 @@ public class CsvImportService {
                 if (!designationKeysInSheet.add(designationKey)) {
                     throw new IllegalArgumentException("Duplicate designation mapping in file for stream=" + stream + ", band=" + band);
                 }
-                boolean exists = designationLookupRepository.existsById(id);
+                boolean exists = designationTable.exists(id);
                 if (exists && resolvedOptions.rejectExisting()) {
                     throw new IllegalArgumentException("Designation mapping already exists for stream=" + stream + ", band=" + band);
                 }
@@ -538,6 +555,7 @@ public class CsvImportService {
                     entity.setId(id);
                     entity.setDesignation(designation.trim());
                     designationLookupRepository.save(entity);
+                    designationTable.recordSaved(id, entity.getDesignation());
 
                     if (exists) {
                         updated++;
@@ -550,10 +568,12 @@ public class CsvImportService {
             }
         }
 
-        return buildSummary("designation-lookups", csv.rows().size(), created, updated, errorsByRow);
+        return buildSummary("designation-lookups", resolvedOptions, startedAtNanos, csv.rows().size(), created, updated, errorsByRow);
     }
 
-    private ImportSummary buildSummary(String entity, int totalRows, int created, int updated, Map<Integer, String> errorsByRow) {
+    private ImportSummary buildSummary(String entity, ImportOptions options, long startedAtNanos,
+                                       int totalRows, int created, int updated, Map<Integer, String> errorsByRow) {
+        recordImport(entity, options, startedAtNanos, created, updated, errorsByRow.size());
         List<RowError> errors = new ArrayList<>();
         int count = 0;
         for (Map.Entry<Integer, String> entry : errorsByRow.entrySet()) {
@@ -566,6 +586,34 @@ public class CsvImportService {
         return new ImportSummary(entity, totalRows, created, updated, errorsByRow.size(), errors);
     }
 
+    /**
+     * {@code kpi.csv.import} times the whole import per entity and mode; {@code kpi.csv.import.rows} counts
+     * rows per entity and result, so rows per second is the row rate over the timer's total time.
+     */
+    private void recordImport(String entity, ImportOptions options, long startedAtNanos,
+                              int created, int updated, int failed) {
+        String mode = options.validateOnly() ? "validate" : "apply";
+        Timer.builder("kpi.csv.import")
+                .description("CSV import duration")
+                .tag("entity", entity)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
+        countRows(entity, mode, "created", created);
+        countRows(entity, mode, "updated", updated);
+        countRows(entity, mode, "failed", failed);
+    }
+
+    private void countRows(String entity, String mode, String result, int rows) {
+        Counter.builder("kpi.csv.import.rows")
+                .description("CSV rows processed")
+                .tag("entity", entity)
+                .tag("mode", mode)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+
     private static ImportOptions resolveOptions(ImportOptions options) {
         return options == null ? ImportOptions.defaults() : options;
     }
@@ -596,7 +644,7 @@ public class CsvImportService {
         return raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
     }
 
-    private CsvData parseCsv(MultipartFile file) {
+    CsvData parseCsv(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("CSV file is required");
         }
@@ -772,14 +820,8 @@ public class CsvImportService {
             return;
         }
 
-        Optional<DesignationLookup> existing = designationLookupRepository.findById(id);
-        if (existing.isPresent()) {
-            String currentDesignation = existing.get().getDesignation();
-            if (currentDesignation == null || !currentDesignation.equals(designation)) {
-                DesignationLookup updated = existing.get();
-                updated.setDesignation(designation);
-                designationLookupRepository.save(updated);
-            }
+        Optional<String> existing = designationTable.designation(stream, band);
+        if (existing.isPresent() && existing.get().equals(designation)) {
             return;
         }
 
@@ -787,6 +829,7 @@ public class CsvImportService {
         entity.setId(id);
         entity.setDesignation(designation);
         designationLookupRepository.save(entity);
+        designationTable.recordSaved(id, designation);
     }
 
     private static boolean isBlankRow(List<String> values) {
@@ -928,7 +971,7 @@ public class CsvImportService {
         errorsByRow.put(rowNumber, safeMessage);
     }
 
-    private record CsvData(List<String> headers, Set<String> normalizedHeaders, List<CsvRow> rows) {
+    record CsvData(List<String> headers, Set<String> normalizedHeaders, List<CsvRow> rows) {
     }
 
     private record CsvRow(int rowNumber, Map<String, String> values, Set<String> presentKeys) {
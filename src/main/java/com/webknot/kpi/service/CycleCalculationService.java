@@ -2,26 +2,56 @@ package com.webknot.kpi.service;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for calculating and managing submission cycles.
  * A cycle is identified by a cycle key in the format "yyyy-MM" (e.g., "2026-02").
+ * <p>
+ * Internally a cycle is the int {@code year * 12 + (month - 1)}, so next/previous/offset/range arithmetic is
+ * integer math. Keys are parsed and formatted by hand (formatted keys for years 2000-2099 are interned), zone
+ * ids and their rules are cached per timezone string, and the current cycle per zone is memoized until the
+ * clock crosses the next month boundary in that zone.
  */
 @Service
 public class CycleCalculationService {
 
     private static final DateTimeFormatter CYCLE_FMT = DateTimeFormatter.ofPattern("yyyy-MM");
     private static final String DEFAULT_TZ = "Asia/Kolkata";
+    private static final int MAX_CACHED_ZONES = 256;
+    private static final int KEY_CACHE_FIRST_YEAR = 2000;
+    private static final String[] KEY_CACHE = new String[100 * 12];
     private static final Logger log = LogManager.getLogger(CycleCalculationService.class);
 
+    private final Clock clock;
+    private final Zone serverZone;
+    private final Map<String, Zone> zones = new ConcurrentHashMap<>();
+    private final Map<ZoneId, CurrentCycle> currentCycles = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CycleCalculationService() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * The clock's zone stands in for the server's default zone in the past/current/future and last/next-N
+     * methods, which compare against the server month rather than a request timezone.
+     */
+    CycleCalculationService(Clock clock) {
+        this.clock = clock;
+        this.serverZone = new Zone(clock.getZone(), clock.getZone().getRules());
+    }
+
     /**
      * Calculates the current cycle key based on the provided timezone.
      *
@@ -29,11 +59,7 @@ public class CycleCalculationService {
      * @return the cycle key in format "yyyy-MM"
      */
     public String calculateCurrentCycleKey(String timezone) {
-        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
-        ZoneId zone = ZoneId.of(tz);
-        ZonedDateTime localNow = ZonedDateTime.now().withZoneSameInstant(zone);
-        YearMonth ym = YearMonth.from(localNow);
-        return ym.format(CYCLE_FMT);
+        return format(currentCycle(zone(timezone)));
     }
 
     /**
@@ -56,11 +82,9 @@ public class CycleCalculationService {
         if (dateTime == null) {
             throw new IllegalArgumentException("dateTime cannot be null");
         }
-        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
-        ZoneId zone = ZoneId.of(tz);
-        ZonedDateTime zoned = dateTime.atZoneSameInstant(zone);
-        YearMonth ym = YearMonth.from(zoned);
-        return ym.format(CYCLE_FMT);
+        Zone zone = zone(timezone);
+        Instant instant = dateTime.toInstant();
+        return format(cycleAt(instant.getEpochSecond(), zone.rules().getOffset(instant)));
     }
 
     /**
@@ -74,11 +98,8 @@ public class CycleCalculationService {
         if (localDateTime == null) {
             throw new IllegalArgumentException("localDateTime cannot be null");
         }
-        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
-        ZoneId zone = ZoneId.of(tz);
-        ZonedDateTime zoned = localDateTime.atZone(zone);
-        YearMonth ym = YearMonth.from(zoned);
-        return ym.format(CYCLE_FMT);
+        ZonedDateTime zoned = localDateTime.atZone(zone(timezone).id());
+        return format(cycleOf(zoned.getYear(), zoned.getMonthValue()));
     }
 
     /**
@@ -89,9 +110,7 @@ public class CycleCalculationService {
      * @throws IllegalArgumentException if cycleKey is invalid
      */
     public String calculateNextCycleKey(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        YearMonth next = ym.plusMonths(1);
-        return next.format(CYCLE_FMT);
+        return format(parse(cycleKey) + 1);
     }
 
     /**
@@ -102,9 +121,7 @@ public class CycleCalculationService {
      * @throws IllegalArgumentException if cycleKey is invalid
      */
     public String calculatePreviousCycleKey(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        YearMonth previous = ym.minusMonths(1);
-        return previous.format(CYCLE_FMT);
+        return format(parse(cycleKey) - 1);
     }
 
     /**
@@ -116,9 +133,7 @@ public class CycleCalculationService {
      * @throws IllegalArgumentException if cycleKey is invalid
      */
     public String calculateOffsetCycleKey(String cycleKey, int monthsOffset) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        YearMonth offset = ym.plusMonths(monthsOffset);
-        return offset.format(CYCLE_FMT);
+        return format(Math.addExact(parse(cycleKey), monthsOffset));
     }
 
     /**
@@ -132,7 +147,7 @@ public class CycleCalculationService {
             return false;
         }
         try {
-            parseYearMonth(cycleKey);
+            parse(cycleKey);
             return true;
         } catch (IllegalArgumentException e) {
             return false;
@@ -147,13 +162,9 @@ public class CycleCalculationService {
      * @return the start of the cycle as OffsetDateTime
      */
     public OffsetDateTime getCycleStartAt(String cycleKey, String timezone) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
-        ZoneId zone = ZoneId.of(tz);
-        
-        LocalDateTime startLocal = ym.atDay(1).atStartOfDay();
-        ZonedDateTime zoned = startLocal.atZone(zone);
-        return zoned.toOffsetDateTime();
+        int cycle = parse(cycleKey);
+        LocalDateTime startLocal = LocalDateTime.of(yearOf(cycle), monthOf(cycle), 1, 0, 0);
+        return startLocal.atZone(zone(timezone).id()).toOffsetDateTime();
     }
 
     /**
@@ -164,13 +175,9 @@ public class CycleCalculationService {
      * @return the end of the cycle as OffsetDateTime
      */
     public OffsetDateTime getCycleEndAt(String cycleKey, String timezone) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
-        ZoneId zone = ZoneId.of(tz);
-        
-        LocalDateTime endLocal = ym.atEndOfMonth().atTime(23, 59, 59);
-        ZonedDateTime zoned = endLocal.atZone(zone);
-        return zoned.toOffsetDateTime();
+        int cycle = parse(cycleKey);
+        LocalDateTime endLocal = LocalDateTime.of(yearOf(cycle), monthOf(cycle), lengthOf(cycle), 23, 59, 59);
+        return endLocal.atZone(zone(timezone).id()).toOffsetDateTime();
     }
 
     /**
@@ -180,8 +187,7 @@ public class CycleCalculationService {
      * @return the number of days in the month
      */
     public int getDaysInCycle(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        return ym.lengthOfMonth();
+        return lengthOf(parse(cycleKey));
     }
 
     /**
@@ -210,18 +216,16 @@ public class CycleCalculationService {
      * @return a list of cycle keys in the range
      */
     public List<String> getCycleRange(String startCycleKey, String endCycleKey) {
-        YearMonth start = parseYearMonth(startCycleKey);
-        YearMonth end = parseYearMonth(endCycleKey);
-        
-        if (start.isAfter(end)) {
+        int start = parse(startCycleKey);
+        int end = parse(endCycleKey);
+
+        if (start > end) {
             throw new IllegalArgumentException("startCycleKey must not be after endCycleKey");
         }
-        
-        List<String> cycles = new ArrayList<>();
-        YearMonth current = start;
-        while (!current.isAfter(end)) {
-            cycles.add(current.format(CYCLE_FMT));
-            current = current.plusMonths(1);
+
+        List<String> cycles = new ArrayList<>(end - start + 1);
+        for (int cycle = start; cycle <= end; cycle++) {
+            cycles.add(format(cycle));
         }
         return cycles;
     }
@@ -237,11 +241,10 @@ public class CycleCalculationService {
             throw new IllegalArgumentException("count must be positive");
         }
         
-        List<String> cycles = new ArrayList<>();
-        YearMonth current = YearMonth.now();
+        List<String> cycles = new ArrayList<>(count);
+        int current = serverCycle();
         for (int i = 0; i < count; i++) {
-            cycles.add(current.format(CYCLE_FMT));
-            current = current.minusMonths(1);
+            cycles.add(format(current - i));
         }
         return cycles;
     }
@@ -257,11 +260,10 @@ public class CycleCalculationService {
             throw new IllegalArgumentException("count must be positive");
         }
         
-        List<String> cycles = new ArrayList<>();
-        YearMonth current = YearMonth.now();
+        List<String> cycles = new ArrayList<>(count);
+        int current = serverCycle();
         for (int i = 0; i < count; i++) {
-            cycles.add(current.format(CYCLE_FMT));
-            current = current.plusMonths(1);
+            cycles.add(format(current + i));
         }
         return cycles;
     }
@@ -274,9 +276,7 @@ public class CycleCalculationService {
      * @return the number of months between cycles (can be negative)
      */
     public long getMonthsBetweenCycles(String fromCycleKey, String toCycleKey) {
-        YearMonth from = parseYearMonth(fromCycleKey);
-        YearMonth to = parseYearMonth(toCycleKey);
-        return ChronoUnit.MONTHS.between(from, to);
+        return (long) parse(toCycleKey) - parse(fromCycleKey);
     }
 
     /**
@@ -286,8 +286,7 @@ public class CycleCalculationService {
      * @return true if the cycle is in the past
      */
     public boolean isCycleInPast(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        return ym.isBefore(YearMonth.now());
+        return parse(cycleKey) < serverCycle();
     }
 
     /**
@@ -297,8 +296,7 @@ public class CycleCalculationService {
      * @return true if the cycle is in the future
      */
     public boolean isCycleInFuture(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        return ym.isAfter(YearMonth.now());
+        return parse(cycleKey) > serverCycle();
     }
 
     /**
@@ -308,23 +306,31 @@ public class CycleCalculationService {
      * @return true if the cycle is the current month
      */
     public boolean isCurrentCycle(String cycleKey) {
-        YearMonth ym = parseYearMonth(cycleKey);
-        return ym.equals(YearMonth.now());
+        return parse(cycleKey) == serverCycle();
     }
 
     /**
-     * Parses a cycle key string into a YearMonth object.
+     * Parses a cycle key string into its cycle index ({@code year * 12 + month - 1}).
      *
      * @param cycleKey the cycle key in format "yyyy-MM"
-     * @return the YearMonth object
+     * @return the cycle index
      * @throws IllegalArgumentException if the format is invalid
      */
-    private YearMonth parseYearMonth(String cycleKey) {
+    private static int parse(String cycleKey) {
         if (cycleKey == null || cycleKey.isBlank()) {
             throw new IllegalArgumentException("cycleKey cannot be null or blank");
         }
+        if (cycleKey.length() == 7 && cycleKey.charAt(4) == '-') {
+            int year = digit(cycleKey, 0) * 1000 + digit(cycleKey, 1) * 100 + digit(cycleKey, 2) * 10 + digit(cycleKey, 3);
+            int month = digit(cycleKey, 5) * 10 + digit(cycleKey, 6);
+            if (year > 0 && month >= 1 && month <= 12) {
+                return cycleOf(year, month);
+            }
+        }
+        // anything else (wider years, signs, invalid months) keeps the formatter's rules and error
         try {
-            return YearMonth.parse(cycleKey, CYCLE_FMT);
+            YearMonth ym = YearMonth.parse(cycleKey, CYCLE_FMT);
+            return cycleOf(ym.getYear(), ym.getMonthValue());
         } catch (DateTimeParseException e) {
             throw new IllegalArgumentException(
                 String.format("Invalid cycle key format: '%s'. Expected format: 'yyyy-MM' (e.g., '2026-02')", cycleKey),
@@ -332,4 +338,99 @@ public class CycleCalculationService {
             );
         }
     }
+
+    private static int digit(String s, int index) {
+        int d = s.charAt(index) - '0';
+        // out-of-range digits push the year or month negative so the fast path is skipped
+        return d >= 0 && d <= 9 ? d : -100_000;
+    }
+
+    private static String format(int cycle) {
+        int slot = cycle - KEY_CACHE_FIRST_YEAR * 12;
+        if (slot >= 0 && slot < KEY_CACHE.length) {
+            String cached = KEY_CACHE[slot];
+            if (cached == null) {
+                cached = formatUncached(cycle);
+                KEY_CACHE[slot] = cached;
+            }
+            return cached;
+        }
+        return formatUncached(cycle);
+    }
+
+    private static String formatUncached(int cycle) {
+        int year = yearOf(cycle);
+        int month = monthOf(cycle);
+        if (year < 1 || year > 9999) {
+            return YearMonth.of(year, month).format(CYCLE_FMT);
+        }
+        char[] out = {
+                (char) ('0' + year / 1000), (char) ('0' + year / 100 % 10), (char) ('0' + year / 10 % 10),
+                (char) ('0' + year % 10), '-', (char) ('0' + month / 10), (char) ('0' + month % 10)
+        };
+        return new String(out);
+    }
+
+    private static int cycleOf(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    private static int yearOf(int cycle) {
+        return Math.floorDiv(cycle, 12);
+    }
+
+    private static int monthOf(int cycle) {
+        return Math.floorMod(cycle, 12) + 1;
+    }
+
+    private static int lengthOf(int cycle) {
+        int month = monthOf(cycle);
+        if (month == 2) {
+            return Year.isLeap(yearOf(cycle)) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int cycleAt(long epochSecond, ZoneOffset offset) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochSecond + offset.getTotalSeconds(), 86_400L));
+        return cycleOf(date.getYear(), date.getMonthValue());
+    }
+
+    private Zone zone(String timezone) {
+        String tz = timezone == null || timezone.isBlank() ? DEFAULT_TZ : timezone;
+        Zone cached = zones.get(tz);
+        if (cached != null) return cached;
+        ZoneId id = ZoneId.of(tz);
+        Zone zone = new Zone(id, id.getRules());
+        if (zones.size() < MAX_CACHED_ZONES) {
+            zones.putIfAbsent(tz, zone);
+        }
+        return zone;
+    }
+
+    private int serverCycle() {
+        return currentCycle(serverZone);
+    }
+
+    private int currentCycle(Zone zone) {
+        long now = clock.millis();
+        CurrentCycle memo = currentCycles.get(zone.id());
+        if (memo != null && now >= memo.fromMillis() && now < memo.untilMillis()) {
+            return memo.cycle();
+        }
+        Instant instant = Instant.ofEpochMilli(now);
+        int cycle = cycleAt(instant.getEpochSecond(), zone.rules().getOffset(instant));
+        long from = LocalDateTime.of(yearOf(cycle), monthOf(cycle), 1, 0, 0)
+                .atZone(zone.id()).toInstant().toEpochMilli();
+        long until = LocalDateTime.of(yearOf(cycle + 1), monthOf(cycle + 1), 1, 0, 0)
+                .atZone(zone.id()).toInstant().toEpochMilli();
+        if (memo != null || currentCycles.size() < MAX_CACHED_ZONES) {
+            currentCycles.put(zone.id(), new CurrentCycle(cycle, from, until));
+        }
+        return cycle;
+    }
+
+    private record Zone(ZoneId id, ZoneRules rules) {}
+
+    private record CurrentCycle(int cycle, long fromMillis, long untilMillis) {}
 }
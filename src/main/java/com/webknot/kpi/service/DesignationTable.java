@@ -0,0 +1,207 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.config.PrimaryReads;
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.DesignationLookup;
+import com.webknot.kpi.repository.DesignationLookupRepository;
+import com.webknot.kpi.util.BandStreamNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Preloaded copy of {@code dev.designation_lookup}, keyed by band and then stream label.
+ * <p>
+ * The table is small and read on every employee create, update, promote, import and response, so it is loaded
+ * in one query on first use and answered from memory afterwards. Writes made through the import service are
+ * applied to the table once they commit; a full reload runs every {@code designation-table.refresh-seconds}
+ * to pick up changes made elsewhere; reloads read the primary, never a lagging replica. Stream keys are matched exactly as stored, like the primary key.
+ */
+@Component
+public class DesignationTable {
+
+    private static final Logger log = LoggerFactory.getLogger(DesignationTable.class);
+
+    private final DesignationLookupRepository designationLookupRepository;
+    private final long refreshMillis;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Map<CurrentBand, Map<String, String>> table;
+    private volatile long loadedAtMillis;
+
+    @Autowired
+    public DesignationTable(DesignationLookupRepository designationLookupRepository,
+                            @Value("${designation-table.refresh-seconds:300}") long refreshSeconds) {
+        this(designationLookupRepository, refreshSeconds, Clock.systemUTC());
+    }
+
+    DesignationTable(DesignationLookupRepository designationLookupRepository, long refreshSeconds, Clock clock) {
+        this.designationLookupRepository = designationLookupRepository;
+        this.refreshMillis = Math.max(1, refreshSeconds) * 1000L;
+        this.clock = clock;
+    }
+
+    public boolean exists(DesignationLookup.DesignationId id) {
+        return id != null && exists(id.getStream(), id.getBand());
+    }
+
+    public boolean exists(String stream, CurrentBand band) {
+        return designation(stream, band).isPresent();
+    }
+
+    /**
+     * Designation configured for exactly {@code stream} and {@code band}.
+     */
+    public Optional<String> designation(String stream, CurrentBand band) {
+        if (stream == null || band == null) return Optional.empty();
+        Map<String, String> byStream = current().get(band);
+        return byStream == null ? Optional.empty() : Optional.ofNullable(byStream.get(stream));
+    }
+
+    public Optional<DesignationLookup> find(String stream, CurrentBand band) {
+        return designation(stream, band).map(value -> toEntity(stream, band, value));
+    }
+
+    /**
+     * Designation for an employee's stream, trying the canonical stream label first and the stored label
+     * second.
+     */
+    public String designationFor(String rawStream, CurrentBand band) {
+        if (rawStream == null || rawStream.isBlank() || band == null) return null;
+        String canonical = BandStreamNormalizer.canonicalStreamLabel(rawStream);
+        if (canonical != null && !canonical.isBlank()) {
+            Optional<String> found = designation(canonical, band);
+            if (found.isPresent()) return found.get();
+        }
+        return designation(rawStream, band).orElse(null);
+    }
+
+    public List<DesignationLookup> byBand(CurrentBand band) {
+        if (band == null) return List.of();
+        Map<String, String> byStream = current().get(band);
+        if (byStream == null) return List.of();
+        List<DesignationLookup> out = new ArrayList<>(byStream.size());
+        byStream.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> out.add(toEntity(e.getKey(), band, e.getValue())));
+        return out;
+    }
+
+    public List<DesignationLookup> byStream(String stream) {
+        if (stream == null) return List.of();
+        List<DesignationLookup> out = new ArrayList<>();
+        current().forEach((band, byStream) -> {
+            String value = byStream.get(stream);
+            if (value != null) out.add(toEntity(stream, band, value));
+        });
+        return out;
+    }
+
+    public List<DesignationLookup> all() {
+        List<DesignationLookup> out = new ArrayList<>();
+        current().forEach((band, byStream) -> byStream.forEach((stream, value) -> out.add(toEntity(stream, band, value))));
+        return out;
+    }
+
+    /**
+     * Records a saved designation once the current transaction commits.
+     */
+    public void recordSaved(DesignationLookup.DesignationId id, String designation) {
+        if (id == null || id.getStream() == null || id.getBand() == null) return;
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                if (table == null) return;
+                Map<CurrentBand, Map<String, String>> next = copy(table);
+                next.computeIfAbsent(id.getBand(), band -> new HashMap<>()).put(id.getStream(), designation);
+                table = freeze(next);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Forces a full reload on the next read.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            table = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<CurrentBand, Map<String, String>> current() {
+        Map<CurrentBand, Map<String, String>> snapshot = table;
+        if (snapshot != null && clock.millis() - loadedAtMillis < refreshMillis) {
+            return snapshot;
+        }
+        lock.lock();
+        try {
+            if (table != null && clock.millis() - loadedAtMillis < refreshMillis) {
+                return table;
+            }
+            Map<CurrentBand, Map<String, String>> loaded = new EnumMap<>(CurrentBand.class);
+            for (DesignationLookup row : PrimaryReads.call(designationLookupRepository::findAll)) {
+                if (row.getId() == null || row.getId().getBand() == null || row.getId().getStream() == null) continue;
+                loaded.computeIfAbsent(row.getId().getBand(), band -> new HashMap<>())
+                        .put(row.getId().getStream(), row.getDesignation());
+            }
+            table = freeze(loaded);
+            loadedAtMillis = clock.millis();
+            log.debug("Loaded designation table: {} band(s)", loaded.size());
+            return table;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<CurrentBand, Map<String, String>> copy(Map<CurrentBand, Map<String, String>> source) {
+        Map<CurrentBand, Map<String, String>> out = new EnumMap<>(CurrentBand.class);
+        source.forEach((band, byStream) -> out.put(band, new HashMap<>(byStream)));
+        return out;
+    }
+
+    private static Map<CurrentBand, Map<String, String>> freeze(Map<CurrentBand, Map<String, String>> source) {
+        Map<CurrentBand, Map<String, String>> out = new EnumMap<>(CurrentBand.class);
+        source.forEach((band, byStream) -> out.put(band, Collections.unmodifiableMap(byStream)));
+        return Collections.unmodifiableMap(out);
+    }
+
+    private static DesignationLookup toEntity(String stream, CurrentBand band, String designation) {
+        DesignationLookup entity = new DesignationLookup();
+        entity.setId(new DesignationLookup.DesignationId(stream, band));
+        entity.setDesignation(designation);
+        return entity;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.config.PrimaryReads;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.repository.EmployeeDirectoryCounts;
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cached counters shown alongside the employee directory.
+ * <p>
+ * All counters come from a single aggregate query and are cached until the next employee write, so paging
+ * through {@code /employees/getall} only runs the keyset query for the page itself. The counters are read from
+ * the primary: the cache is refilled right after a write evicts it, when a replica may not have the write yet.
+ */
+@Service
+public class EmployeeDirectoryStatsService {
+
+    public static final String CACHE_NAME = "employee-directory-stats";
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryStatsService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final CacheManager cacheManager;
+
+    public EmployeeDirectoryStatsService(EmployeeRepository employeeRepository, CacheManager cacheManager) {
+        this.employeeRepository = employeeRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    @Transactional(readOnly = true, timeout = 5)
+    @Cacheable(value = CACHE_NAME, key = "'all'")
+    public EmployeeDirectoryCounts current() {
+        EmployeeDirectoryCounts counts = PrimaryReads.call(() -> employeeRepository.aggregateDirectoryCounts(
+                EmployeeRole.Manager, EmployeeRole.Admin, EmployeeRole.Employee));
+        return counts != null ? counts : new EmployeeDirectoryCounts(0L, 0L, 0L, 0L, 0L);
+    }
+
+    /**
+     * Drops the cached counters now and again once the current transaction completes, so a read racing the
+     * write cannot re-cache pre-commit numbers.
+     */
+    public void invalidateAfterCompletion() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) return;
+        try {
+            cache.clear();
+        } catch (Exception e) {
+            log.warn("Employee directory stats cache evict failed: {}", e.getMessage());
+        }
+    }
+}
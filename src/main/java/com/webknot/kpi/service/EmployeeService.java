@@ -6,8 +6,11 @@ import com.webknot.kpi.exceptions.CrudValidationException;
 import com.webknot.kpi.models.DesignationLookup;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
-import com.webknot.kpi.repository.DesignationLookupRepository;
+import com.webknot.kpi.repository.EmployeeDirectoryCounts;
+import com.webknot.kpi.repository.EmployeeListRow;
 import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.security.TokenVersionService;
 import com.webknot.kpi.util.BandStreamNormalizer;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -16,14 +19,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 public class EmployeeService {
@@ -31,20 +33,32 @@ public class EmployeeService {
     private static final int MAX_CURSOR_LIMIT = 100;
 
     private final EmployeeRepository employeeRepository;
-    private final DesignationLookupRepository designationLookupRepository;
+    private final DesignationTable designationTable;
     private final Validator validator;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionService tokenVersionService;
+    private final RequestActorContext actorContext;
+    private final OrgHierarchyIndex orgHierarchyIndex;
+    private final EmployeeDirectoryStatsService directoryStatsService;
 
     private static final Logger log = LoggerFactory.getLogger(EmployeeService.class);
 
     public EmployeeService(EmployeeRepository employeeRepository,
-                           DesignationLookupRepository designationLookupRepository,
+                           DesignationTable designationTable,
                            Validator validator,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           TokenVersionService tokenVersionService,
+                           RequestActorContext actorContext,
+                           OrgHierarchyIndex orgHierarchyIndex,
+                           EmployeeDirectoryStatsService directoryStatsService) {
         this.employeeRepository = employeeRepository;
-        this.designationLookupRepository = designationLookupRepository;
+        this.designationTable = designationTable;
         this.validator = validator;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionService = tokenVersionService;
+        this.actorContext = actorContext;
+        this.orgHierarchyIndex = orgHierarchyIndex;
+        this.directoryStatsService = directoryStatsService;
     }
 
     private void checkForNull(Employee emp) {
@@ -60,21 +74,17 @@ public class EmployeeService {
         }
     }
 
+    private static String managerIdOf(Employee employee) {
+        return employee.getManager() != null ? employee.getManager().getEmployeeId() : null;
+    }
+
     private Optional<Employee> getActor() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            return Optional.empty();
-        }
-        String email = auth.getName();
-        if (email == null || email.isBlank() || "anonymousUser".equalsIgnoreCase(email)) {
-            return Optional.empty();
-        }
-        return employeeRepository.findByEmail(email);
+        return actorContext.currentActor();
     }
 
-    public List<Employee> getAllEmployees() {
+    public List<EmployeeListRow> getAllEmployees() {
         try {
-            return employeeRepository.findAll();
+            return withDesignations(employeeRepository.findAllListRows());
         } catch (Exception e) {
             throw CrudOperationException.asFailedGetOperation(Employee.class, e);
         }
@@ -86,29 +96,25 @@ public class EmployeeService {
         Pageable pageable = PageRequest.of(0, pageSize + 1);
 
         try {
-            long total = employeeRepository.count();
-            long managerCount = employeeRepository.countByEmpRole(EmployeeRole.Manager);
-            long adminCount = employeeRepository.countByEmpRole(EmployeeRole.Admin);
-            long employeeCount = employeeRepository.countByEmpRole(EmployeeRole.Employee);
-            long bandCount = employeeRepository.countDistinctBand();
-            List<Employee> rows = startAfter == null
-                    ? employeeRepository.findAllByOrderByEmployeeIdAsc(pageable)
-                    : employeeRepository.findByEmployeeIdGreaterThanOrderByEmployeeIdAsc(startAfter, pageable);
+            EmployeeDirectoryCounts counts = directoryStatsService.current();
+            List<EmployeeListRow> rows = startAfter == null
+                    ? employeeRepository.findListRows(pageable)
+                    : employeeRepository.findListRowsAfter(startAfter, pageable);
 
             boolean hasMore = rows.size() > pageSize;
-            List<Employee> items = hasMore ? rows.subList(0, pageSize) : rows;
+            List<EmployeeListRow> items = withDesignations(hasMore ? rows.subList(0, pageSize) : rows);
             String nextCursor = hasMore && !items.isEmpty()
-                    ? items.get(items.size() - 1).getEmployeeId()
+                    ? items.get(items.size() - 1).employeeId()
                     : null;
 
             return new EmployeeCursorPage(
-                    List.copyOf(items),
+                    items,
                     nextCursor,
-                    total,
-                    managerCount,
-                    adminCount,
-                    employeeCount,
-                    bandCount
+                    counts.total(),
+                    counts.managerCount(),
+                    counts.adminCount(),
+                    counts.employeeCount(),
+                    counts.bandCount()
             );
         } catch (Exception e) {
             throw CrudOperationException.asFailedGetOperation(Employee.class, e);
@@ -172,7 +178,7 @@ public class EmployeeService {
 
             String designationStream = resolveDesignationLookupStream(employee.getStream(), employee.getBand());
             var designationId = new DesignationLookup.DesignationId(designationStream, employee.getBand());
-            if (!designationLookupRepository.existsById(designationId)) {
+            if (!designationTable.exists(designationId)) {
                 throw new CrudValidationException(Employee.class,
                         "No designation configured for stream=" + designationStream + " and band=" + employee.getBand(),
                         CrudValidationErrorCode.DATA_VALIDATION);
@@ -193,6 +199,8 @@ public class EmployeeService {
                 saved.setUpdatedBy(updater);
                 saved = employeeRepository.save(saved);
             }
+            orgHierarchyIndex.recordUpsert(saved.getEmployeeId(), managerIdOf(saved));
+            directoryStatsService.invalidateAfterCompletion();
             log.info("Employee created id={} stream={} band={}", saved.getEmployeeId(), saved.getStream(), saved.getBand());
             return saved;
         } catch (CrudValidationException e) {
@@ -236,7 +244,7 @@ public class EmployeeService {
         }
     }
 
-    public List<Employee> getReporteesByManagerId(String managerId) {
+    public List<EmployeeListRow> getReporteesByManagerId(String managerId) {
         if (managerId == null || managerId.isBlank()) {
             throw new CrudValidationException(Employee.class,
                     "Manager ID cannot be null/blank",
@@ -244,7 +252,10 @@ public class EmployeeService {
         }
 
         try {
-            return employeeRepository.findByManager_EmployeeId(managerId);
+            if (orgHierarchyIndex.directReporteeIds(managerId).isEmpty()) {
+                return List.of();
+            }
+            return withDesignations(employeeRepository.findListRowsByManagerId(managerId));
         } catch (Exception e) {
             throw CrudOperationException.asFailedGetOperation(Employee.class, e);
         }
@@ -280,7 +291,7 @@ public class EmployeeService {
             var nextBand = nextBandOpt.get();
             String designationStream = resolveDesignationLookupStream(employee.getStream(), nextBand);
             var designationId = new DesignationLookup.DesignationId(designationStream, nextBand);
-            if (!designationLookupRepository.existsById(designationId)) {
+            if (!designationTable.exists(designationId)) {
                 throw new CrudValidationException(Employee.class,
                         "No designation configured for stream=" + designationStream + " and band=" + nextBand,
                         CrudValidationErrorCode.DATA_VALIDATION);
@@ -292,6 +303,7 @@ public class EmployeeService {
             employee.setUpdatedBy(getActor().orElse(employee));
 
             Employee saved = employeeRepository.save(employee);
+            directoryStatsService.invalidateAfterCompletion();
             log.info("Employee promoted id={} toBand={} stream={}", saved.getEmployeeId(), saved.getBand(), saved.getStream());
             return Optional.of(saved);
         } catch (CrudValidationException e) {
@@ -362,7 +374,7 @@ public class EmployeeService {
                         CrudValidationErrorCode.DATA_VALIDATION);
             }
             DesignationLookup.DesignationId designationId = new DesignationLookup.DesignationId(designationStream, nextBand);
-            if (!designationLookupRepository.existsById(designationId)) {
+            if (!designationTable.exists(designationId)) {
                 throw new CrudValidationException(Employee.class,
                         "No designation configured for stream=" + designationStream + " and band=" + nextBand,
                         CrudValidationErrorCode.DATA_VALIDATION);
@@ -403,6 +415,12 @@ public class EmployeeService {
             if (nextName != null) {
                 employee.setEmployeeName(nextName);
             }
+            boolean invalidatesSessions = !nextEmail.equals(employee.getEmail())
+                    || nextRole != employee.getEmpRole()
+                    || trimToNull(command.password()) != null;
+            if (invalidatesSessions) {
+                tokenVersionService.bump(employee);
+            }
             employee.setEmail(nextEmail);
             employee.setEmpRole(nextRole);
             employee.setBand(nextBand);
@@ -417,6 +435,11 @@ public class EmployeeService {
             }
 
             Employee saved = employeeRepository.save(employee);
+            if (invalidatesSessions) {
+                tokenVersionService.evictAfterCompletion(saved.getEmployeeId());
+            }
+            orgHierarchyIndex.recordUpsert(saved.getEmployeeId(), managerIdOf(saved));
+            directoryStatsService.invalidateAfterCompletion();
             log.info("Employee updated id={} role={} band={} stream={} managerId={}",
                     saved.getEmployeeId(),
                     saved.getEmpRole(),
@@ -452,6 +475,9 @@ public class EmployeeService {
             }
 
             employeeRepository.delete(existingOpt.get());
+            tokenVersionService.evictAfterCompletion(employeeId);
+            orgHierarchyIndex.recordDelete(employeeId);
+            directoryStatsService.invalidateAfterCompletion();
             log.info("Employee deleted id={}", employeeId);
             return true;
         } catch (CrudValidationException e) {
@@ -472,18 +498,35 @@ public class EmployeeService {
         return Math.min(limit, MAX_CURSOR_LIMIT);
     }
 
+    private List<EmployeeListRow> withDesignations(List<EmployeeListRow> rows) {
+        return rows.stream()
+                .map(row -> row.withDesignation(designationTable.designationFor(row.stream(), row.band())))
+                .toList();
+    }
+
     private String resolveDesignationLookupStream(String rawStream, com.webknot.kpi.models.CurrentBand band) {
+        return resolveDesignationLookupStream(rawStream, band, designationTable::exists);
+    }
+
+    /**
+     * Picks the stream label a designation is configured under: the canonical label if it exists for
+     * {@code band}, otherwise the raw label, otherwise the canonical label (so the caller's "not configured"
+     * error names the canonical stream).
+     */
+    static String resolveDesignationLookupStream(String rawStream,
+                                                 com.webknot.kpi.models.CurrentBand band,
+                                                 Predicate<DesignationLookup.DesignationId> exists) {
         String canonical = BandStreamNormalizer.canonicalStreamLabel(rawStream);
         if (canonical != null && band != null) {
             DesignationLookup.DesignationId canonicalId = new DesignationLookup.DesignationId(canonical, band);
-            if (designationLookupRepository.existsById(canonicalId)) {
+            if (exists.test(canonicalId)) {
                 return canonical;
             }
         }
         String raw = rawStream == null ? null : rawStream.trim();
         if (raw != null && !raw.isBlank() && band != null) {
             DesignationLookup.DesignationId rawId = new DesignationLookup.DesignationId(raw, band);
-            if (designationLookupRepository.existsById(rawId)) {
+            if (exists.test(rawId)) {
                 return raw;
             }
         }
@@ -491,7 +534,7 @@ public class EmployeeService {
     }
 
     public record EmployeeCursorPage(
-            List<Employee> items,
+            List<EmployeeListRow> items,
             String nextCursor,
             Long total,
             Long managerCount,
@@ -0,0 +1,161 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.models.SubmissionRating;
+import com.webknot.kpi.repository.SubmissionRatingRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-cycle rating aggregates (mean, percentiles, score distribution) over {@code dev.submission_ratings}.
+ * <p>
+ * The fact rows are refreshed from a submission's payload whenever it is saved, so reports are plain SQL
+ * group-bys over a narrow table instead of loading and parsing every payload for the month. Admins see the
+ * whole organisation; managers see their direct reports.
+ */
+@Service
+public class KpiAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(KpiAnalyticsService.class);
+    private static final String DEFAULT_SUBMISSION_TYPE = "EMPLOYEE_MONTHLY_SUBMISSION";
+
+    private final SubmissionRatingRepository submissionRatingRepository;
+    private final RequestActorContext actorContext;
+    private final CycleCalculationService cycleCalculationService;
+
+    public KpiAnalyticsService(SubmissionRatingRepository submissionRatingRepository,
+                               RequestActorContext actorContext,
+                               CycleCalculationService cycleCalculationService) {
+        this.submissionRatingRepository = submissionRatingRepository;
+        this.actorContext = actorContext;
+        this.cycleCalculationService = cycleCalculationService;
+    }
+
+    /**
+     * Replaces the rating rows of one submission with what its saved payload holds now. Runs in the caller's
+     * transaction, so the facts commit (or roll back) with the submission.
+     */
+    @Transactional(timeout = 30)
+    public void refreshRatings(Long submissionId) {
+        if (submissionId == null) return;
+        submissionRatingRepository.deleteBySubmissionId(submissionId);
+        int extracted = submissionRatingRepository.extractFromSubmission(submissionId);
+        log.debug("Rating facts refreshed: submissionId={}, ratings={}", submissionId, extracted);
+    }
+
+    @Transactional(readOnly = true, timeout = 15)
+    public Map<String, Object> ratingAggregates(Authentication authentication, Map<String, String> query) {
+        Employee actor = actorContext.requireActor(authentication);
+        if (actor.getEmpRole() != EmployeeRole.Manager && actor.getEmpRole() != EmployeeRole.Admin) {
+            throw new AccessDeniedException("Manager access required");
+        }
+        String managerId = actor.getEmpRole() == EmployeeRole.Admin ? null : actor.getEmployeeId();
+
+        String month = resolveMonth(param(query, "month"));
+        String groupBy = resolveGroupBy(param(query, "groupBy"));
+        String source = resolveSource(groupBy, param(query, "source"));
+        String dimension = switch (groupBy) {
+            case "kpi", "value" -> "item";
+            default -> groupBy;
+        };
+        String submissionType = param(query, "submissionType") == null
+                ? DEFAULT_SUBMISSION_TYPE
+                : param(query, "submissionType").toUpperCase(Locale.ROOT);
+        boolean includeDrafts = Boolean.parseBoolean(param(query, "includeDrafts"));
+
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (Object[] row : submissionRatingRepository.aggregate(month, source, submissionType, dimension, includeDrafts, managerId)) {
+            groups.add(toGroup(row));
+        }
+        List<Object[]> overallRows = submissionRatingRepository.aggregate(month, source, submissionType, "all", includeDrafts, managerId);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("month", month);
+        response.put("groupBy", groupBy);
+        response.put("source", source);
+        response.put("submissionType", submissionType);
+        response.put("includeDrafts", includeDrafts);
+        response.put("scope", managerId == null ? "organisation" : "direct-reports");
+        response.put("overall", overallRows.isEmpty() ? null : toGroup(overallRows.get(0)));
+        response.put("groups", groups);
+        return response;
+    }
+
+    private Map<String, Object> toGroup(Object[] row) {
+        Map<String, Object> group = new LinkedHashMap<>();
+        group.put("key", row[0]);
+        group.put("label", row[1] != null ? row[1] : row[0]);
+        group.put("ratings", asLong(row[2]));
+        group.put("employees", asLong(row[3]));
+        group.put("mean", rounded(row[4]));
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p25", rounded(row[5]));
+        percentiles.put("p50", rounded(row[6]));
+        percentiles.put("p75", rounded(row[7]));
+        percentiles.put("p90", rounded(row[8]));
+        group.put("percentiles", percentiles);
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int score = 1; score <= 5; score++) {
+            distribution.put(String.valueOf(score), asLong(row[8 + score]));
+        }
+        group.put("distribution", distribution);
+        return group;
+    }
+
+    private String resolveMonth(String raw) {
+        if (raw == null) return cycleCalculationService.calculateCurrentCycleKey();
+        try {
+            return YearMonth.parse(raw).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month. Expected format yyyy-MM.");
+        }
+    }
+
+    private String resolveGroupBy(String raw) {
+        String groupBy = raw == null ? "band" : raw.toLowerCase(Locale.ROOT);
+        return switch (groupBy) {
+            case "band", "stream", "manager", "kpi", "value" -> groupBy;
+            default -> throw new IllegalArgumentException("Invalid groupBy. Expected band, stream, manager, kpi or value.");
+        };
+    }
+
+    private String resolveSource(String groupBy, String raw) {
+        if ("kpi".equals(groupBy)) return SubmissionRating.SOURCE_KPI;
+        if ("value".equals(groupBy)) return SubmissionRating.SOURCE_VALUE;
+        if (raw == null) return SubmissionRating.SOURCE_KPI;
+        return switch (raw.toUpperCase(Locale.ROOT)) {
+            case SubmissionRating.SOURCE_KPI -> SubmissionRating.SOURCE_KPI;
+            case SubmissionRating.SOURCE_VALUE -> SubmissionRating.SOURCE_VALUE;
+            default -> throw new IllegalArgumentException("Invalid source. Expected kpi or value.");
+        };
+    }
+
+    private static String param(Map<String, String> query, String key) {
+        if (query == null) return null;
+        String value = query.get(key);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static long asLong(Object raw) {
+        return raw instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static Double rounded(Object raw) {
+        if (!(raw instanceof Number number)) return null;
+        return Math.round(number.doubleValue() * 100.0) / 100.0;
+    }
+}
@@ -5,8 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
 import com.webknot.kpi.models.MonthlySubmission;
+import com.webknot.kpi.logging.RequestProfile;
 import com.webknot.kpi.repository.EmployeeRepository;
 import com.webknot.kpi.repository.MonthlySubmissionRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.util.RawJson;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
@@ -19,6 +24,7 @@ import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 public class MonthlySubmissionService {
@@ -37,19 +43,32 @@ public class MonthlySubmissionService {
     private final EmployeeRepository employeeRepository;
     private final ObjectMapper objectMapper;
     private final NotificationService notificationService;
+    private final RequestActorContext actorContext;
+    private final MeterRegistry meterRegistry;
+    private final KpiAnalyticsService kpiAnalyticsService;
 
     public MonthlySubmissionService(MonthlySubmissionRepository monthlySubmissionRepository,
                                     EmployeeRepository employeeRepository,
                                     ObjectMapper objectMapper,
-                                    NotificationService notificationService) {
+                                    NotificationService notificationService,
+                                    RequestActorContext actorContext,
+                                    MeterRegistry meterRegistry,
+                                    KpiAnalyticsService kpiAnalyticsService) {
         this.monthlySubmissionRepository = monthlySubmissionRepository;
         this.employeeRepository = employeeRepository;
         this.objectMapper = objectMapper;
         this.notificationService = notificationService;
+        this.actorContext = actorContext;
+        this.meterRegistry = meterRegistry;
+        this.kpiAnalyticsService = kpiAnalyticsService;
     }
 
     @Transactional(timeout = 30)
     public Map<String, Object> saveDraft(Authentication authentication, Map<String, Object> body) {
+        return timed("save", () -> doSaveDraft(authentication, body));
+    }
+
+    private Map<String, Object> doSaveDraft(Authentication authentication, Map<String, Object> body) {
         Employee actor = requireActor(authentication);
         Map<String, Object> payload = toMutableMap(body);
 
@@ -100,6 +119,7 @@ public class MonthlySubmissionService {
         submission.setAdminReviewJson(extractNestedJson(payload, "adminReview", submission.getAdminReviewJson()));
 
         MonthlySubmission saved = monthlySubmissionRepository.save(submission);
+        kpiAnalyticsService.refreshRatings(saved.getId());
         log.info("Monthly draft saved: id={}, employee={}, month={}, type={}",
                 saved.getId(), subjectEmployeeId, month, submissionType);
         return toResponse(saved, true);
@@ -107,6 +127,10 @@ public class MonthlySubmissionService {
 
     @Transactional(timeout = 30)
     public Map<String, Object> submit(Authentication authentication, Map<String, Object> body) {
+        return timed("submit", () -> doSubmit(authentication, body));
+    }
+
+    private Map<String, Object> doSubmit(Authentication authentication, Map<String, Object> body) {
         Employee actor = requireActor(authentication);
         Map<String, Object> payload = toMutableMap(body);
 
@@ -153,6 +177,7 @@ public class MonthlySubmissionService {
         submission.setAdminReviewJson(extractNestedJson(payload, "adminReview", submission.getAdminReviewJson()));
 
         MonthlySubmission saved = monthlySubmissionRepository.save(submission);
+        kpiAnalyticsService.refreshRatings(saved.getId());
         log.info("Monthly submission saved: id={}, employee={}, month={}, type={}, status={}, reviewStatus={}",
                 saved.getId(), subjectEmployeeId, month, submissionType, saved.getStatus(), saved.getReviewStatus());
 
@@ -177,20 +202,29 @@ public class MonthlySubmissionService {
         if (candidates.isEmpty()) return null;
 
         MonthlySubmission picked = pickSelfSubmission(candidates, actor);
-        return toResponse(picked, false);
+        return toReadResponse(picked, false, RawJson.parseFields(query == null ? null : query.get("fields")));
     }
 
     @Transactional(readOnly = true, timeout = 10)
-    public List<Map<String, Object>> getMyHistory(Authentication authentication) {
+    public List<Map<String, Object>> getMyHistory(Authentication authentication, String fieldsCsv) {
+        return timed("history", () -> doGetMyHistory(authentication, fieldsCsv));
+    }
+
+    private List<Map<String, Object>> doGetMyHistory(Authentication authentication, String fieldsCsv) {
         Employee actor = requireActor(authentication);
+        Set<String> fields = RawJson.parseFields(fieldsCsv);
         List<MonthlySubmission> rows = monthlySubmissionRepository.findByEmployee_EmployeeIdOrderByUpdatedAtDesc(
                 actor.getEmployeeId()
         );
-        return rows.stream().map(row -> toResponse(row, false)).toList();
+        return rows.stream().map(row -> toReadResponse(row, false, fields)).toList();
     }
 
     @Transactional(readOnly = true, timeout = 15)
     public Map<String, Object> getCycleHistory(Authentication authentication, Map<String, String> query) {
+        return timed("cycle_history", () -> doGetCycleHistory(authentication, query));
+    }
+
+    private Map<String, Object> doGetCycleHistory(Authentication authentication, Map<String, String> query) {
         Employee actor = requireActor(authentication);
         String employeeFilter = firstNonBlank(
                 query == null ? null : query.get("employeeId"),
@@ -203,6 +237,7 @@ public class MonthlySubmissionService {
         }
         int maxCyclesPerEmployee = parseMaxCyclesPerEmployee(query == null ? null : query.get("maxCyclesPerEmployee"));
         boolean includeManagerSelf = parseBoolean(query == null ? null : query.get("includeManagerSelf"), false);
+        Set<String> fields = RawJson.parseFields(query == null ? null : query.get("fields"));
 
         Set<String> allowedEmployeeIds = resolveAccessibleEmployeeIds(actor, employeeFilter);
         List<MonthlySubmission> rows = monthlySubmissionRepository.findAllByOrderByUpdatedAtDesc();
@@ -243,7 +278,7 @@ public class MonthlySubmissionService {
                 continue;
             }
 
-            Map<String, Object> full = toResponse(row, true);
+            Map<String, Object> full = readResponse(row, false, fields);
             Map<String, Object> cycle = new LinkedHashMap<>();
             cycle.put("id", full.get("id"));
             cycle.put("month", full.get("month"));
@@ -257,7 +292,7 @@ public class MonthlySubmissionService {
             cycle.put("managerSubmittedAt", full.get("managerSubmittedAt"));
             cycle.put("adminSubmittedAt", full.get("adminSubmittedAt"));
             cycle.put("updatedAt", full.get("updatedAt"));
-            cycles.add(cycle);
+            cycles.add(RawJson.project(cycle, fields));
         }
 
         List<Map<String, Object>> employees = new ArrayList<>(employeeEntries.values());
@@ -273,6 +308,10 @@ public class MonthlySubmissionService {
 
     @Transactional(readOnly = true, timeout = 10)
     public Object getManagerTeam(Authentication authentication, Map<String, String> query) {
+        return timed("manager_team", () -> doGetManagerTeam(authentication, query));
+    }
+
+    private Object doGetManagerTeam(Authentication authentication, Map<String, String> query) {
         Employee actor = requireActor(authentication);
         requireManagerOrAdmin(actor);
 
@@ -354,7 +393,8 @@ public class MonthlySubmissionService {
         } else {
             rows = monthlySubmissionRepository.findAllByOrderByUpdatedAtDesc();
         }
-        return rows.stream().map(row -> toResponse(row, true)).toList();
+        Set<String> fields = RawJson.parseFields(query == null ? null : query.get("fields"));
+        return rows.stream().map(row -> toReadResponse(row, true, fields)).toList();
     }
 
     @Transactional(readOnly = true, timeout = 10)
@@ -363,11 +403,15 @@ public class MonthlySubmissionService {
         requireAdmin(actor);
         MonthlySubmission row = monthlySubmissionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Submission not found: " + id));
-        return toResponse(row, true);
+        return toReadResponse(row, true, null);
     }
 
     @Transactional(timeout = 30)
     public Map<String, Object> rejectAdminSubmission(Authentication authentication, Long id, Map<String, Object> body) {
+        return timed("reject", () -> doRejectAdminSubmission(authentication, id, body));
+    }
+
+    private Map<String, Object> doRejectAdminSubmission(Authentication authentication, Long id, Map<String, Object> body) {
         Employee actor = requireActor(authentication);
         requireAdmin(actor);
         
@@ -405,6 +449,7 @@ public class MonthlySubmissionService {
         submission.setAdminSubmittedAt(LocalDateTime.now());
         
         MonthlySubmission saved = monthlySubmissionRepository.save(submission);
+        kpiAnalyticsService.refreshRatings(saved.getId());
         log.info("Admin rejection submitted: id={}, employee={}, month={}, rejectedBy={}",
                 saved.getId(), submission.getEmployee().getEmployeeId(), submission.getMonth(), actor.getEmployeeId());
         
@@ -425,6 +470,10 @@ public class MonthlySubmissionService {
 
     @Transactional(timeout = 30)
     public Map<String, Object> submitAdminReview(Authentication authentication, Map<String, Object> body) {
+        return timed("review", () -> doSubmitAdminReview(authentication, body));
+    }
+
+    private Map<String, Object> doSubmitAdminReview(Authentication authentication, Map<String, Object> body) {
         Employee actor = requireActor(authentication);
         requireAdmin(actor);
         Map<String, Object> payload = toMutableMap(body);
@@ -457,12 +506,13 @@ public class MonthlySubmissionService {
         existing.setAdminSubmittedAt(LocalDateTime.now());
 
         MonthlySubmission saved = monthlySubmissionRepository.save(existing);
+        kpiAnalyticsService.refreshRatings(saved.getId());
         log.info("Admin review saved: id={}, employee={}, month={}, actionStatus={}",
                 saved.getId(), subjectEmployeeId, month, reviewStatus);
         return toResponse(saved, true);
     }
 
-    private void validatePayload(Map<String, Object> payload, boolean submitting) {
+    void validatePayload(Map<String, Object> payload, boolean submitting) {
         if (payload == null) throw new IllegalArgumentException("Request payload is required.");
         requireArrayIfPresent(payload, "kpiRatings");
         requireArrayIfPresent(payload, "certifications");
@@ -630,7 +680,7 @@ public class MonthlySubmissionService {
         return row;
     }
 
-    private Map<String, Object> toResponse(MonthlySubmission row, boolean includeEmployee) {
+    Map<String, Object> toResponse(MonthlySubmission row, boolean includeEmployee) {
         Map<String, Object> payload = parseJsonAsMap(row.getPayloadJson());
         Map<String, Object> out = new LinkedHashMap<>();
         if (row.getManagerReviewJson() != null && !row.getManagerReviewJson().isBlank()) {
@@ -666,6 +716,88 @@ public class MonthlySubmissionService {
         return out;
     }
 
+    /**
+     * Read-only counterpart of {@link #toResponse(MonthlySubmission, boolean)} producing the same JSON shape.
+     * The stored payload and review columns are emitted as raw JSON rather than parsed into maps and
+     * re-serialized; the review objects and {@code reviewStatus} are spliced into the payload text when it
+     * does not already carry them. {@code fields} optionally limits the top-level keys returned.
+     */
+    Map<String, Object> toReadResponse(MonthlySubmission row, boolean includeEmployee, Set<String> fields) {
+        return RawJson.project(readResponse(row, includeEmployee, fields), fields);
+    }
+
+    /**
+     * {@link #toReadResponse} without the final projection, for callers that reshape the map and project
+     * the result themselves. {@code fields} still decides whether the payload and employee are rendered.
+     */
+    private Map<String, Object> readResponse(MonthlySubmission row, boolean includeEmployee, Set<String> fields) {
+        String managerReviewJson = rawObjectOrNull(row.getManagerReviewJson());
+        String adminReviewJson = rawObjectOrNull(row.getAdminReviewJson());
+        Map<String, Object> out = new LinkedHashMap<>();
+        if (managerReviewJson != null) {
+            out.put("managerReview", RawJson.raw(managerReviewJson));
+        }
+        if (adminReviewJson != null) {
+            out.put("adminReview", RawJson.raw(adminReviewJson));
+        }
+
+        String employeeId = row.getEmployee() != null ? row.getEmployee().getEmployeeId() : null;
+        out.put("id", row.getId() != null ? String.valueOf(row.getId()) : null);
+        out.put("submissionId", row.getId() != null ? String.valueOf(row.getId()) : null);
+        out.put("month", row.getMonth());
+        out.put("status", row.getStatus());
+        out.put("reviewStatus", row.getReviewStatus());
+        out.put("submissionType", row.getSubmissionType());
+        out.put("subjectEmployeeId", employeeId);
+        out.put("employeeId", employeeId);
+        out.put("payload", RawJson.wants(fields, "payload")
+                ? RawJson.raw(rawPayload(row, managerReviewJson, adminReviewJson))
+                : null);
+        out.put("submittedAt", row.getSubmittedAt() != null ? row.getSubmittedAt().toString() : null);
+        out.put("managerSubmittedAt", row.getManagerSubmittedAt() != null ? row.getManagerSubmittedAt().toString() : null);
+        out.put("adminSubmittedAt", row.getAdminSubmittedAt() != null ? row.getAdminSubmittedAt().toString() : null);
+        out.put("updatedAt", row.getUpdatedAt() != null ? row.getUpdatedAt().toString() : null);
+        out.put("createdAt", row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        out.put("reopenedForResubmission", REVIEW_STATUS_NEEDS_REVIEW.equalsIgnoreCase(row.getReviewStatus()));
+        if (includeEmployee && row.getEmployee() != null && RawJson.wants(fields, "employee")) {
+            out.put("employee", toEmployeeSummary(row.getEmployee()));
+        }
+        return out;
+    }
+
+    private String rawPayload(MonthlySubmission row, String managerReviewJson, String adminReviewJson) {
+        String payloadJson = row.getPayloadJson();
+        String base = payloadJson == null || payloadJson.isBlank() ? "{}" : payloadJson;
+        Map<String, String> extras = new LinkedHashMap<>();
+        if (managerReviewJson != null) extras.put("managerReview", managerReviewJson);
+        if (adminReviewJson != null) extras.put("adminReview", adminReviewJson);
+        extras.put("reviewStatus", toJsonValue(row.getReviewStatus()));
+        String merged = RawJson.putIfAbsent(objectMapper.getFactory(), base, extras);
+        if (merged == null) {
+            log.warn("Failed to parse submission JSON payload, returning empty object: id={}", row.getId());
+            merged = RawJson.putIfAbsent(objectMapper.getFactory(), "{}", extras);
+        }
+        return merged;
+    }
+
+    private String rawObjectOrNull(String json) {
+        if (json == null || json.isBlank()) return null;
+        if (RawJson.topLevelKeys(objectMapper.getFactory(), json) == null) {
+            log.warn("Failed to parse submission JSON payload, returning empty object");
+            return "{}";
+        }
+        return json.trim();
+    }
+
+    private String toJsonValue(String value) {
+        if (value == null) return "null";
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to serialize submission payload.");
+        }
+    }
+
     private Map<String, Object> toEmployeeSummary(Employee e) {
         Map<String, Object> employee = new LinkedHashMap<>();
         employee.put("employeeId", e.getEmployeeId());
@@ -678,10 +810,7 @@ public class MonthlySubmissionService {
     }
 
     private Employee requireActor(Authentication authentication) {
-        String email = authentication == null ? null : firstNonBlank(authentication.getName());
-        if (email == null) throw new AccessDeniedException("Unauthorized");
-        return employeeRepository.findByEmail(email)
-                .orElseThrow(() -> new AccessDeniedException("Unauthorized"));
+        return actorContext.requireActor(authentication);
     }
 
     private Employee requireEmployeeById(String employeeId) {
@@ -703,11 +832,14 @@ public class MonthlySubmissionService {
 
     private Map<String, Object> parseJsonAsMap(String text) {
         if (text == null || text.isBlank()) return new LinkedHashMap<>();
+        long startedAtNanos = System.nanoTime();
         try {
             return objectMapper.readValue(text, new TypeReference<>() {});
         } catch (Exception e) {
             log.warn("Failed to parse submission JSON payload, returning empty object: {}", e.getMessage());
             return new LinkedHashMap<>();
+        } finally {
+            RequestProfile.recordJsonParse(System.nanoTime() - startedAtNanos);
         }
     }
 
@@ -725,7 +857,7 @@ public class MonthlySubmissionService {
     }
 
     @SuppressWarnings("unchecked")
-    private void deepMerge(Map<String, Object> target, Map<String, Object> source) {
+    void deepMerge(Map<String, Object> target, Map<String, Object> source) {
         for (Map.Entry<String, Object> entry : source.entrySet()) {
             String key = entry.getKey();
             Object value = entry.getValue();
@@ -856,6 +988,10 @@ public class MonthlySubmissionService {
         return true;
     }
 
+    /**
+     * Access is decided from the database rather than {@link OrgHierarchyIndex}: the index only learns about
+     * manager changes made on other instances at its next periodic reload.
+     */
     private Set<String> resolveAccessibleEmployeeIds(Employee actor, String employeeFilter) {
         if (actor == null || actor.getEmployeeId() == null) {
             throw new AccessDeniedException("Unauthorized");
@@ -869,29 +1005,18 @@ public class MonthlySubmissionService {
                 requireEmployeeById(requestedEmployeeId);
                 return Set.of(requestedEmployeeId);
             }
-            List<Employee> allEmployees = employeeRepository.findAll();
-            Set<String> ids = new LinkedHashSet<>();
-            for (Employee employee : allEmployees) {
-                if (employee != null && employee.getEmployeeId() != null && !employee.getEmployeeId().isBlank()) {
-                    ids.add(employee.getEmployeeId());
-                }
-            }
-            return ids;
+            return new LinkedHashSet<>(employeeRepository.findAllEmployeeIds());
         }
 
         if (actor.getEmpRole() == EmployeeRole.Manager) {
-            Set<String> allowed = new LinkedHashSet<>();
-            allowed.add(actorId);
-            List<Employee> reportees = employeeRepository.findByManager_EmployeeId(actorId);
-            for (Employee reportee : reportees) {
-                if (reportee != null && reportee.getEmployeeId() != null && !reportee.getEmployeeId().isBlank()) {
-                    allowed.add(reportee.getEmployeeId());
-                }
-            }
             if (requestedEmployeeId == null) {
+                Set<String> allowed = new LinkedHashSet<>();
+                allowed.add(actorId);
+                allowed.addAll(employeeRepository.findOrgEmployeeIds(actorId));
                 return allowed;
             }
-            if (!allowed.contains(requestedEmployeeId)) {
+            if (!actorId.equals(requestedEmployeeId)
+                    && !employeeRepository.findOrgEmployeeIds(actorId).contains(requestedEmployeeId)) {
                 throw new AccessDeniedException("You are not allowed to view this employee's cycle history.");
             }
             return Set.of(requestedEmployeeId);
@@ -958,4 +1083,28 @@ public class MonthlySubmissionService {
             notificationService.notifyManagerEmployeePairSubmittedToAdmins(subject, actor, month, saved.getId());
         }
     }
+
+    /**
+     * Records {@code kpi.submission.operation}, tagged by operation and outcome ({@code success},
+     * {@code rejected} for validation and access failures, {@code error} otherwise). Runs inside the caller's
+     * transaction, so commit time is not included.
+     */
+    private <T> T timed(String operation, Supplier<T> body) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = body.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalArgumentException | AccessDeniedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("kpi.submission.operation")
+                    .description("Monthly submission service calls")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.repository.NotificationEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@code dev.notifications} bounded.
+ * <p>
+ * Read notifications older than {@code notifications.retention.read-age-days} are either moved to
+ * {@code dev.notifications_archive} or deleted, in batches of {@code notifications.retention.batch-size}
+ * rows. Each batch commits on its own so the job never holds long locks on the live table, and a run
+ * stops after {@code notifications.retention.max-batches-per-run} batches so a large backlog drains over
+ * several nights instead of in one pass.
+ * <p>
+ * When the live table has been converted to monthly partitions (see {@code sql/notifications_partitioning.sql}),
+ * enabling {@code notifications.partitioning.enabled} also pre-creates upcoming month partitions on every run.
+ */
+@Service
+public class NotificationRetentionService {
+
+    public static final String MODE_ARCHIVE = "archive";
+    public static final String MODE_DELETE = "delete";
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationEventRepository notificationEventRepository;
+    private final boolean enabled;
+    private final String mode;
+    private final int readAgeDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final boolean partitioningEnabled;
+    private final int partitionMonthsAhead;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public NotificationRetentionService(NotificationEventRepository notificationEventRepository,
+                                        @Value("${notifications.retention.enabled:true}") boolean enabled,
+                                        @Value("${notifications.retention.mode:archive}") String mode,
+                                        @Value("${notifications.retention.read-age-days:90}") int readAgeDays,
+                                        @Value("${notifications.retention.batch-size:500}") int batchSize,
+                                        @Value("${notifications.retention.max-batches-per-run:200}") int maxBatchesPerRun,
+                                        @Value("${notifications.partitioning.enabled:false}") boolean partitioningEnabled,
+                                        @Value("${notifications.partitioning.months-ahead:2}") int partitionMonthsAhead) {
+        this.notificationEventRepository = notificationEventRepository;
+        this.enabled = enabled;
+        this.mode = normalizeMode(mode);
+        this.readAgeDays = Math.max(1, readAgeDays);
+        this.batchSize = Math.max(1, Math.min(batchSize, 10_000));
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.partitioningEnabled = partitioningEnabled;
+        this.partitionMonthsAhead = Math.max(1, partitionMonthsAhead);
+    }
+
+    @Scheduled(
+            cron = "${notifications.retention.cron:0 30 2 * * *}",
+            zone = "${notifications.retention.zone:Asia/Kolkata}"
+    )
+    public void runScheduledRetention() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (partitioningEnabled) {
+                ensurePartitions();
+            }
+            RetentionResult result = purgeReadNotifications(LocalDateTime.now());
+            if (result.affectedRows() > 0 || result.truncated()) {
+                log.info("Notification retention finished: mode={}, affectedRows={}, batches={}, truncated={}, cutoff={}",
+                        result.mode(), result.affectedRows(), result.batches(), result.truncated(), result.cutoff());
+            }
+        } catch (Exception ex) {
+            log.error("Notification retention run failed", ex);
+        }
+    }
+
+    public RetentionResult purgeReadNotifications(LocalDateTime now) {
+        LocalDateTime cutoff = now.minusDays(readAgeDays);
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Notification retention already running; skipping overlapping run");
+            return new RetentionResult(mode, cutoff, 0, 0, false);
+        }
+        try {
+            long affected = 0;
+            int batches = 0;
+            boolean truncated = false;
+            while (true) {
+                if (batches >= maxBatchesPerRun) {
+                    truncated = true;
+                    break;
+                }
+                int moved = MODE_DELETE.equals(mode)
+                        ? notificationEventRepository.deleteReadBatch(cutoff, batchSize)
+                        : notificationEventRepository.archiveReadBatch(cutoff, batchSize, now);
+                batches++;
+                affected += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+            return new RetentionResult(mode, cutoff, affected, batches, truncated);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public int ensurePartitions() {
+        Integer created = notificationEventRepository.ensureMonthlyPartitions(partitionMonthsAhead);
+        int count = created == null ? 0 : created;
+        if (count > 0) {
+            log.info("Created {} notification partition(s) ahead of time", count);
+        }
+        return count;
+    }
+
+    private static String normalizeMode(String raw) {
+        String value = raw == null ? "" : raw.trim().toLowerCase(Locale.ROOT);
+        if (MODE_ARCHIVE.equals(value) || MODE_DELETE.equals(value)) {
+            return value;
+        }
+        throw new IllegalArgumentException(
+                "Invalid notifications.retention.mode '" + raw + "'. Expected 'archive' or 'delete'."
+        );
+    }
+
+    public record RetentionResult(String mode, LocalDateTime cutoff, long affectedRows, int batches, boolean truncated) {}
+}
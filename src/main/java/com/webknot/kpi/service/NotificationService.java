@@ -1,16 +1,21 @@
 package com.webknot.kpi.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
 import com.webknot.kpi.models.NotificationEvent;
 import com.webknot.kpi.repository.EmployeeRepository;
 import com.webknot.kpi.repository.NotificationEventRepository;
+import com.webknot.kpi.repository.NotificationEventRepositoryCustom.NotificationRow;
+import com.webknot.kpi.security.EmployeePrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -23,6 +28,8 @@ import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class NotificationService {
@@ -39,13 +46,29 @@ public class NotificationService {
     private final EmployeeRepository employeeRepository;
     private final ObjectMapper objectMapper;
     private final Map<String, CopyOnWriteArrayList<EmitterSubscription>> emittersByRecipient = new ConcurrentHashMap<>();
+    private final AtomicInteger activeEmitters = new AtomicInteger();
+    private final Timer dispatchTimer;
+    private final Counter failedSends;
+    private final int inboxHorizonDays;
 
     public NotificationService(NotificationEventRepository notificationEventRepository,
                                EmployeeRepository employeeRepository,
-                               ObjectMapper objectMapper) {
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${notifications.inbox.horizon-days:180}") int inboxHorizonDays) {
         this.notificationEventRepository = notificationEventRepository;
         this.employeeRepository = employeeRepository;
         this.objectMapper = objectMapper;
+        this.inboxHorizonDays = Math.max(1, inboxHorizonDays);
+        Gauge.builder("kpi.notification.emitters.active", activeEmitters, AtomicInteger::get)
+                .description("Open notification SSE streams")
+                .register(meterRegistry);
+        this.dispatchTimer = Timer.builder("kpi.notification.dispatch")
+                .description("Time to push one notification to the recipient's open streams")
+                .register(meterRegistry);
+        this.failedSends = Counter.builder("kpi.notification.send.failures")
+                .description("SSE sends that failed and dropped the stream")
+                .register(meterRegistry);
     }
 
     @Transactional(readOnly = true, timeout = 10)
@@ -55,24 +78,27 @@ public class NotificationService {
                                          String cursor,
                                          Boolean unreadOnly,
                                          boolean requireAdmin) {
-        Employee actor = requireActor(authentication, requireAdmin);
+        String actorId = requireActorId(authentication, requireAdmin);
         Set<String> types = normalizeTypes(typesCsv);
         boolean onlyUnread = Boolean.TRUE.equals(unreadOnly);
 
         int pageSize = normalizeLimit(limit);
         Long startBeforeId = parseCursor(cursor);
-        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        LocalDateTime since = LocalDateTime.now().minusDays(inboxHorizonDays);
 
-        List<NotificationEvent> rows = fetchRows(actor.getEmployeeId(), types, onlyUnread, startBeforeId, pageable);
+        List<NotificationRow> rows = notificationEventRepository.findPageForRecipient(
+                actorId, types, onlyUnread, startBeforeId, since, pageSize + 1
+        );
         boolean hasMore = rows.size() > pageSize;
-        List<NotificationEvent> items = hasMore ? rows.subList(0, pageSize) : rows;
+        List<NotificationRow> items = hasMore ? rows.subList(0, pageSize) : rows;
         String nextCursor = hasMore && !items.isEmpty()
-                ? String.valueOf(items.get(items.size() - 1).getId())
+                ? String.valueOf(items.get(items.size() - 1).id())
                 : null;
 
+        // unbounded like markAllRead: every unread row is counted, however old
         long unreadCount = types.isEmpty()
-                ? notificationEventRepository.countByRecipient_EmployeeIdAndReadFalse(actor.getEmployeeId())
-                : notificationEventRepository.countByRecipient_EmployeeIdAndReadFalseAndTypeIn(actor.getEmployeeId(), types);
+                ? notificationEventRepository.countByRecipient_EmployeeIdAndReadFalse(actorId)
+                : notificationEventRepository.countByRecipient_EmployeeIdAndReadFalseAndTypeIn(actorId, types);
 
         List<NotificationPayload> payloadItems = items.stream()
                 .map(this::toPayload)
@@ -85,14 +111,14 @@ public class NotificationService {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Invalid notification id.");
         }
-        Employee actor = requireActor(authentication, requireAdmin);
+        String actorId = requireActorId(authentication, requireAdmin);
 
-        NotificationEvent row = notificationEventRepository.findByIdAndRecipient_EmployeeId(id, actor.getEmployeeId())
+        NotificationEvent row = notificationEventRepository.findByIdAndRecipient_EmployeeId(id, actorId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found: " + id));
 
         if (!row.isRead()) {
             LocalDateTime now = LocalDateTime.now();
-            notificationEventRepository.markRead(id, actor.getEmployeeId(), now);
+            notificationEventRepository.markRead(id, actorId, now);
             row.setRead(true);
             row.setReadAt(now);
             row.setUpdatedAt(now);
@@ -102,23 +128,24 @@ public class NotificationService {
 
     @Transactional(timeout = 30)
     public int markAllRead(Authentication authentication, boolean requireAdmin) {
-        Employee actor = requireActor(authentication, requireAdmin);
-        return notificationEventRepository.markAllRead(actor.getEmployeeId(), LocalDateTime.now());
+        String actorId = requireActorId(authentication, requireAdmin);
+        return notificationEventRepository.markAllRead(actorId, LocalDateTime.now());
     }
 
     // Note: subscribe() is intentionally NOT transactional because SSE connections
     // are long-lived and should not hold database connections. Database access
     // happens in separate transactional methods.
     public SseEmitter subscribe(Authentication authentication, String typesCsv, boolean requireAdmin) {
-        Employee actor = requireActor(authentication, requireAdmin);
+        String actorId = requireActorId(authentication, requireAdmin);
         Set<String> types = normalizeTypes(typesCsv);
 
         SseEmitter emitter = new SseEmitter(0L);
         EmitterSubscription subscription = new EmitterSubscription(emitter, types);
-        String recipientEmployeeId = actor.getEmployeeId();
+        String recipientEmployeeId = actorId;
         emittersByRecipient
                 .computeIfAbsent(recipientEmployeeId, key -> new CopyOnWriteArrayList<>())
                 .add(subscription);
+        activeEmitters.incrementAndGet();
 
         emitter.onCompletion(() -> removeSubscription(recipientEmployeeId, subscription));
         emitter.onTimeout(() -> removeSubscription(recipientEmployeeId, subscription));
@@ -217,59 +244,6 @@ public class NotificationService {
         }
     }
 
-    private List<NotificationEvent> fetchRows(String recipientEmployeeId,
-                                              Set<String> types,
-                                              boolean onlyUnread,
-                                              Long startBeforeId,
-                                              Pageable pageable) {
-        boolean filterTypes = !types.isEmpty();
-        boolean hasCursor = startBeforeId != null;
-
-        if (onlyUnread) {
-            if (filterTypes) {
-                if (hasCursor) {
-                    return notificationEventRepository
-                            .findByRecipient_EmployeeIdAndReadFalseAndTypeInAndIdLessThanOrderByIdDesc(
-                                    recipientEmployeeId, types, startBeforeId, pageable
-                            );
-                }
-                return notificationEventRepository
-                        .findByRecipient_EmployeeIdAndReadFalseAndTypeInOrderByIdDesc(
-                                recipientEmployeeId, types, pageable
-                        );
-            }
-            if (hasCursor) {
-                return notificationEventRepository
-                        .findByRecipient_EmployeeIdAndReadFalseAndIdLessThanOrderByIdDesc(
-                                recipientEmployeeId, startBeforeId, pageable
-                        );
-            }
-            return notificationEventRepository.findByRecipient_EmployeeIdAndReadFalseOrderByIdDesc(
-                    recipientEmployeeId, pageable
-            );
-        }
-
-        if (filterTypes) {
-            if (hasCursor) {
-                return notificationEventRepository.findByRecipient_EmployeeIdAndTypeInAndIdLessThanOrderByIdDesc(
-                        recipientEmployeeId, types, startBeforeId, pageable
-                );
-            }
-            return notificationEventRepository.findByRecipient_EmployeeIdAndTypeInOrderByIdDesc(
-                    recipientEmployeeId, types, pageable
-            );
-        }
-
-        if (hasCursor) {
-            return notificationEventRepository.findByRecipient_EmployeeIdAndIdLessThanOrderByIdDesc(
-                    recipientEmployeeId, startBeforeId, pageable
-            );
-        }
-        return notificationEventRepository.findByRecipient_EmployeeIdOrderByIdDesc(
-                recipientEmployeeId, pageable
-        );
-    }
-
     private NotificationEvent createAndDispatch(Employee recipient,
                                                 String type,
                                                 String title,
@@ -313,6 +287,7 @@ public class NotificationService {
                 : "notification";
         String eventId = event.getId() != null ? String.valueOf(event.getId()) : UUID.randomUUID().toString();
 
+        long startedAtNanos = System.nanoTime();
         for (EmitterSubscription subscription : subscriptions) {
             if (!subscription.allows(payload.type())) continue;
             try {
@@ -321,35 +296,54 @@ public class NotificationService {
                         .id(eventId)
                         .data(payload));
             } catch (Exception sendError) {
+                failedSends.increment();
                 removeSubscription(recipientEmployeeId, subscription);
             }
         }
+        dispatchTimer.record(System.nanoTime() - startedAtNanos, TimeUnit.NANOSECONDS);
     }
 
     private void removeSubscription(String recipientEmployeeId, EmitterSubscription subscription) {
         List<EmitterSubscription> subscriptions = emittersByRecipient.get(recipientEmployeeId);
         if (subscriptions == null) return;
-        subscriptions.remove(subscription);
+        if (subscriptions.remove(subscription)) {
+            activeEmitters.decrementAndGet();
+        }
         if (subscriptions.isEmpty()) {
             emittersByRecipient.remove(recipientEmployeeId);
         }
     }
 
     private NotificationPayload toPayload(NotificationEvent row) {
-        Map<String, Object> payload = parsePayload(row.getPayloadJson());
-        String createdAt = row.getCreatedAt() != null ? row.getCreatedAt().toString() : Instant.now().toString();
+        return toPayload(row.getId(), row.getType(), row.getTitle(), row.getMessage(),
+                row.getCreatedAt(), row.isRead(), row.getPayloadJson());
+    }
+
+    private NotificationPayload toPayload(NotificationRow row) {
+        return toPayload(row.id(), row.type(), row.title(), row.message(),
+                row.createdAt(), Boolean.TRUE.equals(row.read()), row.payloadJson());
+    }
+
+    private NotificationPayload toPayload(Long id,
+                                          String type,
+                                          String title,
+                                          String message,
+                                          LocalDateTime createdAt,
+                                          boolean read,
+                                          String payloadJson) {
+        String normalizedType = normalizeType(type);
         return new NotificationPayload(
-                row.getId() != null ? String.valueOf(row.getId()) : UUID.randomUUID().toString(),
-                normalizeType(row.getType()),
-                firstNonBlank(row.getTitle(), normalizeType(row.getType())),
-                firstNonBlank(row.getMessage(), ""),
-                createdAt,
-                row.isRead(),
-                payload
+                id != null ? String.valueOf(id) : UUID.randomUUID().toString(),
+                normalizedType,
+                firstNonBlank(title, normalizedType),
+                firstNonBlank(message, ""),
+                createdAt != null ? createdAt.toString() : Instant.now().toString(),
+                read,
+                rawPayload(payloadJson)
         );
     }
 
-    private String serializePayload(Map<String, Object> payload) {
+    String serializePayload(Map<String, Object> payload) {
         try {
             return objectMapper.writeValueAsString(payload == null ? Map.of() : payload);
         } catch (Exception e) {
@@ -358,17 +352,36 @@ public class NotificationService {
         }
     }
 
-    private Map<String, Object> parsePayload(String payloadJson) {
-        if (payloadJson == null || payloadJson.isBlank()) return new LinkedHashMap<>();
-        try {
-            return objectMapper.readValue(payloadJson, new TypeReference<>() {});
-        } catch (Exception e) {
-            log.warn("Failed to parse notification payload: {}", e.getMessage());
-            return new LinkedHashMap<>();
+    /**
+     * Payloads are only ever written by {@link #serializePayload(Map)}, so the stored text is passed through to
+     * the response as-is instead of being parsed into a map and re-serialized. The brace check keeps a damaged
+     * row from corrupting the surrounding JSON document.
+     */
+    private String rawPayload(String payloadJson) {
+        if (payloadJson == null) return "{}";
+        String trimmed = payloadJson.trim();
+        if (trimmed.length() < 2 || trimmed.charAt(0) != '{' || trimmed.charAt(trimmed.length() - 1) != '}') {
+            if (!trimmed.isEmpty()) {
+                log.warn("Ignoring malformed notification payload");
+            }
+            return "{}";
         }
+        return trimmed;
     }
 
-    private Employee requireActor(Authentication authentication, boolean requireAdmin) {
+    /**
+     * Resolves the caller's employee id. Token-backed principals already carry the id and role, so only
+     * non-token authentications fall back to loading the employee by email.
+     */
+    private String requireActorId(Authentication authentication, boolean requireAdmin) {
+        EmployeePrincipal principal = EmployeePrincipal.from(authentication);
+        if (principal != null && principal.employeeId() != null) {
+            if (requireAdmin && !principal.isAdmin()) {
+                throw new AccessDeniedException("Admin access required");
+            }
+            return principal.employeeId();
+        }
+
         String email = authentication == null ? null : firstNonBlank(authentication.getName());
         if (email == null) throw new AccessDeniedException("Unauthorized");
         Employee actor = employeeRepository.findByEmail(email)
@@ -377,7 +390,7 @@ public class NotificationService {
         if (requireAdmin && actor.getEmpRole() != EmployeeRole.Admin) {
             throw new AccessDeniedException("Admin access required");
         }
-        return actor;
+        return actor.getEmployeeId();
     }
 
     private int normalizeLimit(Integer limit) {
@@ -435,7 +448,7 @@ public class NotificationService {
             String message,
             String createdAt,
             boolean read,
-            Map<String, Object> payload
+            @JsonRawValue String payload
     ) {}
 
     public record NotificationPage(
@@ -0,0 +1,106 @@
+package com.webknot.kpi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * OpenAI chat-completions backend. Requests go out with {@link HttpClient#sendAsync}, so no application thread
+ * waits on the provider.
+ */
+@Component
+public class OpenAiEnhancementProvider implements AiEnhancementProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiEnhancementProvider.class);
+    private static final URI CHAT_COMPLETIONS = URI.create("https://api.openai.com/v1/chat/completions");
+
+    private final ObjectMapper objectMapper;
+    private final String model;
+    private final Duration requestTimeout;
+    private final HttpClient httpClient;
+
+    public OpenAiEnhancementProvider(ObjectMapper objectMapper,
+                                     @Value("${ai.enhance.model:gpt-4o-mini}") String model,
+                                     @Value("${ai.enhance.request-timeout-seconds:40}") long requestTimeoutSeconds) {
+        this.objectMapper = objectMapper;
+        this.model = model;
+        this.requestTimeout = Duration.ofSeconds(Math.max(1, requestTimeoutSeconds));
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(20))
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "openai";
+    }
+
+    @Override
+    public String model() {
+        return model;
+    }
+
+    @Override
+    public CompletableFuture<String> enhance(String apiKey, String systemPrompt, String text) {
+        HttpRequest request;
+        try {
+            String requestJson = objectMapper.writeValueAsString(Map.of(
+                    "model", model,
+                    "temperature", 0.3,
+                    "messages", List.of(
+                            Map.of("role", "system", "content", systemPrompt),
+                            Map.of("role", "user", "content", text)
+                    )
+            ));
+            request = HttpRequest.newBuilder()
+                    .uri(CHAT_COMPLETIONS)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(requestJson))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Failed to call AI provider."));
+        }
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(this::readContent)
+                .handle((enhanced, error) -> {
+                    if (error == null) return enhanced;
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof IllegalArgumentException e) throw e;
+                    log.warn("OpenAI request failed: {}", cause.toString());
+                    throw new IllegalArgumentException("Failed to call AI provider.");
+                });
+    }
+
+    private String readContent(HttpResponse<String> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new IllegalArgumentException("AI request failed with status " + response.statusCode());
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(response.body());
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Failed to call AI provider.");
+        }
+        String enhanced = root.path("choices").path(0).path("message").path("content").asText("").trim();
+        if (enhanced.isBlank()) throw new IllegalArgumentException("AI returned an empty response.");
+        return enhanced;
+    }
+}
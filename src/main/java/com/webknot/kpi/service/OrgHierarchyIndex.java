@@ -0,0 +1,322 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.config.PrimaryReads;
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory manager/reportee index over {@code dev.employees}.
+ * <p>
+ * The reporting tree is kept as int-indexed arrays: a parent array, children in compressed adjacency form, and
+ * a pre-order numbering where every manager's whole org (direct and skip-level reportees) is one contiguous
+ * range. "Is X in Y's org" is therefore two array reads, and a subtree is an array slice.
+ * <p>
+ * The index loads lazily on first use. Employee writes record their manager edge once the surrounding
+ * transaction commits, and the arrays are rebuilt from the in-memory edge map on the next read without going
+ * back to the database. A full reload from the primary still happens every {@code org-index.refresh-seconds}
+ * to pick up changes made by other instances.
+ */
+@Component
+public class OrgHierarchyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgHierarchyIndex.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final long refreshMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+    private volatile boolean dirty;
+    private Map<String, String> managerById;
+    private volatile long loadedAtMillis;
+
+    public OrgHierarchyIndex(EmployeeRepository employeeRepository,
+                             @Value("${org-index.refresh-seconds:300}") long refreshSeconds) {
+        this.employeeRepository = employeeRepository;
+        this.refreshMillis = Math.max(1, refreshSeconds) * 1000L;
+    }
+
+    public boolean contains(String employeeId) {
+        return employeeId != null && current().indexOf(employeeId) >= 0;
+    }
+
+    /**
+     * All employee ids, ordered by id.
+     */
+    public Set<String> allEmployeeIds() {
+        Snapshot s = current();
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(s.ids)));
+    }
+
+    public List<String> directReporteeIds(String managerId) {
+        Snapshot s = current();
+        int m = s.indexOf(managerId);
+        if (m < 0) return List.of();
+        List<String> out = new ArrayList<>(s.childStart[m + 1] - s.childStart[m]);
+        for (int i = s.childStart[m]; i < s.childStart[m + 1]; i++) {
+            out.add(s.ids[s.children[i]]);
+        }
+        return out;
+    }
+
+    /**
+     * Direct and skip-level reportees of {@code managerId}, excluding the manager.
+     */
+    public List<String> orgIds(String managerId) {
+        Snapshot s = current();
+        int m = s.indexOf(managerId);
+        if (m < 0) return List.of();
+        List<String> out = new ArrayList<>(s.exit[m] - s.enter[m] - 1);
+        for (int pos = s.enter[m] + 1; pos < s.exit[m]; pos++) {
+            out.add(s.ids[s.preorder[pos]]);
+        }
+        return out;
+    }
+
+    /**
+     * Whether {@code employeeId} reports to {@code managerId}, directly or through any number of levels.
+     */
+    public boolean isInOrg(String managerId, String employeeId) {
+        Snapshot s = current();
+        int m = s.indexOf(managerId);
+        int e = s.indexOf(employeeId);
+        if (m < 0 || e < 0 || m == e) return false;
+        return s.enter[m] < s.enter[e] && s.enter[e] < s.exit[m];
+    }
+
+    /**
+     * Managers above {@code employeeId}, nearest first.
+     */
+    public List<String> managementChain(String employeeId) {
+        Snapshot s = current();
+        int e = s.indexOf(employeeId);
+        if (e < 0) return List.of();
+        List<String> out = new ArrayList<>();
+        for (int p = s.parent[e]; p >= 0 && out.size() < s.ids.length; p = s.parent[p]) {
+            out.add(s.ids[p]);
+        }
+        return out;
+    }
+
+    /**
+     * Records an employee's (new) manager once the current transaction commits.
+     */
+    public void recordUpsert(String employeeId, String managerId) {
+        if (employeeId == null) return;
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                if (managerById == null) return;
+                managerById.put(employeeId, managerId);
+                dirty = true;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes an employee once the current transaction commits. Its reportees become top-level, mirroring
+     * {@code ON DELETE SET NULL} on {@code manager_id}.
+     */
+    public void recordDelete(String employeeId) {
+        if (employeeId == null) return;
+        afterCommit(() -> {
+            lock.lock();
+            try {
+                if (managerById == null) return;
+                managerById.remove(employeeId);
+                managerById.replaceAll((id, managerId) -> employeeId.equals(managerId) ? null : managerId);
+                dirty = true;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Forces a full reload from the database on the next read.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            managerById = null;
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && !dirty && System.currentTimeMillis() - loadedAtMillis < refreshMillis) {
+            return s;
+        }
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            if (managerById == null || now - loadedAtMillis >= refreshMillis) {
+                Map<String, String> loaded = new HashMap<>();
+                for (Object[] row : PrimaryReads.call(employeeRepository::findManagerEdges)) {
+                    loaded.put((String) row[0], (String) row[1]);
+                }
+                managerById = loaded;
+                loadedAtMillis = now;
+                dirty = true;
+            }
+            if (dirty || snapshot == null) {
+                snapshot = Snapshot.build(managerById);
+                dirty = false;
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    static final class Snapshot {
+        final String[] ids;
+        final Map<String, Integer> indexById;
+        final int[] parent;
+        final int[] childStart;
+        final int[] children;
+        final int[] preorder;
+        final int[] enter;
+        final int[] exit;
+
+        private Snapshot(String[] ids, Map<String, Integer> indexById, int[] parent, int[] childStart,
+                         int[] children, int[] preorder, int[] enter, int[] exit) {
+            this.ids = ids;
+            this.indexById = indexById;
+            this.parent = parent;
+            this.childStart = childStart;
+            this.children = children;
+            this.preorder = preorder;
+            this.enter = enter;
+            this.exit = exit;
+        }
+
+        int indexOf(String employeeId) {
+            if (employeeId == null) return -1;
+            Integer index = indexById.get(employeeId);
+            return index == null ? -1 : index;
+        }
+
+        static Snapshot build(Map<String, String> managerById) {
+            TreeMap<String, String> sorted = new TreeMap<>();
+            managerById.forEach((id, managerId) -> {
+                if (id != null) sorted.put(id, managerId);
+            });
+            int n = sorted.size();
+            String[] ids = sorted.keySet().toArray(new String[0]);
+            Map<String, Integer> indexById = new HashMap<>(Math.max(16, n * 2));
+            for (int i = 0; i < n; i++) indexById.put(ids[i], i);
+
+            int[] parent = new int[n];
+            for (int i = 0; i < n; i++) {
+                Integer p = sorted.get(ids[i]) == null ? null : indexById.get(sorted.get(ids[i]));
+                parent[i] = p == null || p == i ? -1 : p;
+            }
+            int[] childStart = childStarts(parent);
+            int[] children = children(parent, childStart);
+
+            int[] preorder = new int[n];
+            int[] enter = new int[n];
+            int[] exit = new int[n];
+            boolean[] visited = new boolean[n];
+            int[] stack = new int[n];
+            int[] cursor = new int[n];
+            int pos = 0;
+            boolean cut = false;
+            // roots first; anything still unvisited afterwards sits on a manager cycle and is cut there
+            for (int pass = 0; pass < 2; pass++) {
+                for (int root = 0; root < n; root++) {
+                    if (visited[root] || (pass == 0 && parent[root] >= 0)) continue;
+                    if (pass == 1) {
+                        log.warn("Manager cycle detected at employee {}; treating it as top-level in the org index", ids[root]);
+                        parent[root] = -1;
+                        cut = true;
+                    }
+                    int depth = 0;
+                    stack[depth] = root;
+                    cursor[depth] = childStart[root];
+                    visited[root] = true;
+                    enter[root] = pos;
+                    preorder[pos++] = root;
+                    while (depth >= 0) {
+                        int node = stack[depth];
+                        if (cursor[depth] < childStart[node + 1]) {
+                            int child = children[cursor[depth]++];
+                            if (visited[child]) continue;
+                            visited[child] = true;
+                            enter[child] = pos;
+                            preorder[pos++] = child;
+                            depth++;
+                            stack[depth] = child;
+                            cursor[depth] = childStart[child];
+                        } else {
+                            exit[node] = pos;
+                            depth--;
+                        }
+                    }
+                }
+            }
+            if (cut) {
+                // drop the cut edges so the old manager no longer lists them as direct reportees; the pre-order
+                // ranges stay valid because the traversal never followed an edge into a visited node
+                childStart = childStarts(parent);
+                children = children(parent, childStart);
+            }
+            return new Snapshot(ids, indexById, parent, childStart, children, preorder, enter, exit);
+        }
+
+        private static int[] childStarts(int[] parent) {
+            int n = parent.length;
+            int[] childStart = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                if (parent[i] >= 0) childStart[parent[i] + 1]++;
+            }
+            for (int i = 0; i < n; i++) childStart[i + 1] += childStart[i];
+            return childStart;
+        }
+
+        private static int[] children(int[] parent, int[] childStart) {
+            int n = parent.length;
+            int[] children = new int[childStart[n]];
+            int[] fill = Arrays.copyOf(childStart, n);
+            for (int i = 0; i < n; i++) {
+                if (parent[i] >= 0) children[fill[parent[i]]++] = i;
+            }
+            return children;
+        }
+    }
+}
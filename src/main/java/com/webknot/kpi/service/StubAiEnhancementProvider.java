@@ -0,0 +1,54 @@
+package com.webknot.kpi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline provider for local runs and tests ({@code ai.enhance.stub.enabled=true}). It tidies whitespace,
+ * capitalisation and the closing full stop, optionally after an artificial delay, and is used when no AI
+ * agent is configured or when the active agent's provider is {@code stub}.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.enhance.stub.enabled", havingValue = "true")
+public class StubAiEnhancementProvider implements AiEnhancementProvider {
+
+    private final long latencyMillis;
+
+    public StubAiEnhancementProvider(@Value("${ai.enhance.stub.latency-ms:0}") long latencyMillis) {
+        this.latencyMillis = Math.max(0, latencyMillis);
+    }
+
+    @Override
+    public String name() {
+        return "stub";
+    }
+
+    @Override
+    public String model() {
+        return "stub";
+    }
+
+    @Override
+    public CompletableFuture<String> enhance(String apiKey, String systemPrompt, String text) {
+        String enhanced = polish(text);
+        if (latencyMillis == 0) {
+            return CompletableFuture.completedFuture(enhanced);
+        }
+        return CompletableFuture.supplyAsync(() -> enhanced,
+                CompletableFuture.delayedExecutor(latencyMillis, TimeUnit.MILLISECONDS));
+    }
+
+    static String polish(String text) {
+        String collapsed = String.valueOf(text == null ? "" : text).trim().replaceAll("\\s+", " ");
+        if (collapsed.isEmpty()) return collapsed;
+        StringBuilder out = new StringBuilder(collapsed.length() + 1);
+        out.append(Character.toUpperCase(collapsed.charAt(0))).append(collapsed, 1, collapsed.length());
+        char last = out.charAt(out.length() - 1);
+        if (last != '.' && last != '!' && last != '?') out.append('.');
+        return out.toString();
+    }
+}
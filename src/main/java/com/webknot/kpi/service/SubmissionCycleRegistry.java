@@ -0,0 +1,132 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.SubmissionCycle;
+import com.webknot.kpi.repository.SubmissionCycleRepository;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.*;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves {@link SubmissionCycle} rows by cycle key.
+ * <p>
+ * Resolved cycles are kept in memory as detached copies, so steady-state window reads cost no database calls.
+ * Missing cycles are created with an {@code INSERT ... ON CONFLICT (cycle_key) DO NOTHING} followed by a
+ * re-read, so concurrent first requests of a new month (on one or many instances) all converge on the same
+ * row instead of racing on the unique constraint. A daily job also creates next month's cycle ahead of time.
+ */
+@Component
+public class SubmissionCycleRegistry {
+
+    static final String DEFAULT_TZ = "Asia/Kolkata";
+
+    private final SubmissionCycleRepository repo;
+    private final CycleCalculationService cycleCalculationService;
+    private final Clock clock;
+    private final Map<String, SubmissionCycle> cyclesByKey = new ConcurrentHashMap<>();
+    private final Logger log = LogManager.getLogger(SubmissionCycleRegistry.class);
+
+    @Autowired
+    public SubmissionCycleRegistry(SubmissionCycleRepository repo, CycleCalculationService cycleCalculationService) {
+        this(repo, cycleCalculationService, Clock.systemUTC());
+    }
+
+    SubmissionCycleRegistry(SubmissionCycleRepository repo, CycleCalculationService cycleCalculationService, Clock clock) {
+        this.repo = repo;
+        this.cycleCalculationService = cycleCalculationService;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached cycle for {@code cycleKey}, loading (and creating, if needed) it on a miss.
+     * The returned instance is a detached copy and must not be saved.
+     */
+    public SubmissionCycle resolve(String cycleKey, String timezone) {
+        SubmissionCycle cached = cyclesByKey.get(cycleKey);
+        return cached != null ? cached : refresh(cycleKey, timezone);
+    }
+
+    /**
+     * Re-reads the cycle from the database, replacing the cached copy.
+     */
+    public SubmissionCycle refresh(String cycleKey, String timezone) {
+        SubmissionCycle copy = copyOf(loadOrCreate(cycleKey, timezone));
+        cyclesByKey.put(cycleKey, copy);
+        return copy;
+    }
+
+    /**
+     * Returns the managed entity for {@code cycleKey} so the caller can modify and save it inside its own
+     * transaction. Callers must {@link #evict(String)} the key once the change is committed.
+     */
+    public SubmissionCycle loadForUpdate(String cycleKey, String timezone) {
+        return loadOrCreate(cycleKey, timezone);
+    }
+
+    public void evict(String cycleKey) {
+        if (cycleKey != null) cyclesByKey.remove(cycleKey);
+    }
+
+    @Scheduled(
+            cron = "${submission-window.precreate-cron:0 5 0 * * *}",
+            zone = "${submission-window.precreate-zone:Asia/Kolkata}"
+    )
+    public void precreateUpcomingCycles() {
+        try {
+            String currentKey = cycleCalculationService.calculateCurrentCycleKey(DEFAULT_TZ);
+            String nextKey = cycleCalculationService.calculateNextCycleKey(currentKey);
+            resolve(currentKey, DEFAULT_TZ);
+            resolve(nextKey, DEFAULT_TZ);
+            // keep only the cycles that can still be "current"
+            cyclesByKey.keySet().removeIf(key -> !key.equals(currentKey) && !key.equals(nextKey));
+        } catch (Exception ex) {
+            log.error("Failed to pre-create upcoming submission cycles", ex);
+        }
+    }
+
+    private SubmissionCycle loadOrCreate(String cycleKey, String timezone) {
+        return repo.findByCycleKey(cycleKey).orElseGet(() -> {
+            OffsetDateTime now = OffsetDateTime.now(clock);
+            OffsetDateTime start = defaultStartAt(cycleKey, now, timezone);
+            int inserted = repo.insertIfAbsent(UUID.randomUUID(), cycleKey, timezone, start, start.plusDays(1), now);
+            if (inserted > 0) {
+                log.info("Created default submission cycle: {}", cycleKey);
+            }
+            return repo.findByCycleKey(cycleKey)
+                    .orElseThrow(() -> new IllegalStateException("Submission cycle could not be created: " + cycleKey));
+        });
+    }
+
+    /**
+     * 18:00 local time today for the current month; 18:00 on the first day for a month created ahead of time.
+     */
+    private OffsetDateTime defaultStartAt(String cycleKey, OffsetDateTime nowUtc, String timezone) {
+        ZoneId zone = ZoneId.of(timezone);
+        ZonedDateTime local = nowUtc.atZoneSameInstant(zone);
+        YearMonth cycleMonth = YearMonth.parse(cycleKey);
+        if (cycleMonth.isAfter(YearMonth.from(local))) {
+            local = cycleMonth.atDay(1).atStartOfDay(zone);
+        }
+        return local.withHour(18).withMinute(0).withSecond(0).withNano(0).toOffsetDateTime();
+    }
+
+    static SubmissionCycle copyOf(SubmissionCycle source) {
+        SubmissionCycle copy = new SubmissionCycle();
+        copy.setId(source.getId());
+        copy.setCycleKey(source.getCycleKey());
+        copy.setTimezone(source.getTimezone());
+        copy.setWindowStartAt(source.getWindowStartAt());
+        copy.setWindowEndAt(source.getWindowEndAt());
+        copy.setManualClosed(source.isManualClosed());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setUpdatedBy(source.getUpdatedBy());
+        return copy;
+    }
+}
@@ -1,6 +1,7 @@
 package com.webknot.kpi.service;
 
 
+import com.webknot.kpi.config.PrimaryReads;
 import com.webknot.kpi.dto.ScheduleWindowRequest;
 import com.webknot.kpi.dto.SubmissionWindowResponse;
 import com.webknot.kpi.models.EmployeeSubmissionWindowOverride;
@@ -11,59 +12,84 @@ import com.webknot.kpi.repository.SubmissionCycleRepository;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class SubmissionWindowService {
 
-    private static final DateTimeFormatter CYCLE_FMT = DateTimeFormatter.ofPattern("yyyy-MM");
-    private static final String DEFAULT_TZ = "Asia/Kolkata";
+    private static final String DEFAULT_TZ = SubmissionCycleRegistry.DEFAULT_TZ;
+    private static final int MAX_BULK_EMPLOYEES = 1000;
 
     private final SubmissionCycleRepository repo;
     private final EmployeeSubmissionWindowOverrideRepository overrideRepository;
     private final EmployeeRepository employeeRepository;
     private final CycleCalculationService cycleCalculationService;
+    private final SubmissionCycleRegistry cycleRegistry;
+    private final OrgHierarchyIndex orgHierarchyIndex;
     private final Clock clock;
+    private final long snapshotTtlMillis;
     private final Logger log = LogManager.getLogger(SubmissionWindowService.class);
 
+    /**
+     * Read-side view of the current cycle and every employee override. Rebuilt lazily on first read after a
+     * window write commits, when the cycle key rolls over, or after the TTL (so other instances converge).
+     * Rebuilds read the primary so a replica behind the write cannot put the old rows back.
+     */
+    private volatile WindowSnapshot snapshot;
+    private final AtomicLong snapshotGeneration = new AtomicLong();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
     @Autowired
     public SubmissionWindowService(SubmissionCycleRepository repo,
                                    EmployeeSubmissionWindowOverrideRepository overrideRepository,
                                    EmployeeRepository employeeRepository,
-                                   CycleCalculationService cycleCalculationService) {
-        this(repo, overrideRepository, employeeRepository, cycleCalculationService, Clock.systemUTC());
+                                   CycleCalculationService cycleCalculationService,
+                                   SubmissionCycleRegistry cycleRegistry,
+                                   OrgHierarchyIndex orgHierarchyIndex,
+                                   @Value("${submission-window.snapshot-ttl-seconds:30}") long snapshotTtlSeconds) {
+        this(repo, overrideRepository, employeeRepository, cycleCalculationService, cycleRegistry,
+                orgHierarchyIndex, Clock.systemUTC(), snapshotTtlSeconds);
     }
 
     SubmissionWindowService(SubmissionCycleRepository repo,
                             EmployeeSubmissionWindowOverrideRepository overrideRepository,
                             EmployeeRepository employeeRepository,
                             CycleCalculationService cycleCalculationService,
-                            Clock clock) {
+                            SubmissionCycleRegistry cycleRegistry,
+                            OrgHierarchyIndex orgHierarchyIndex,
+                            Clock clock,
+                            long snapshotTtlSeconds) {
         this.repo = repo;
         this.overrideRepository = overrideRepository;
         this.employeeRepository = employeeRepository;
         this.cycleCalculationService = cycleCalculationService;
+        this.cycleRegistry = cycleRegistry;
+        this.orgHierarchyIndex = orgHierarchyIndex;
         this.clock = clock;
+        this.snapshotTtlMillis = Math.max(0, snapshotTtlSeconds) * 1000L;
     }
 
     public SubmissionWindowResponse getCurrentWindow() {
-        SubmissionCycle cycle = getOrCreateCurrentCycle(DEFAULT_TZ);
+        SubmissionCycle cycle = currentSnapshot().cycle();
         OffsetDateTime now = OffsetDateTime.now(clock);
         log.info("Current submission window fetched for cycle: {}", cycle.getCycleKey());
         return toResponse(cycle, now);
     }
 
     public SubmissionWindowResponse getCurrentWindowForEmployee(String employeeId) {
-        SubmissionCycle cycle = getOrCreateCurrentCycle(DEFAULT_TZ);
+        WindowSnapshot current = currentSnapshot();
+        SubmissionCycle cycle = current.cycle();
         OffsetDateTime now = OffsetDateTime.now(clock);
-        boolean open = isOpenForEmployee(cycle, employeeId, now);
+        boolean open = isOpenForEmployee(cycle, current.overrideFor(employeeId), now);
         return new SubmissionWindowResponse(
                 cycle.getCycleKey(),
                 cycle.getTimezone(),
@@ -85,6 +111,7 @@ public class SubmissionWindowService {
         cycle.setManualClosed(false);
         cycle.setUpdatedBy(actorEmployeeId);
         repo.save(cycle);
+        invalidateSnapshotAfterCommit();
         
         OffsetDateTime now = OffsetDateTime.now(clock);
         log.info("Submission window scheduled for cycle={}, start={}, end={}, actor={}",
@@ -101,6 +128,7 @@ public class SubmissionWindowService {
         cycle.setManualClosed(false);
         cycle.setUpdatedBy(actorEmployeeId);
         repo.save(cycle);
+        invalidateSnapshotAfterCommit();
         
         log.info("Submission window opened immediately for cycle={}, actor={}", cycle.getCycleKey(), actorEmployeeId);
         return toResponse(cycle, now);
@@ -113,6 +141,7 @@ public class SubmissionWindowService {
         cycle.setManualClosed(true);
         cycle.setUpdatedBy(actorEmployeeId);
         repo.save(cycle);
+        invalidateSnapshotAfterCommit();
         
         log.info("Submission window closed immediately for cycle={}, actor={}", cycle.getCycleKey(), actorEmployeeId);
         return toResponse(cycle, now);
@@ -129,10 +158,12 @@ public class SubmissionWindowService {
         override.setForceOpen(true);
         override.setForceClosed(false);
         override.setUpdatedBy(actorEmployeeId);
+        override.setUpdatedAt(OffsetDateTime.now(clock));
         overrideRepository.save(override);
+        invalidateSnapshotAfterCommit();
 
         log.info("Submission window opened for employee={}, actor={}", id, actorEmployeeId);
-        return getEmployeeWindowStatus(id);
+        return toEmployeeStatus(id, currentCycle(), OverrideState.of(override), OffsetDateTime.now(clock));
     }
 
     @Transactional(timeout = 10)
@@ -146,35 +177,62 @@ public class SubmissionWindowService {
         override.setForceOpen(false);
         override.setForceClosed(true);
         override.setUpdatedBy(actorEmployeeId);
+        override.setUpdatedAt(OffsetDateTime.now(clock));
         overrideRepository.save(override);
+        invalidateSnapshotAfterCommit();
 
         log.info("Submission window closed for employee={}, actor={}", id, actorEmployeeId);
-        return getEmployeeWindowStatus(id);
+        return toEmployeeStatus(id, currentCycle(), OverrideState.of(override), OffsetDateTime.now(clock));
     }
 
-    public Map<String, Object> getEmployeeWindowStatus(String employeeId) {
-        String id = normalizeEmployeeId(employeeId);
+    /**
+     * Opens (or closes) the window for every listed employee in one batched write. Unknown ids reject the
+     * whole request so a typo never leaves a team half-updated.
+     */
+    @Transactional(timeout = 30)
+    public Map<String, Object> setWindowForEmployees(Collection<String> employeeIds, boolean open, String actorEmployeeId) {
+        Set<String> ids = normalizeEmployeeIds(employeeIds);
+        Set<String> found = new HashSet<>();
+        employeeRepository.findAllById(ids).forEach(employee -> found.add(employee.getEmployeeId()));
+        List<String> missing = ids.stream().filter(id -> !found.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Employee not found: " + String.join(", ", missing));
+        }
+        return applyOverrides(ids, open, actorEmployeeId, null);
+    }
+
+    @Transactional(timeout = 30)
+    public Map<String, Object> setWindowForManagerTeam(String managerId, boolean open, String actorEmployeeId) {
+        String id = normalizeEmployeeId(managerId);
         ensureEmployeeExists(id);
+        Set<String> reporteeIds = new LinkedHashSet<>(orgHierarchyIndex.directReporteeIds(id));
+        if (reporteeIds.size() > MAX_BULK_EMPLOYEES) {
+            throw new IllegalArgumentException("Team is too large for a single bulk update (max " + MAX_BULK_EMPLOYEES + ")");
+        }
+        return applyOverrides(reporteeIds, open, actorEmployeeId, id);
+    }
 
-        SubmissionCycle cycle = getOrCreateCurrentCycle(DEFAULT_TZ);
+    public List<Map<String, Object>> getManagerTeamWindowStatus(String managerId) {
+        String id = normalizeEmployeeId(managerId);
+        ensureEmployeeExists(id);
+        WindowSnapshot current = currentSnapshot();
         OffsetDateTime now = OffsetDateTime.now(clock);
-        boolean globalOpen = isOpenAt(cycle, now);
-        boolean employeeOpen = isOpenForEmployee(cycle, id, now);
-        Optional<EmployeeSubmissionWindowOverride> overrideOpt = overrideRepository.findById(id);
+        List<Map<String, Object>> out = new ArrayList<>();
+        orgHierarchyIndex.directReporteeIds(id).forEach(reporteeId -> out.add(
+                toEmployeeStatus(reporteeId, current.cycle(), current.overrideFor(reporteeId), now)
+        ));
+        return out;
+    }
 
-        Map<String, Object> body = new LinkedHashMap<>();
-        body.put("employeeId", id);
-        body.put("cycleKey", cycle.getCycleKey());
-        body.put("globalOpen", globalOpen);
-        body.put("windowOpenForEmployee", employeeOpen);
-        body.put("employeeWindowOpen", employeeOpen);
-        body.put("isOpenForEmployee", employeeOpen);
-        body.put("forceOpen", overrideOpt.map(EmployeeSubmissionWindowOverride::isForceOpen).orElse(false));
-        body.put("forceClosed", overrideOpt.map(EmployeeSubmissionWindowOverride::isForceClosed).orElse(false));
-        body.put("overrideUpdatedAt", overrideOpt.map(EmployeeSubmissionWindowOverride::getUpdatedAt).map(OffsetDateTime::toString).orElse(null));
-        body.put("overrideUpdatedBy", overrideOpt.map(EmployeeSubmissionWindowOverride::getUpdatedBy).orElse(null));
-        body.put("serverNow", now.toString());
-        return body;
+    public Map<String, Object> getEmployeeWindowStatus(String employeeId) {
+        String id = normalizeEmployeeId(employeeId);
+        WindowSnapshot current = currentSnapshot();
+        OverrideState override = current.overrideFor(id);
+        // an override row can only exist for an existing employee (FK), so the lookup is only needed without one
+        if (override == null) {
+            ensureEmployeeExists(id);
+        }
+        return toEmployeeStatus(id, current.cycle(), override, OffsetDateTime.now(clock));
     }
 
     public boolean isOpenNow(SubmissionCycle cycle) {
@@ -189,47 +247,159 @@ public class SubmissionWindowService {
     }
 
     public boolean isOpenForEmployee(SubmissionCycle cycle, String employeeId, OffsetDateTime now) {
+        if (employeeId == null || employeeId.isBlank()) return isOpenAt(cycle, now);
+        return isOpenForEmployee(cycle, currentSnapshot().overrideFor(employeeId), now);
+    }
+
+    private boolean isOpenForEmployee(SubmissionCycle cycle, OverrideState override, OffsetDateTime now) {
         boolean globalOpen = isOpenAt(cycle, now);
-        if (employeeId == null || employeeId.isBlank()) return globalOpen;
+        if (override == null) return globalOpen;
+        if (override.forceOpen()) return true;
+        if (override.forceClosed()) return false;
+        return globalOpen;
+    }
 
-        Optional<EmployeeSubmissionWindowOverride> overrideOpt = overrideRepository.findById(employeeId.trim());
-        if (overrideOpt.isEmpty()) return globalOpen;
+    private Map<String, Object> applyOverrides(Set<String> ids, boolean open, String actorEmployeeId, String managerId) {
+        Map<String, EmployeeSubmissionWindowOverride> existing = new HashMap<>();
+        overrideRepository.findAllById(ids).forEach(row -> existing.put(row.getEmployeeId(), row));
 
-        EmployeeSubmissionWindowOverride override = overrideOpt.get();
-        if (override.isForceOpen()) return true;
-        if (override.isForceClosed()) return false;
-        return globalOpen;
+        OffsetDateTime now = OffsetDateTime.now(clock);
+        List<EmployeeSubmissionWindowOverride> rows = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            EmployeeSubmissionWindowOverride override = existing.computeIfAbsent(id, key -> new EmployeeSubmissionWindowOverride());
+            override.setEmployeeId(id);
+            override.setForceOpen(open);
+            override.setForceClosed(!open);
+            override.setUpdatedBy(actorEmployeeId);
+            override.setUpdatedAt(now);
+            rows.add(override);
+        }
+        overrideRepository.saveAll(rows);
+        invalidateSnapshotAfterCommit();
+
+        SubmissionCycle cycle = currentCycle();
+        List<Map<String, Object>> employees = new ArrayList<>(rows.size());
+        for (EmployeeSubmissionWindowOverride row : rows) {
+            employees.add(toEmployeeStatus(row.getEmployeeId(), cycle, OverrideState.of(row), now));
+        }
+
+        log.info("Submission window {} for {} employee(s), manager={}, actor={}",
+                open ? "opened" : "closed", rows.size(), managerId, actorEmployeeId);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("action", open ? "OPEN" : "CLOSE");
+        body.put("managerId", managerId);
+        body.put("cycleKey", cycle.getCycleKey());
+        body.put("globalOpen", isOpenAt(cycle, now));
+        body.put("updatedCount", rows.size());
+        body.put("employees", employees);
+        body.put("serverNow", now.toString());
+        return body;
     }
 
-    private SubmissionCycle getOrCreateCurrentCycle(String timezone) {
-        String cycleKey = currentCycleKey(timezone);
-        return repo.findByCycleKey(cycleKey).orElseGet(() -> {
-            SubmissionCycle created = new SubmissionCycle();
-            created.setCycleKey(cycleKey);
-            created.setTimezone(timezone);
+    private Map<String, Object> toEmployeeStatus(String employeeId,
+                                                 SubmissionCycle cycle,
+                                                 OverrideState override,
+                                                 OffsetDateTime now) {
+        boolean globalOpen = isOpenAt(cycle, now);
+        boolean employeeOpen = isOpenForEmployee(cycle, override, now);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("employeeId", employeeId);
+        body.put("cycleKey", cycle.getCycleKey());
+        body.put("globalOpen", globalOpen);
+        body.put("windowOpenForEmployee", employeeOpen);
+        body.put("employeeWindowOpen", employeeOpen);
+        body.put("isOpenForEmployee", employeeOpen);
+        body.put("forceOpen", override != null && override.forceOpen());
+        body.put("forceClosed", override != null && override.forceClosed());
+        body.put("overrideUpdatedAt", override != null && override.updatedAt() != null ? override.updatedAt().toString() : null);
+        body.put("overrideUpdatedBy", override != null ? override.updatedBy() : null);
+        body.put("serverNow", now.toString());
+        return body;
+    }
+
+    private WindowSnapshot currentSnapshot() {
+        String cycleKey = currentCycleKey(DEFAULT_TZ);
+        WindowSnapshot current = snapshot;
+        if (isUsable(current, cycleKey)) return current;
+        snapshotLock.lock();
+        try {
+            current = snapshot;
+            if (isUsable(current, cycleKey)) return current;
+
+            long generation = snapshotGeneration.get();
+            // refresh rather than resolve so a TTL reload also picks up cycle edits made on other instances
+            SubmissionCycle cycle = PrimaryReads.call(() -> cycleRegistry.refresh(cycleKey, DEFAULT_TZ));
+            Map<String, OverrideState> overrides = new HashMap<>();
+            for (EmployeeSubmissionWindowOverride row : PrimaryReads.call(overrideRepository::findAll)) {
+                overrides.put(row.getEmployeeId(), OverrideState.of(row));
+            }
+            WindowSnapshot loaded = new WindowSnapshot(cycle, Map.copyOf(overrides), clock.millis());
+            // a write that committed while we were loading may not be reflected; serve it once but don't keep it
+            if (snapshotGeneration.get() == generation) {
+                snapshot = loaded;
+            }
+            return loaded;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
 
-            OffsetDateTime now = OffsetDateTime.now(clock);
-            OffsetDateTime start = defaultStartAt(now, timezone);
-            OffsetDateTime end = start.plusDays(1);
+    private boolean isUsable(WindowSnapshot current, String cycleKey) {
+        return current != null
+                && current.cycle().getCycleKey().equals(cycleKey)
+                && clock.millis() - current.loadedAtMillis() < snapshotTtlMillis;
+    }
 
-            created.setWindowStartAt(start);
-            created.setWindowEndAt(end);
-            created.setManualClosed(true);
+    private void invalidateSnapshot() {
+        snapshotGeneration.incrementAndGet();
+        snapshot = null;
+    }
 
-            log.info("Created default submission cycle: {}", cycleKey);
-            return repo.save(created);
-        });
+    private void invalidateSnapshotAfterCommit() {
+        // invalidate now so nothing new is cached mid-transaction, and again after commit so a reload that
+        // raced with the transaction (and saw the old rows) is discarded
+        invalidateSnapshot();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateSnapshot();
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Managed entity for the current cycle, for write paths. The cached copy is evicted once the write completes.
+     */
+    private SubmissionCycle getOrCreateCurrentCycle(String timezone) {
+        String cycleKey = currentCycleKey(timezone);
+        SubmissionCycle cycle = cycleRegistry.loadForUpdate(cycleKey, timezone);
+        evictCycleAfterCommit(cycleKey);
+        return cycle;
+    }
+
+    private SubmissionCycle currentCycle() {
+        return cycleRegistry.resolve(currentCycleKey(DEFAULT_TZ), DEFAULT_TZ);
     }
 
     private String currentCycleKey(String timezone) {
         return cycleCalculationService.calculateCurrentCycleKey(timezone);
     }
 
-    private OffsetDateTime defaultStartAt(OffsetDateTime nowUtc, String timezone) {
-        ZoneId zone = ZoneId.of(timezone);
-        ZonedDateTime local = nowUtc.atZoneSameInstant(ZoneOffset.UTC).withZoneSameInstant(zone);
-        ZonedDateTime startLocal = local.withHour(18).withMinute(0).withSecond(0).withNano(0);
-        return startLocal.toOffsetDateTime();
+    private void evictCycleAfterCommit(String cycleKey) {
+        cycleRegistry.evict(cycleKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cycleRegistry.evict(cycleKey);
+                }
+            });
+        }
     }
 
     private SubmissionWindowResponse toResponse(SubmissionCycle cycle, OffsetDateTime serverNow) {
@@ -253,9 +423,38 @@ public class SubmissionWindowService {
         return id;
     }
 
+    private Set<String> normalizeEmployeeIds(Collection<String> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) {
+            throw new IllegalArgumentException("employeeIds is required");
+        }
+        Set<String> ids = new LinkedHashSet<>();
+        for (String raw : employeeIds) {
+            String id = raw == null ? "" : raw.trim();
+            if (!id.isBlank()) ids.add(id);
+        }
+        if (ids.isEmpty()) throw new IllegalArgumentException("employeeIds is required");
+        if (ids.size() > MAX_BULK_EMPLOYEES) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_EMPLOYEES + " employees can be updated at once");
+        }
+        return ids;
+    }
+
     private void ensureEmployeeExists(String employeeId) {
         if (!employeeRepository.existsById(employeeId)) {
             throw new IllegalArgumentException("Employee not found: " + employeeId);
         }
     }
+
+    private record WindowSnapshot(SubmissionCycle cycle, Map<String, OverrideState> overrides, long loadedAtMillis) {
+        OverrideState overrideFor(String employeeId) {
+            if (employeeId == null || employeeId.isBlank()) return null;
+            return overrides.get(employeeId.trim());
+        }
+    }
+
+    private record OverrideState(boolean forceOpen, boolean forceClosed, OffsetDateTime updatedAt, String updatedBy) {
+        static OverrideState of(EmployeeSubmissionWindowOverride row) {
+            return new OverrideState(row.isForceOpen(), row.isForceClosed(), row.getUpdatedAt(), row.getUpdatedBy());
+        }
+    }
 }
@@ -3,41 +3,54 @@ package com.webknot.kpi.util;
 import com.webknot.kpi.models.CurrentBand;
 import com.webknot.kpi.models.CurrentStream;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Parses free-form band and stream labels ("b7-l", " Quality Assurance ", "UI/UX") into their enums.
+ * <p>
+ * Matching ignores case and every character that is not an ASCII letter or digit. The alias tables are built
+ * once at class init and probed straight from the input characters, so an ASCII lookup allocates nothing: no
+ * trimmed, case-folded or regex-stripped copy of the input is made.
+ */
 public final class BandStreamNormalizer {
 
+    private static final AliasTable<CurrentBand> BANDS;
+    private static final AliasTable<CurrentStream> STREAMS;
+
+    static {
+        Map<String, CurrentBand> bands = new LinkedHashMap<>();
+        for (CurrentBand band : CurrentBand.values()) {
+            bands.put(band.name(), band);
+        }
+        BANDS = new AliasTable<>(bands, true);
+
+        Map<String, CurrentStream> streams = new LinkedHashMap<>();
+        aliases(streams, CurrentStream.Development,
+                "development", "dev", "backend", "frontend", "mobile", "fullstack", "engineering");
+        aliases(streams, CurrentStream.QA,
+                "qa", "qualityassurance", "qualityengineering", "testing", "test");
+        aliases(streams, CurrentStream.Devops,
+                "devops", "devsecops", "sre", "ops", "operations");
+        aliases(streams, CurrentStream.DATA,
+                "data", "datascience", "analytics", "ai", "ml", "aiml");
+        aliases(streams, CurrentStream.UI_UX,
+                "uiux", "uxui", "ui", "ux", "design", "uidesign", "uxdesign");
+        STREAMS = new AliasTable<>(streams, false);
+    }
+
     private BandStreamNormalizer() {
     }
 
     public static Optional<CurrentBand> parseBand(String raw) {
-        String key = normalizeBandKey(raw);
-        if (key.isBlank()) return Optional.empty();
-        for (CurrentBand band : CurrentBand.values()) {
-            if (normalizeBandKey(band.name()).equals(key)) {
-                return Optional.of(band);
-            }
-        }
-        return Optional.empty();
+        return BANDS.lookup(raw);
     }
 
     public static Optional<CurrentStream> parseStream(String raw) {
-        String key = normalizeStreamKey(raw);
-        if (key.isBlank()) return Optional.empty();
-        return switch (key) {
-            case "development", "dev", "backend", "frontend", "mobile", "fullstack", "engineering" ->
-                    Optional.of(CurrentStream.Development);
-            case "qa", "qualityassurance", "qualityengineering", "testing", "test" ->
-                    Optional.of(CurrentStream.QA);
-            case "devops", "devsecops", "sre", "ops", "operations" ->
-                    Optional.of(CurrentStream.Devops);
-            case "data", "datascience", "analytics", "ai", "ml", "aiml" ->
-                    Optional.of(CurrentStream.DATA);
-            case "uiux", "uxui", "ui", "ux", "design", "uidesign", "uxdesign" ->
-                    Optional.of(CurrentStream.UI_UX);
-            default -> Optional.empty();
-        };
+        return STREAMS.lookup(raw);
     }
 
     public static String canonicalStreamLabel(CurrentStream stream) {
@@ -51,14 +64,119 @@ public final class BandStreamNormalizer {
                 .orElse(raw == null ? null : raw.trim());
     }
 
-    private static String normalizeBandKey(String raw) {
-        if (raw == null) return "";
-        return raw.trim().toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "");
+    private static <E> void aliases(Map<String, E> target, E value, String... keys) {
+        for (String key : keys) {
+            target.put(key, value);
+        }
     }
 
-    private static String normalizeStreamKey(String raw) {
-        if (raw == null) return "";
-        return raw.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    /**
+     * Lower-case key character for an ASCII {@code c}, or -1 when the character is ignored.
+     */
+    private static int keyChar(char c) {
+        if (c >= 'a' && c <= 'z') return c;
+        if (c >= 'A' && c <= 'Z') return c + ('a' - 'A');
+        if (c >= '0' && c <= '9') return c;
+        return -1;
     }
-}
 
+    /**
+     * Open-addressing table from normalized key to a shared {@link Optional} of the enum constant.
+     */
+    private static final class AliasTable<E> {
+        private final char[][] keys;
+        private final Optional<?>[] values;
+        private final int mask;
+        private final int maxKeyLength;
+        private final boolean upperFold;
+
+        private AliasTable(Map<String, E> aliases, boolean upperFold) {
+            this.upperFold = upperFold;
+            int capacity = Integer.highestOneBit(Math.max(4, aliases.size() * 4) - 1) << 1;
+            this.keys = new char[capacity][];
+            this.values = new Optional<?>[capacity];
+            this.mask = capacity - 1;
+            Map<E, Optional<E>> shared = new LinkedHashMap<>();
+            int longest = 0;
+            for (Map.Entry<String, E> entry : aliases.entrySet()) {
+                char[] key = normalize(entry.getKey());
+                longest = Math.max(longest, key.length);
+                int slot = hash(key) & mask;
+                while (keys[slot] != null) {
+                    if (Arrays.equals(keys[slot], key)) {
+                        throw new IllegalStateException("Duplicate alias: " + entry.getKey());
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = shared.computeIfAbsent(entry.getValue(), Optional::of);
+            }
+            this.maxKeyLength = longest;
+        }
+
+        @SuppressWarnings("unchecked")
+        Optional<E> lookup(String raw) {
+            if (raw == null) return Optional.empty();
+            int length = 0;
+            int h = 0;
+            for (int i = 0, n = raw.length(); i < n; i++) {
+                char c = raw.charAt(i);
+                if (c >= 0x80) return lookupFolded(raw);
+                int k = keyChar(c);
+                if (k < 0) continue;
+                if (++length > maxKeyLength) return Optional.empty();
+                h = 31 * h + k;
+            }
+            if (length == 0) return Optional.empty();
+            for (int slot = mix(h) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot].length == length && matches(keys[slot], raw)) {
+                    return (Optional<E>) values[slot];
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Non-ASCII input is rare; it is case-folded with the full Unicode rules first (so "ß" still becomes
+         * "SS" for bands, as before) and the ASCII result is looked up.
+         */
+        private Optional<E> lookupFolded(String raw) {
+            String folded = upperFold ? raw.toUpperCase(Locale.ROOT) : raw.toLowerCase(Locale.ROOT);
+            StringBuilder ascii = new StringBuilder(folded.length());
+            for (int i = 0; i < folded.length(); i++) {
+                char c = folded.charAt(i);
+                if (c < 0x80 && keyChar(c) >= 0) ascii.append(c);
+            }
+            return lookup(ascii.toString());
+        }
+
+        private boolean matches(char[] key, String raw) {
+            int pos = 0;
+            for (int i = 0, n = raw.length(); i < n; i++) {
+                int k = keyChar(raw.charAt(i));
+                if (k < 0) continue;
+                if (key[pos++] != k) return false;
+            }
+            return true;
+        }
+
+        private char[] normalize(String alias) {
+            StringBuilder out = new StringBuilder(alias.length());
+            for (int i = 0; i < alias.length(); i++) {
+                int k = keyChar(alias.charAt(i));
+                if (k >= 0) out.append((char) k);
+            }
+            return out.toString().toCharArray();
+        }
+
+        private static int hash(char[] key) {
+            int h = 0;
+            for (char c : key) h = 31 * h + c;
+            return mix(h);
+        }
+
+        private static int mix(int h) {
+            return h ^ (h >>> 16);
+        }
+    }
+}
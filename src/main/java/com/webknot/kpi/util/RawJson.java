@@ -0,0 +1,126 @@
+package com.webknot.kpi.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers for handing stored JSON columns straight to the response writer.
+ * <p>
+ * Read-only endpoints wrap the stored text in a {@link RawValue} so Jackson copies it verbatim instead of
+ * parsing it into a {@code Map} and serializing it back. Documents are only tokenized (never materialized)
+ * to check they are well-formed objects and to find their top-level keys.
+ */
+public final class RawJson {
+
+    private RawJson() {
+    }
+
+    /**
+     * Returns the top-level field names of a JSON object, or {@code null} when the text is not a well-formed
+     * JSON object. Nested values are skipped without being materialized.
+     */
+    public static Set<String> topLevelKeys(JsonFactory factory, String json) {
+        if (json == null || json.isBlank()) return null;
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            Set<String> keys = new LinkedHashSet<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                keys.add(parser.currentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) return null;
+            return keys;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds {@code extraFields} (already-serialized JSON values keyed by field name) to a JSON object with
+     * {@link Map#putIfAbsent} semantics on the parsed form: a field holding {@code null} has its value replaced
+     * in place, missing fields are appended, and any other value is left untouched. Returns {@code null} when
+     * the text is not a well-formed JSON object.
+     */
+    public static String putIfAbsent(JsonFactory factory, String objectJson, Map<String, String> extraFields) {
+        if (objectJson == null || objectJson.isBlank()) return null;
+        String trimmed = objectJson.trim();
+        Set<String> keys = new LinkedHashSet<>();
+        // char offsets of top-level null values, in document order
+        Map<String, Integer> nullOffsets = new LinkedHashMap<>();
+        try (JsonParser parser = factory.createParser(trimmed)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                keys.add(key);
+                if (parser.nextToken() == JsonToken.VALUE_NULL) {
+                    nullOffsets.put(key, (int) parser.currentTokenLocation().getCharOffset());
+                }
+                parser.skipChildren();
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) return null;
+        } catch (Exception e) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(trimmed.length() + 64);
+        int copied = 0;
+        for (Map.Entry<String, Integer> entry : nullOffsets.entrySet()) {
+            String value = extraFields.get(entry.getKey());
+            if (value == null) continue;
+            int offset = entry.getValue();
+            out.append(trimmed, copied, offset).append(value);
+            copied = offset + "null".length();
+        }
+        out.append(trimmed, copied, trimmed.length() - 1);
+        boolean empty = keys.isEmpty();
+        for (Map.Entry<String, String> entry : extraFields.entrySet()) {
+            if (keys.contains(entry.getKey())) continue;
+            if (!empty) out.append(',');
+            empty = false;
+            out.append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+        }
+        return out.append('}').toString();
+    }
+
+    public static RawValue raw(String json) {
+        return new RawValue(json);
+    }
+
+    /**
+     * Parses an opt-in {@code fields} projection such as {@code "id,month,status"}; {@code null} means
+     * "all fields".
+     */
+    public static Set<String> parseFields(String csv) {
+        if (csv == null || csv.isBlank()) return null;
+        Set<String> fields = new LinkedHashSet<>();
+        for (String raw : csv.split(",")) {
+            String field = raw.trim();
+            if (!field.isEmpty()) fields.add(field);
+        }
+        return fields.isEmpty() ? null : Collections.unmodifiableSet(fields);
+    }
+
+    public static boolean wants(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public static Map<String, Object> project(Map<String, Object> source, Set<String> fields) {
+        if (fields == null || source == null) return source;
+        Map<String, Object> out = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : source.entrySet()) {
+            if (fields.contains(entry.getKey())) out.put(entry.getKey(), entry.getValue());
+        }
+        return out;
+    }
+}
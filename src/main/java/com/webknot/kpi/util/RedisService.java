@@ -1,5 +1,6 @@
 package com.webknot.kpi.util;
 
+import com.webknot.kpi.logging.RequestProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class RedisService {
@@ -46,7 +48,7 @@ public class RedisService {
             return;
         }
         try {
-            redisTemplate.ifPresent(rt -> rt.opsForValue().set(key, value, timeout, unit));
+            redisTemplate.ifPresent(rt -> roundTrip(() -> rt.opsForValue().set(key, value, timeout, unit)));
             log.debug("Redis SET: key={}, ttl={} {}", key, timeout, unit);
         } catch (Exception e) {
             log.warn("Failed to set Redis key {}: {}", key, e.getMessage());
@@ -59,7 +61,7 @@ public class RedisService {
             return null;
         }
         try {
-            return redisTemplate.map(rt -> rt.opsForValue().get(key)).orElse(null);
+            return redisTemplate.map(rt -> roundTrip(() -> rt.opsForValue().get(key))).orElse(null);
         } catch (Exception e) {
             log.warn("Failed to get Redis key {}: {}", key, e.getMessage());
             return null;
@@ -81,7 +83,7 @@ public class RedisService {
             return;
         }
         try {
-            redisTemplate.ifPresent(rt -> rt.delete(key));
+            redisTemplate.ifPresent(rt -> roundTrip(() -> rt.delete(key)));
             log.debug("Redis DELETE: key={}", key);
         } catch (Exception e) {
             log.warn("Failed to delete Redis key {}: {}", key, e.getMessage());
@@ -95,7 +97,7 @@ public class RedisService {
         try {
             redisTemplate.ifPresent(rt -> {
                 for (String key : keys) {
-                    rt.delete(key);
+                    roundTrip(() -> rt.delete(key));
                 }
             });
             log.debug("Redis DELETE: deleted {} keys", keys.length);
@@ -110,7 +112,7 @@ public class RedisService {
             return 0;
         }
         try {
-            Long value = redisTemplate.map(rt -> rt.opsForValue().increment(key)).orElse(null);
+            Long value = redisTemplate.map(rt -> roundTrip(() -> rt.opsForValue().increment(key))).orElse(null);
             return value != null ? value : 0;
         } catch (Exception e) {
             log.warn("Failed to increment Redis key {}: {}", key, e.getMessage());
@@ -122,7 +124,7 @@ public class RedisService {
         long value = increment(key);
         if (value == 1 && redisAvailable) {
             try {
-                redisTemplate.ifPresent(rt -> rt.expire(key, timeout, unit));
+                redisTemplate.ifPresent(rt -> roundTrip(() -> rt.expire(key, timeout, unit)));
             } catch (Exception e) {
                 log.warn("Failed to set TTL for Redis key {}: {}", key, e.getMessage());
             }
@@ -136,7 +138,7 @@ public class RedisService {
             return;
         }
         try {
-            redisTemplate.ifPresent(rt -> rt.expire(key, timeout, unit));
+            redisTemplate.ifPresent(rt -> roundTrip(() -> rt.expire(key, timeout, unit)));
             log.debug("Redis EXPIRE: key={}, ttl={} {}", key, timeout, unit);
         } catch (Exception e) {
             log.warn("Failed to set expiration for Redis key {}: {}", key, e.getMessage());
@@ -148,7 +150,7 @@ public class RedisService {
             return false;
         }
         try {
-            Boolean exists = redisTemplate.map(rt -> rt.hasKey(key)).orElse(null);
+            Boolean exists = redisTemplate.map(rt -> roundTrip(() -> rt.hasKey(key))).orElse(null);
             return exists != null && exists;
         } catch (Exception e) {
             log.warn("Failed to check Redis key existence {}: {}", key, e.getMessage());
@@ -161,7 +163,7 @@ public class RedisService {
             return;
         }
         try {
-            redisTemplate.ifPresent(rt -> rt.opsForHash().put(key, field, value));
+            redisTemplate.ifPresent(rt -> roundTrip(() -> rt.opsForHash().put(key, field, value)));
             log.debug("Redis HSET: key={}, field={}", key, field);
         } catch (Exception e) {
             log.warn("Failed to set hash field in Redis key {}: {}", key, e.getMessage());
@@ -173,7 +175,7 @@ public class RedisService {
             return null;
         }
         try {
-            return redisTemplate.map(rt -> rt.opsForHash().get(key, field)).orElse(null);
+            return redisTemplate.map(rt -> roundTrip(() -> rt.opsForHash().get(key, field))).orElse(null);
         } catch (Exception e) {
             log.warn("Failed to get hash field from Redis key {}: {}", key, e.getMessage());
             return null;
@@ -185,7 +187,7 @@ public class RedisService {
             return;
         }
         try {
-            redisTemplate.ifPresent(rt -> rt.opsForHash().delete(key, field));
+            redisTemplate.ifPresent(rt -> roundTrip(() -> rt.opsForHash().delete(key, field)));
             log.debug("Redis HDEL: key={}, field={}", key, field);
         } catch (Exception e) {
             log.warn("Failed to delete hash field from Redis key {}: {}", key, e.getMessage());
@@ -195,4 +197,23 @@ public class RedisService {
     public boolean isAvailable() {
         return redisAvailable;
     }
+
+    /**
+     * Runs one Redis command and adds its latency to the current request's {@link RequestProfile}.
+     */
+    private static <T> T roundTrip(Supplier<T> command) {
+        long startedAtNanos = System.nanoTime();
+        try {
+            return command.get();
+        } finally {
+            RequestProfile.recordRedisCall(System.nanoTime() - startedAtNanos);
+        }
+    }
+
+    private static void roundTrip(Runnable command) {
+        roundTrip(() -> {
+            command.run();
+            return null;
+        });
+    }
 }
@@ -0,0 +1,172 @@
+package com.webknot.kpi.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Waiters run on real threads; the test waits on the {@code kpi.db.limiter.*} gauges to see them queue. The
+ * adjustment window runs on a manual ticker.
+ */
+class DatabaseBulkheadsTest {
+
+    private static final long LONG_WAIT_MS = 10_000;
+
+    private SimpleMeterRegistry registry;
+    private AtomicLong ticker;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ticker = new AtomicLong();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void higherPriorityWaiterIsAdmittedFirst() throws Exception {
+        DatabaseBulkheads bulkheads = bulkheads(1, fixed(1, LONG_WAIT_MS), false);
+        assertTrue(bulkheads.acquire(DbWorkload.BULK));
+
+        List<DbWorkload> admitted = new CopyOnWriteArrayList<>();
+        Future<?> background = acquireAsync(bulkheads, DbWorkload.BACKGROUND, admitted);
+        awaitGauge("kpi.db.limiter.waiting", DbWorkload.BACKGROUND, 1);
+        Future<?> read = acquireAsync(bulkheads, DbWorkload.INTERACTIVE_READ, admitted);
+        awaitGauge("kpi.db.limiter.waiting", DbWorkload.INTERACTIVE_READ, 1);
+
+        bulkheads.release(DbWorkload.BULK, 0, 0);
+        read.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(DbWorkload.INTERACTIVE_READ), admitted);
+        assertEquals(1.0, gauge("kpi.db.limiter.waiting", DbWorkload.BACKGROUND));
+
+        bulkheads.release(DbWorkload.INTERACTIVE_READ, 0, 0);
+        background.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(DbWorkload.INTERACTIVE_READ, DbWorkload.BACKGROUND), admitted);
+    }
+
+    @Test
+    void workloadAtItsLimitDoesNotHoldBackLowerWorkloads() throws Exception {
+        DatabaseBulkheads bulkheads = bulkheads(4, fixed(1, LONG_WAIT_MS), false);
+        assertTrue(bulkheads.acquire(DbWorkload.INTERACTIVE_WRITE));
+
+        Future<?> write = acquireAsync(bulkheads, DbWorkload.INTERACTIVE_WRITE, new CopyOnWriteArrayList<>());
+        awaitGauge("kpi.db.limiter.waiting", DbWorkload.INTERACTIVE_WRITE, 1);
+
+        assertTrue(bulkheads.acquire(DbWorkload.BULK));
+        assertTrue(bulkheads.acquire(DbWorkload.INTERACTIVE_READ));
+        assertFalse(write.isDone());
+
+        bulkheads.release(DbWorkload.INTERACTIVE_WRITE, 0, 0);
+        write.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void adaptiveLimitsShrinkWhenInteractiveWaitExceedsTheTargetAndGrowBack() throws Exception {
+        Map<DbWorkload, DatabaseBulkheads.Limits> limits = fixed(16, LONG_WAIT_MS);
+        limits.put(DbWorkload.BACKGROUND, new DatabaseBulkheads.Limits(1, 8, true, LONG_WAIT_MS));
+        limits.put(DbWorkload.BULK, new DatabaseBulkheads.Limits(1, 4, true, LONG_WAIT_MS));
+        DatabaseBulkheads bulkheads = bulkheads(16, limits, true);
+
+        releaseAfterWindow(bulkheads, DbWorkload.INTERACTIVE_READ, TimeUnit.MILLISECONDS.toNanos(50));
+        assertLimits(bulkheads, 4, 2);
+        assertEquals(1.0, registry.get("kpi.db.limiter.decreases").counter().count());
+
+        releaseAfterWindow(bulkheads, DbWorkload.INTERACTIVE_READ, TimeUnit.MILLISECONDS.toNanos(50));
+        releaseAfterWindow(bulkheads, DbWorkload.INTERACTIVE_READ, TimeUnit.MILLISECONDS.toNanos(50));
+        assertLimits(bulkheads, 1, 1);
+
+        releaseAfterWindow(bulkheads, DbWorkload.INTERACTIVE_READ, TimeUnit.MILLISECONDS.toNanos(1));
+        assertLimits(bulkheads, 2, 2);
+        // a window without interactive traffic also lets the throttled workloads recover
+        releaseAfterWindow(bulkheads, DbWorkload.BULK, TimeUnit.MILLISECONDS.toNanos(500));
+        assertLimits(bulkheads, 3, 3);
+        assertEquals(16.0, gauge("kpi.db.limiter.limit", DbWorkload.INTERACTIVE_READ));
+        assertEquals(3.0, registry.get("kpi.db.limiter.decreases").counter().count());
+    }
+
+    @Test
+    void timedOutCallerIsRejectedAndLeavesTheQueue() throws Exception {
+        Map<DbWorkload, DatabaseBulkheads.Limits> limits = fixed(1, LONG_WAIT_MS);
+        limits.put(DbWorkload.INTERACTIVE_READ, new DatabaseBulkheads.Limits(1, 1, false, 50));
+        DatabaseBulkheads bulkheads = bulkheads(1, limits, false);
+        assertTrue(bulkheads.acquire(DbWorkload.INTERACTIVE_WRITE));
+
+        Future<?> bulk = acquireAsync(bulkheads, DbWorkload.BULK, new CopyOnWriteArrayList<>());
+        awaitGauge("kpi.db.limiter.waiting", DbWorkload.BULK, 1);
+        assertFalse(bulkheads.acquire(DbWorkload.INTERACTIVE_READ));
+
+        assertEquals(1.0, registry.get("kpi.db.limiter.rejections").tag("bulkhead", "interactive-read").counter().count());
+        assertEquals(0.0, gauge("kpi.db.limiter.waiting", DbWorkload.INTERACTIVE_READ));
+        // the abandoned read no longer outranks the queued bulk caller
+        bulkheads.release(DbWorkload.INTERACTIVE_WRITE, 0, 0);
+        bulk.get(5, TimeUnit.SECONDS);
+        assertEquals(0.0, gauge("kpi.db.limiter.available", null));
+    }
+
+    private DatabaseBulkheads bulkheads(int capacity, Map<DbWorkload, DatabaseBulkheads.Limits> limits, boolean adaptive) {
+        return new DatabaseBulkheads(capacity, limits, adaptive, 10, 2.0, 100, registry, ticker::get);
+    }
+
+    private void releaseAfterWindow(DatabaseBulkheads bulkheads, DbWorkload workload, long waitNanos)
+            throws InterruptedException {
+        assertTrue(bulkheads.acquire(workload));
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        bulkheads.release(workload, waitNanos, TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private void assertLimits(DatabaseBulkheads bulkheads, int background, int bulk) {
+        assertEquals(background, gauge("kpi.db.limiter.limit", DbWorkload.BACKGROUND));
+        assertEquals(bulk, gauge("kpi.db.limiter.limit", DbWorkload.BULK));
+    }
+
+    private Future<?> acquireAsync(DatabaseBulkheads bulkheads, DbWorkload workload, List<DbWorkload> admitted) {
+        return executor.submit(() -> {
+            if (!bulkheads.acquire(workload)) throw new IllegalStateException("Timed out: " + workload);
+            admitted.add(workload);
+            return null;
+        });
+    }
+
+    private void awaitGauge(String name, DbWorkload workload, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge(name, workload) != expected) {
+            if (System.nanoTime() > deadline) fail(name + " for " + workload + " never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+
+    private double gauge(String name, DbWorkload workload) {
+        return workload == null
+                ? registry.get(name).gauge().value()
+                : registry.get(name).tag("bulkhead", workload.key()).gauge().value();
+    }
+
+    private static Map<DbWorkload, DatabaseBulkheads.Limits> fixed(int max, long acquireTimeoutMillis) {
+        Map<DbWorkload, DatabaseBulkheads.Limits> limits = new EnumMap<>(DbWorkload.class);
+        for (DbWorkload workload : DbWorkload.values()) {
+            limits.put(workload, new DatabaseBulkheads.Limits(1, max, false, acquireTimeoutMillis));
+        }
+        return limits;
+    }
+}
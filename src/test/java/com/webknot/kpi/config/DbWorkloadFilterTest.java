@@ -0,0 +1,56 @@
+package com.webknot.kpi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DbWorkloadFilterTest {
+
+    private final DbWorkloadFilter filter = new DbWorkloadFilter(List.of(" /admin/imports/** ", "", "/analytics/**"));
+
+    @Test
+    void classifiesBulkPathsThenReadsThenWrites() {
+        assertEquals(DbWorkload.BULK, filter.classify(request("POST", "/admin/imports/employees")));
+        assertEquals(DbWorkload.BULK, filter.classify(request("GET", "/analytics/kpi/summary")));
+        assertEquals(DbWorkload.INTERACTIVE_READ, filter.classify(request("GET", "/employees")));
+        assertEquals(DbWorkload.INTERACTIVE_READ, filter.classify(request("HEAD", "/employees")));
+        assertEquals(DbWorkload.INTERACTIVE_READ, filter.classify(request("OPTIONS", "/employees")));
+        assertEquals(DbWorkload.INTERACTIVE_WRITE, filter.classify(request("POST", "/employees")));
+        assertEquals(DbWorkload.INTERACTIVE_WRITE, filter.classify(request("DELETE", "/employees/E1")));
+    }
+
+    @Test
+    void matchesPathsWithoutTheContextPath() {
+        MockHttpServletRequest request = request("GET", "/kpi/analytics/kpi/summary");
+        request.setContextPath("/kpi");
+
+        assertEquals(DbWorkload.BULK, filter.classify(request));
+    }
+
+    @Test
+    void bindsTheWorkloadForTheRequestAndRestoresTheCallersBinding() throws Exception {
+        DbWorkload[] seen = new DbWorkload[1];
+
+        DbWorkload.callAs(DbWorkload.INTERACTIVE_WRITE, () -> {
+            try {
+                filter.doFilter(request("GET", "/analytics/kpi"), new MockHttpServletResponse(),
+                        (req, res) -> seen[0] = DbWorkload.current());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            assertEquals(DbWorkload.INTERACTIVE_WRITE, DbWorkload.current());
+            return null;
+        });
+
+        assertEquals(DbWorkload.BULK, seen[0]);
+        assertEquals(DbWorkload.BACKGROUND, DbWorkload.current());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,174 @@
+package com.webknot.kpi.config;
+
+import com.webknot.kpi.security.EmployeePrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Two in-memory databases stand in for the primary and a replica; each reports its own name so the test can
+ * see where a transaction was served.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaAdmin;
+    private ReplicaRoutingDataSource router;
+    private ReadReplicaDataSource replicas;
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primary = database("CREATE TABLE node(name VARCHAR(16)); INSERT INTO node VALUES ('primary')");
+        JdbcDataSource replica = database("CREATE TABLE node(name VARCHAR(16)); INSERT INTO node VALUES ('replica');"
+                + "CREATE TABLE replica_lag(ms BIGINT); INSERT INTO replica_lag VALUES (0)");
+        replicaAdmin = new JdbcTemplate(replica);
+        replicas = new ReadReplicaDataSource(Map.of("replica-1", replica), primary, 1000, 60_000, 5000,
+                "SELECT ms FROM replica_lag", new SimpleMeterRegistry());
+        router = new ReplicaRoutingDataSource(primary, replicas);
+        jdbc = new JdbcTemplate(router);
+        transactionManager = new DataSourceTransactionManager(router);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        SecurityContextHolder.clearContext();
+        router.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", servedBy(true));
+        assertEquals("primary", servedBy(false));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaAdmin.update("UPDATE replica_lag SET ms = 5000");
+        replicas.refreshLag();
+        assertEquals("primary", servedBy(true));
+
+        replicaAdmin.update("UPDATE replica_lag SET ms = 10");
+        replicas.refreshLag();
+        assertEquals("replica", servedBy(true));
+    }
+
+    @Test
+    void employeeReadsTheirOwnWritesFromPrimary() {
+        signIn("E1");
+        write();
+        assertEquals("primary", servedBy(true));
+
+        signIn("E2");
+        assertEquals("replica", servedBy(true));
+    }
+
+    @Test
+    void primaryReadsKeepReadOnlyTransactionsOnThePrimary() {
+        assertEquals("primary", servedBy(transactionManager, true,
+                () -> PrimaryReads.call(() -> jdbc.queryForObject("SELECT name FROM node", String.class))));
+        assertEquals("replica", servedBy(true));
+    }
+
+    @Test
+    void jpaTransactionsAreRoutedLikeJdbcOnes() {
+        LocalContainerEntityManagerFactoryBean emfBean = new LocalContainerEntityManagerFactoryBean();
+        emfBean.setDataSource(router);
+        emfBean.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackageName());
+        emfBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        emfBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "none"));
+        emfBean.afterPropertiesSet();
+        try {
+            JpaTransactionManager jpa = new JpaTransactionManager(emfBean.getObject());
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(emfBean.getObject());
+            Supplier<String> node = () -> (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+
+            assertEquals("replica", servedBy(jpa, true, node));
+            assertEquals("primary", servedBy(jpa, false, node));
+            // the transaction has begun before the scope, as with a @Transactional loader
+            assertEquals("primary", servedBy(jpa, true, () -> PrimaryReads.call(node)));
+
+            signIn("E1");
+            new TransactionTemplate(jpa).executeWithoutResult(
+                    status -> entityManager.createNativeQuery("UPDATE node SET name = 'primary'").executeUpdate());
+            assertEquals("primary", servedBy(jpa, true, node));
+        } finally {
+            emfBean.destroy();
+        }
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedLikeTheDefaultConnection() throws Exception {
+        assertEquals("replica", node(replicas.getConnection("", "")));
+
+        replicaAdmin.update("UPDATE replica_lag SET ms = 5000");
+        replicas.refreshLag();
+        assertEquals("primary", node(replicas.getConnection("", "")));
+
+        replicaAdmin.update("UPDATE replica_lag SET ms = 0");
+        replicas.refreshLag();
+        // the credentials reach the pools: both reject them
+        assertThrows(SQLException.class, () -> replicas.getConnection("", "wrong"));
+    }
+
+    private String servedBy(boolean readOnly) {
+        return servedBy(transactionManager, readOnly, () -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static String servedBy(PlatformTransactionManager transactionManager, boolean readOnly, Supplier<String> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> query.get());
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbc.update("UPDATE node SET name = 'primary'"));
+    }
+
+    private static String node(Connection connection) throws SQLException {
+        try (connection; Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static void signIn(String employeeId) {
+        EmployeePrincipal principal = new EmployeePrincipal(employeeId, employeeId + "@webknot.in", "Employee", 0);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static JdbcDataSource database(String script) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute(script);
+        return dataSource;
+    }
+}
@@ -5,14 +5,22 @@ import com.webknot.kpi.exceptions.CrudValidationException;
 import com.webknot.kpi.models.CurrentBand;
 import com.webknot.kpi.models.Employee;
 import com.webknot.kpi.models.EmployeeRole;
-import com.webknot.kpi.repository.DesignationLookupRepository;
 import com.webknot.kpi.repository.EmployeeRepository;
 import com.webknot.kpi.security.JwtService;
+import com.webknot.kpi.security.RequestActorContext;
 import com.webknot.kpi.security.TokenBlacklistService;
+import com.webknot.kpi.security.TokenVersionService;
+import com.webknot.kpi.service.BulkPromotionService;
+import com.webknot.kpi.service.DesignationTable;
 import com.webknot.kpi.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,8 +34,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(EmployeeController.class)
+@Import(EmployeeControllerPromotionTests.MetricsConfig.class)
 class EmployeeControllerPromotionTests {
 
+    /**
+     * The slice skips the metrics auto-configuration; the request filters still need a registry.
+     */
+    @TestConfiguration
+    static class MetricsConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -35,7 +56,10 @@ class EmployeeControllerPromotionTests {
     private EmployeeService employeeService;
 
     @MockitoBean
-    private DesignationLookupRepository designationLookupRepository;
+    private BulkPromotionService bulkPromotionService;
+
+    @MockitoBean
+    private DesignationTable designationTable;
 
     @MockitoBean
     private JwtService jwtService;
@@ -46,6 +70,12 @@ class EmployeeControllerPromotionTests {
     @MockitoBean
     private EmployeeRepository employeeRepository;
 
+    @MockitoBean
+    private TokenVersionService tokenVersionService;
+
+    @MockitoBean
+    private RequestActorContext requestActorContext;
+
     @Test
     void promoteEmployee_returnsUpdatedEmployee() throws Exception {
         Employee promoted = new Employee();
@@ -0,0 +1,39 @@
+package com.webknot.kpi.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestBodyProfilingAdviceTest {
+
+    private final RequestBodyProfilingAdvice advice = new RequestBodyProfilingAdvice();
+
+    @AfterEach
+    void tearDown() {
+        RequestProfile.end();
+    }
+
+    @Test
+    void eachBodyReadCountsAsOneJsonParse() {
+        RequestProfile profile = RequestProfile.begin();
+        Object body = new Object();
+
+        advice.beforeBodyRead(null, null, Object.class, null);
+        assertSame(body, advice.afterBodyRead(body, null, null, Object.class, null));
+        advice.beforeBodyRead(null, null, Object.class, null);
+        advice.afterBodyRead(body, null, null, Object.class, null);
+
+        assertEquals(2, profile.jsonParses());
+    }
+
+    @Test
+    void afterBodyReadWithoutAStartIsIgnored() {
+        RequestProfile profile = RequestProfile.begin();
+
+        advice.afterBodyRead(new Object(), null, null, Object.class, null);
+
+        assertEquals(0, profile.jsonParses());
+    }
+}
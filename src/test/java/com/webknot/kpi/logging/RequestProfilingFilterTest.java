@@ -0,0 +1,81 @@
+package com.webknot.kpi.logging;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestProfilingFilterTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void recordsStatementsPerUriTemplateWhenTheRequestReturns() throws Exception {
+        RequestProfilingFilter filter = new RequestProfilingFilter(true, 1000, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees/E1");
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/employees/{id}");
+            RequestProfile.recordStatement(1_000);
+            RequestProfile.recordStatement(1_000);
+        };
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        // the profile is unbound once the request leaves the filter
+        RequestProfile.recordStatement(1_000);
+
+        DistributionSummary summary = summary("GET", "/employees/{id}");
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+
+    @Test
+    void asyncRequestsAreRecordedWhenTheyComplete() throws Exception {
+        RequestProfilingFilter filter = new RequestProfilingFilter(true, 0, registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/notifications/stream");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/notifications/stream");
+            RequestProfile.recordStatement(1_000);
+            req.startAsync();
+            res.setContentType("text/event-stream");
+        };
+
+        filter.doFilter(request, response, chain);
+        assertNull(registry.find("kpi.request.statements").summary());
+
+        request.getAsyncContext().complete();
+
+        DistributionSummary summary = summary("GET", "/notifications/stream");
+        assertEquals(1, summary.count());
+        assertEquals(1.0, summary.totalAmount());
+    }
+
+    @Test
+    void disabledFilterPassesThroughWithoutRecording() throws Exception {
+        RequestProfilingFilter filter = new RequestProfilingFilter(false, 1000, registry);
+        int[] calls = new int[1];
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/employees"), new MockHttpServletResponse(),
+                (req, res) -> calls[0]++);
+
+        assertEquals(1, calls[0]);
+        assertNull(registry.find("kpi.request.statements").summary());
+    }
+
+    private DistributionSummary summary(String method, String uri) {
+        return registry.get("kpi.request.statements").tag("method", method).tag("uri", uri).summary();
+    }
+}
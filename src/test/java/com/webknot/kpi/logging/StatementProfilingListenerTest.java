@@ -0,0 +1,39 @@
+package com.webknot.kpi.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementProfilingListenerTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestProfile.end();
+    }
+
+    @Test
+    void countsStatementsAndBatchesAgainstTheBoundProfile() {
+        StatementProfilingListener listener = new StatementProfilingListener();
+        RequestProfile profile = RequestProfile.begin();
+
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+
+        assertEquals(3, profile.statements());
+    }
+
+    @Test
+    void statementsOutsideARequestAreIgnored() {
+        StatementProfilingListener listener = new StatementProfilingListener();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        RequestProfile profile = RequestProfile.begin();
+        assertEquals(0, profile.statements());
+    }
+}
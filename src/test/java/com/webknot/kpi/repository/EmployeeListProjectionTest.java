@@ -0,0 +1,117 @@
+package com.webknot.kpi.repository;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.security.TokenVersionService;
+import com.webknot.kpi.service.DesignationTable;
+import com.webknot.kpi.service.EmployeeDirectoryStatsService;
+import com.webknot.kpi.service.EmployeeService;
+import com.webknot.kpi.service.OrgHierarchyIndex;
+import com.webknot.kpi.support.EmbeddedPostgresJpa;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the list projection against PostgreSQL with the seeded designation table. Employees are stored with a
+ * canonical stream, an alias of one ({@code backend}) and a stream only configured under its own label.
+ */
+class EmployeeListProjectionTest {
+
+    private static EmbeddedPostgresJpa db;
+    private static EmployeeRepository employeeRepository;
+    private static EmployeeService employeeService;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedPostgresJpa.start("designation_lookup_details_seed.sql");
+        db.jdbc().update("INSERT INTO dev.designation_lookup (stream, band, designation) "
+                + "VALUES ('Research', 'B7H', 'Research Engineer')");
+        insert("M1", "Manager", "Development", "B5", null);
+        insert("E1", "Employee", "backend", "B7L", "M1");
+        insert("E2", "Employee", "Research", "B7H", "M1");
+        insert("E3", "Employee", "QA", "B6L", "M1");
+        insert("A1", "Admin", "Devops", "B4", null);
+        db.jdbc().update("UPDATE dev.employees SET updated_by = 'A1' WHERE employee_id = 'E1'");
+
+        employeeRepository = db.repository(EmployeeRepository.class);
+        DesignationTable designationTable = new DesignationTable(db.repository(DesignationLookupRepository.class), 300);
+        OrgHierarchyIndex orgHierarchyIndex = mock(OrgHierarchyIndex.class);
+        when(orgHierarchyIndex.directReporteeIds("M1")).thenReturn(List.of("E1", "E2", "E3"));
+        EmployeeDirectoryStatsService directoryStatsService = mock(EmployeeDirectoryStatsService.class);
+        when(directoryStatsService.current()).thenReturn(new EmployeeDirectoryCounts(5L, 1L, 1L, 3L, 5L));
+        employeeService = new EmployeeService(employeeRepository, designationTable, mock(Validator.class),
+                mock(PasswordEncoder.class), mock(TokenVersionService.class), mock(RequestActorContext.class),
+                orgHierarchyIndex, directoryStatsService);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void projectionCarriesManagerAndUpdaterWithoutADesignation() {
+        List<EmployeeListRow> rows = employeeRepository.findAllListRows();
+
+        assertEquals(List.of("A1", "E1", "E2", "E3", "M1"), rows.stream().map(EmployeeListRow::employeeId).toList());
+        EmployeeListRow e1 = rows.get(1);
+        assertEquals(EmployeeRole.Employee, e1.empRole());
+        assertEquals(CurrentBand.B7L, e1.band());
+        assertEquals("backend", e1.stream());
+        assertEquals("M1", e1.managerId());
+        assertEquals("M1", e1.managerName());
+        assertEquals("A1", e1.updatedById());
+        assertNull(e1.designation());
+        assertNull(rows.get(0).managerId());
+    }
+
+    @Test
+    void keysetPagesAndManagerFilterShareTheProjection() {
+        assertEquals(List.of("A1", "E1"), ids(employeeRepository.findListRows(PageRequest.of(0, 2))));
+        assertEquals(List.of("E2", "E3"), ids(employeeRepository.findListRowsAfter("E1", PageRequest.of(0, 2))));
+        assertEquals(List.of("M1"), ids(employeeRepository.findListRowsAfter("E3", PageRequest.of(0, 2))));
+        assertEquals(List.of("E1", "E2", "E3"), ids(employeeRepository.findListRowsByManagerId("M1")));
+        assertEquals(List.of(), employeeRepository.findListRowsByManagerId("E1"));
+    }
+
+    @Test
+    void serviceResolvesDesignationsByCanonicalStreamThenStoredStream() {
+        Map<String, String> designations = employeeService.getAllEmployees().stream()
+                .collect(Collectors.toMap(EmployeeListRow::employeeId, EmployeeListRow::designation));
+
+        assertEquals("Software Engineer", designations.get("E1"));
+        assertEquals("Research Engineer", designations.get("E2"));
+        assertEquals("Team Lead / AI Team Lead / DevOps Team Lead", designations.get("E3"));
+        assertEquals("Principal Engineer / Delivery Manager", designations.get("M1"));
+        assertEquals("Senior Technical Architect / Senior Delivery Manager", designations.get("A1"));
+
+        EmployeeService.EmployeeCursorPage page = employeeService.getEmployeesCursorPage(1, "A1");
+        assertEquals("Software Engineer", page.items().get(0).designation());
+        assertEquals("E1", page.nextCursor());
+        assertEquals("Software Engineer", employeeService.getReporteesByManagerId("M1").get(0).designation());
+    }
+
+    private static List<String> ids(List<EmployeeListRow> rows) {
+        return rows.stream().map(EmployeeListRow::employeeId).toList();
+    }
+
+    private static void insert(String employeeId, String role, String stream, String band, String managerId) {
+        db.jdbc().update("INSERT INTO dev.employees (employee_id, employee_name, email, password, emp_role, stream, "
+                        + "band, manager_id) VALUES (?, ?, ?, 'x', ?::dev.employee_role, ?, ?::dev.current_band, ?)",
+                employeeId, employeeId, employeeId.toLowerCase() + "@webknot.in", role, stream, band, managerId);
+    }
+}
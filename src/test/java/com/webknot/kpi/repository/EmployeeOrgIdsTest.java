@@ -0,0 +1,62 @@
+package com.webknot.kpi.repository;
+
+import com.webknot.kpi.support.EmbeddedPostgresJpa;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The id queries cycle-history access is decided with. M1 manages E1, who manages E2; C1 and C2 manage each
+ * other.
+ */
+class EmployeeOrgIdsTest {
+
+    private static EmbeddedPostgresJpa db;
+    private static EmployeeRepository employeeRepository;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedPostgresJpa.start();
+        insert("M1", "Manager", null);
+        insert("E1", "Manager", "M1");
+        insert("E2", "Employee", "E1");
+        insert("X1", "Employee", null);
+        insert("C1", "Manager", null);
+        insert("C2", "Manager", "C1");
+        db.jdbc().update("UPDATE dev.employees SET manager_id = 'C2' WHERE employee_id = 'C1'");
+        employeeRepository = db.repository(EmployeeRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void orgIdsIncludeSkipLevelReportees() {
+        assertEquals(List.of("E1", "E2"), employeeRepository.findOrgEmployeeIds("M1"));
+        assertEquals(List.of("E2"), employeeRepository.findOrgEmployeeIds("E1"));
+        assertEquals(List.of(), employeeRepository.findOrgEmployeeIds("E2"));
+    }
+
+    @Test
+    void managerCycleEndsTheWalkAndLeavesOutTheManager() {
+        assertEquals(List.of("C2"), employeeRepository.findOrgEmployeeIds("C1"));
+    }
+
+    @Test
+    void allEmployeeIdsAreOrderedById() {
+        assertEquals(List.of("C1", "C2", "E1", "E2", "M1", "X1"), employeeRepository.findAllEmployeeIds());
+    }
+
+    private static void insert(String employeeId, String role, String managerId) {
+        db.jdbc().update("INSERT INTO dev.employees (employee_id, employee_name, email, password, emp_role, stream, "
+                        + "band, manager_id) VALUES (?, ?, ?, 'x', ?::dev.employee_role, 'Development', "
+                        + "'B6L'::dev.current_band, ?)",
+                employeeId, employeeId, employeeId.toLowerCase() + "@webknot.in", role, managerId);
+    }
+}
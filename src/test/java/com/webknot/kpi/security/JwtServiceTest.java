@@ -0,0 +1,53 @@
+package com.webknot.kpi.security;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeRole;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtServiceTest {
+
+    private static final String OLD_SECRET = "b2xkLXNpZ25pbmcta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+    private static final String NEW_SECRET = "bmV3LXNpZ25pbmcta2V5LXRoYXQtaXMtbG9uZy1lbm91Z2gtZm9yLWhzMjU2";
+
+    @Test
+    void verify_returnsClaimsFromSingleParse() {
+        JwtService service = new JwtService(NEW_SECRET, 60_000, "k2", "");
+
+        JwtService.VerifiedToken verified = service.verify(service.generateToken(employee()));
+
+        assertEquals("alex@example.com", verified.subject());
+        assertEquals("Manager", verified.role());
+    }
+
+    @Test
+    void verify_acceptsTokensSignedWithPreviousKeyAfterRotation() {
+        JwtService before = new JwtService(OLD_SECRET, 60_000, "k1", "");
+        String issuedBeforeRotation = before.generateToken(employee());
+
+        JwtService after = new JwtService(NEW_SECRET, 60_000, "k2", "k1:" + OLD_SECRET);
+
+        assertEquals("alex@example.com", after.verify(issuedBeforeRotation).subject());
+    }
+
+    @Test
+    void verify_rejectsTokensSignedWithRetiredKey() {
+        JwtService before = new JwtService(OLD_SECRET, 60_000, "k1", "");
+        String issuedBeforeRotation = before.generateToken(employee());
+
+        JwtService after = new JwtService(NEW_SECRET, 60_000, "k2", "");
+
+        assertThrows(JwtException.class, () -> after.verify(issuedBeforeRotation));
+    }
+
+    private static Employee employee() {
+        Employee employee = new Employee();
+        employee.setEmployeeId("E100");
+        employee.setEmail("alex@example.com");
+        employee.setEmpRole(EmployeeRole.Manager);
+        return employee;
+    }
+}
@@ -0,0 +1,114 @@
+package com.webknot.kpi.security;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestActorContextTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private RequestActorContext context;
+
+    @BeforeEach
+    void setUp() {
+        context = new RequestActorContext(employeeRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void resolvesTheActorOncePerRequest() {
+        Employee e1 = employee("E1");
+        when(employeeRepository.findById("E1")).thenReturn(Optional.of(e1));
+        startRequest();
+
+        assertSame(e1, context.requireActor(token("E1")));
+        assertSame(e1, context.requireActor(token("E1")));
+        assertSame(e1, context.currentActor(token("E1")).orElseThrow());
+        verify(employeeRepository, times(1)).findById("E1");
+    }
+
+    @Test
+    void doesNotLeakTheActorIntoTheNextRequest() {
+        Employee first = employee("E1");
+        Employee second = employee("E1");
+        when(employeeRepository.findById("E1")).thenReturn(Optional.of(first), Optional.of(second));
+        when(employeeRepository.findById("E2")).thenReturn(Optional.empty());
+
+        startRequest();
+        assertSame(first, context.requireActor(token("E1")));
+
+        startRequest();
+        assertSame(second, context.requireActor(token("E1")));
+        assertThrows(AccessDeniedException.class, () -> context.requireActor(token("E2")));
+        verify(employeeRepository, times(2)).findById("E1");
+
+        RequestContextHolder.resetRequestAttributes();
+        context.requireActor(token("E1"));
+        context.requireActor(token("E1"));
+        verify(employeeRepository, times(4)).findById("E1");
+    }
+
+    @Test
+    void seededActorIsServedWithoutALookup() {
+        Employee seeded = employee("E1");
+        startRequest();
+
+        context.seed(seeded);
+
+        assertSame(seeded, context.requireActor(token("E1")));
+        verify(employeeRepository, never()).findById("E1");
+    }
+
+    @Test
+    void anonymousCallersHaveNoActor() {
+        startRequest();
+        assertTrue(context.currentActor(null).isEmpty());
+        assertEquals(Optional.empty(), context.currentActor(new UsernamePasswordAuthenticationToken("anonymousUser", null, List.of())));
+    }
+
+    private static void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private static Authentication token(String employeeId) {
+        EmployeePrincipal principal = new EmployeePrincipal(employeeId, employeeId.toLowerCase() + "@webknot.in", "Employee", 0);
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+    }
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        employee.setEmail(employeeId.toLowerCase() + "@webknot.in");
+        return employee;
+    }
+}
@@ -0,0 +1,128 @@
+package com.webknot.kpi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AiEnhancementServiceTest {
+
+    @Mock
+    private AiAgentService aiAgentService;
+
+    private ManualProvider provider;
+    private AiEnhancementService service;
+
+    @BeforeEach
+    void setUp() {
+        when(aiAgentService.activeAgent()).thenReturn(Optional.of(new AiAgentService.ActiveAgent(1L, "Manual", "key")));
+        provider = new ManualProvider();
+        service = new AiEnhancementService(aiAgentService, List.of(provider),
+                new ConcurrentMapCacheManager(AiEnhancementService.CACHE_NAME), 2, 1, 5, 2);
+    }
+
+    @Test
+    void sharesInFlightCallsAndCachesResults() {
+        CompletableFuture<AiEnhancementService.EnhanceResult> first = service.enhance("a@x", " did the thing ", "self");
+        CompletableFuture<AiEnhancementService.EnhanceResult> second = service.enhance("b@x", "did the thing", null);
+        assertEquals(1, provider.calls.size());
+
+        provider.calls.get(0).complete("Did the thing.");
+        assertEquals("Did the thing.", first.join().text());
+        assertEquals("Did the thing.", second.join().text());
+        assertEquals("Manual", first.join().provider());
+
+        assertEquals("Did the thing.", service.enhance("c@x", "did the thing", "self_review").join().text());
+        assertEquals(1, provider.calls.size());
+
+        service.enhance("c@x", "did the thing", "manager");
+        assertEquals(2, provider.calls.size());
+    }
+
+    @Test
+    void runsOneCallPerUserAndBoundsTheirQueue() {
+        CompletableFuture<AiEnhancementService.EnhanceResult> a1 = service.enhance("a@x", "one", null);
+        CompletableFuture<AiEnhancementService.EnhanceResult> a2 = service.enhance("a@x", "two", null);
+        assertThrows(RejectedExecutionException.class, () -> service.enhance("a@x", "three", null));
+        assertEquals(1, provider.calls.size());
+
+        service.enhance("b@x", "four", null);
+        assertEquals(2, provider.calls.size());
+
+        provider.calls.get(0).complete("One.");
+        assertTrue(a1.isDone());
+        assertEquals(3, provider.calls.size());
+        assertFalse(a2.isDone());
+    }
+
+    @Test
+    void reportsProviderFailures() {
+        CompletableFuture<AiEnhancementService.EnhanceResult> result = service.enhance("a@x", "one", null);
+        provider.calls.get(0).completeExceptionally(new IllegalArgumentException("AI request failed with status 500"));
+
+        assertTrue(result.isCompletedExceptionally());
+        service.enhance("a@x", "one", null);
+        assertEquals(2, provider.calls.size());
+    }
+
+    @Test
+    void enhancesBatchItemsOnceEachWithBoundedParallelism() {
+        List<AiEnhancementService.BatchItemResult> reported = new ArrayList<>();
+        CompletableFuture<AiEnhancementService.BatchSummary> done = service.enhanceBatch("m@x", List.of(
+                new AiEnhancementService.BatchItem("a", "one", "manager"),
+                new AiEnhancementService.BatchItem("b", " one ", "manager_review"),
+                new AiEnhancementService.BatchItem("c", "two", "manager"),
+                new AiEnhancementService.BatchItem("d", "three", "manager"),
+                new AiEnhancementService.BatchItem("e", " ", "manager")
+        ), reported::add);
+
+        assertEquals(1, reported.size());
+        assertEquals("e", reported.get(0).id());
+        assertEquals(2, provider.calls.size());
+
+        provider.calls.get(0).complete("One.");
+        assertEquals(List.of("e", "a", "b"), reported.stream().map(AiEnhancementService.BatchItemResult::id).toList());
+        assertEquals(3, provider.calls.size());
+
+        provider.calls.get(1).complete("Two.");
+        provider.calls.get(2).complete("Three.");
+        assertEquals(new AiEnhancementService.BatchSummary(5, 3, 0, 1), done.join());
+        assertThrows(IllegalArgumentException.class, () -> service.enhanceBatch("m@x", List.of(), reported::add));
+    }
+
+    private static final class ManualProvider implements AiEnhancementProvider {
+        private final List<CompletableFuture<String>> calls = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "manual";
+        }
+
+        @Override
+        public String model() {
+            return "manual-1";
+        }
+
+        @Override
+        public CompletableFuture<String> enhance(String apiKey, String systemPrompt, String text) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.exceptions.CrudValidationException;
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.DesignationLookup;
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkPromotionServiceTest {
+
+    /**
+     * Stream/band pairs with a configured designation; Research is only configured up to B7L.
+     */
+    private static final Set<String> DESIGNATIONS = Set.of("Development:B7H", "Development:B6L", "Research:B7L");
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private DesignationTable designationTable;
+
+    @Mock
+    private EmployeeDirectoryStatsService directoryStatsService;
+
+    @Mock
+    private RequestActorContext actorContext;
+
+    private BulkPromotionService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(designationTable.exists(any(DesignationLookup.DesignationId.class)))
+                .thenAnswer(call -> configured(call.<DesignationLookup.DesignationId>getArgument(0).getStream(),
+                        call.<DesignationLookup.DesignationId>getArgument(0).getBand()));
+        lenient().when(designationTable.exists(anyString(), any(CurrentBand.class)))
+                .thenAnswer(call -> configured(call.getArgument(0), call.getArgument(1)));
+        service = new BulkPromotionService(employeeRepository, designationTable, directoryStatsService, actorContext);
+    }
+
+    @Test
+    void dryRunReportsEveryOutcomeWithoutWriting() {
+        when(employeeRepository.findAllById(anyIterable())).thenReturn(List.of(
+                employee("E1", "backend", CurrentBand.B7L),
+                employee("E2", "Development", CurrentBand.B1),
+                employee("E3", "Research", CurrentBand.B7L)));
+
+        BulkPromotionService.BulkPromotionResult result = service.promote(
+                new BulkPromotionService.BulkPromotionCommand(List.of("E1", "E9", " E2", "E3", "E1"), null, null, null, true));
+
+        assertTrue(result.dryRun());
+        assertEquals(List.of("E9", "E1", "E2", "E3"), result.results().stream()
+                .map(BulkPromotionService.PromotionOutcome::employeeId).toList());
+        assertEquals(List.of(BulkPromotionService.STATUS_NOT_FOUND, BulkPromotionService.STATUS_WOULD_PROMOTE,
+                        BulkPromotionService.STATUS_HIGHEST_BAND, BulkPromotionService.STATUS_NO_DESIGNATION),
+                result.results().stream().map(BulkPromotionService.PromotionOutcome::status).toList());
+        BulkPromotionService.PromotionOutcome wouldPromote = result.results().get(1);
+        assertEquals("B7L", wouldPromote.fromBand());
+        assertEquals("B7H", wouldPromote.toBand());
+        assertEquals("Development", wouldPromote.stream());
+        assertEquals(4, result.requested());
+        assertEquals(1, result.succeeded());
+        assertEquals(3, result.failed());
+
+        verify(employeeRepository, never()).saveAll(any());
+        verifyNoInteractions(actorContext, directoryStatsService);
+    }
+
+    @Test
+    void promotesValidRowsInOneBatchAndSkipsTheRest() {
+        Employee actor = employee("A1", "Devops", CurrentBand.B4);
+        Employee e1 = employee("E1", "backend", CurrentBand.B7L);
+        Employee e3 = employee("E3", "Research", CurrentBand.B7L);
+        when(employeeRepository.findAllById(anyIterable())).thenReturn(List.of(e1, e3));
+        when(actorContext.currentActor()).thenReturn(Optional.of(actor));
+        when(employeeRepository.getReferenceById("A1")).thenReturn(actor);
+
+        BulkPromotionService.BulkPromotionResult result = service.promote(
+                new BulkPromotionService.BulkPromotionCommand(List.of("E1", "E3"), null, null, null, false));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Employee>> saved = ArgumentCaptor.forClass(List.class);
+        verify(employeeRepository).saveAll(saved.capture());
+        assertEquals(List.of(e1), saved.getValue());
+        assertEquals(CurrentBand.B7H, e1.getBand());
+        assertEquals("Development", e1.getStream());
+        assertSame(actor, e1.getUpdatedBy());
+        assertEquals(CurrentBand.B7L, e3.getBand());
+        assertEquals(List.of(BulkPromotionService.STATUS_PROMOTED, BulkPromotionService.STATUS_NO_DESIGNATION),
+                result.results().stream().map(BulkPromotionService.PromotionOutcome::status).toList());
+        verify(employeeRepository).flush();
+        verify(directoryStatsService).invalidateAfterCompletion();
+    }
+
+    @Test
+    void filterIsCountedAndRejectedAboveTheCapBeforeLoadingRows() {
+        when(employeeRepository.count(any(Specification.class)))
+                .thenReturn((long) BulkPromotionService.MAX_BULK_PROMOTIONS + 1);
+
+        CrudValidationException ex = assertThrows(CrudValidationException.class, () -> service.promote(
+                new BulkPromotionService.BulkPromotionCommand(null, "B7L", null, null, true)));
+
+        assertEquals("Filter matches 1001 employees; narrow it to at most 1000", ex.getMessage());
+        verify(employeeRepository, never()).findAll(any(Specification.class), any(Sort.class));
+    }
+
+    @Test
+    void filterAtTheCapLoadsItsRows() {
+        when(employeeRepository.count(any(Specification.class)))
+                .thenReturn((long) BulkPromotionService.MAX_BULK_PROMOTIONS);
+        when(employeeRepository.findAll(any(Specification.class), any(Sort.class)))
+                .thenReturn(List.of(employee("E1", "Development", CurrentBand.B7H)));
+
+        BulkPromotionService.BulkPromotionResult result = service.promote(
+                new BulkPromotionService.BulkPromotionCommand(null, "B7H", "dev", "M1", true));
+
+        assertEquals(BulkPromotionService.STATUS_WOULD_PROMOTE, result.results().get(0).status());
+        assertEquals("B6L", result.results().get(0).toBand());
+    }
+
+    @Test
+    void idListAboveTheCapIsRejectedWithoutQuerying() {
+        List<String> ids = new ArrayList<>(IntStream.rangeClosed(0, BulkPromotionService.MAX_BULK_PROMOTIONS)
+                .mapToObj(i -> "E" + i).toList());
+
+        assertThrows(CrudValidationException.class, () -> service.promote(
+                new BulkPromotionService.BulkPromotionCommand(ids, null, null, null, false)));
+        verify(employeeRepository, never()).findAllById(anyIterable());
+    }
+
+    private static boolean configured(String stream, CurrentBand band) {
+        return DESIGNATIONS.contains(stream + ":" + band);
+    }
+
+    private static Employee employee(String employeeId, String stream, CurrentBand band) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        employee.setStream(stream);
+        employee.setBand(band);
+        return employee;
+    }
+}
@@ -8,6 +8,7 @@ import com.webknot.kpi.repository.EmployeeRepository;
 import com.webknot.kpi.repository.KpiDefinitionRepository;
 import com.webknot.kpi.repository.StreamDirectoryRepository;
 import com.webknot.kpi.repository.WebknotValueRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -56,6 +57,8 @@ class CsvImportServiceTest {
     private CertificationRepository certificationRepository;
     @Mock
     private DesignationLookupRepository designationLookupRepository;
+    @Mock
+    private DesignationTable designationTable;
 
     private CsvImportService csvImportService;
 
@@ -75,6 +78,8 @@ class CsvImportServiceTest {
                 certificationService,
                 certificationRepository,
                 designationLookupRepository,
+                designationTable,
+                new SimpleMeterRegistry(),
                 "Password@123",
                 10000
         );
@@ -194,6 +199,8 @@ class CsvImportServiceTest {
                 certificationService,
                 certificationRepository,
                 designationLookupRepository,
+                designationTable,
+                new SimpleMeterRegistry(),
                 "Password@123",
                 1
         );
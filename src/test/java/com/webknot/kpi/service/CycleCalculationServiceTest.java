@@ -1,5 +1,6 @@
 package com.webknot.kpi.service;
 
+import com.webknot.kpi.support.MutableClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -266,6 +267,25 @@ public class CycleCalculationServiceTest {
         assertFalse(service.isCurrentCycle(previousCycle));
     }
 
+    @Test
+    @DisplayName("Should move the current cycle when the clock crosses the month boundary in the zone")
+    void testCurrentCycleFollowsClockAcrossBoundary() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-01-31T18:29:59Z"));
+        CycleCalculationService clocked = new CycleCalculationService(clock);
+
+        assertEquals("2026-01", clocked.calculateCurrentCycleKey("Asia/Kolkata"));
+        assertEquals("2026-01", clocked.calculateCurrentCycleKey("UTC"));
+
+        clock.set(Instant.parse("2026-01-31T18:30:00Z"));
+        assertEquals("2026-02", clocked.calculateCurrentCycleKey("Asia/Kolkata"));
+        assertEquals("2026-01", clocked.calculateCurrentCycleKey("UTC"));
+        assertTrue(clocked.isCurrentCycle("2026-01"));
+
+        clock.set(Instant.parse("2026-02-01T00:00:00Z"));
+        assertEquals("2026-02", clocked.calculateCurrentCycleKey("UTC"));
+        assertTrue(clocked.isCycleInPast("2026-01"));
+    }
+
     // ==================== Error Handling Tests ====================
 
     @Test
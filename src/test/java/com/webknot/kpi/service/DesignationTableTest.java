@@ -0,0 +1,114 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.DesignationLookup;
+import com.webknot.kpi.repository.DesignationLookupRepository;
+import com.webknot.kpi.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DesignationTableTest {
+
+    private static final DesignationLookup.DesignationId QA_B8 = new DesignationLookup.DesignationId("QA", CurrentBand.B8);
+
+    @Mock
+    private DesignationLookupRepository repository;
+
+    private MutableClock clock;
+    private DesignationTable table;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-03-10T06:00:00Z"));
+        table = new DesignationTable(repository, 300, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recordSavedIsAppliedOnlyOnceTheTransactionCommits() {
+        when(repository.findAll()).thenReturn(List.of(row("Development", CurrentBand.B8, "Intern")));
+        assertEquals(Optional.of("Intern"), table.designation("Development", CurrentBand.B8));
+
+        TransactionSynchronizationManager.initSynchronization();
+        table.recordSaved(QA_B8, "QA Intern");
+        assertEquals(Optional.empty(), table.designation("QA", CurrentBand.B8));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(Optional.of("QA Intern"), table.designation("QA", CurrentBand.B8));
+        assertEquals("Intern", table.designationFor("dev", CurrentBand.B8));
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void recordSavedIsDroppedWhenTheTransactionRollsBack() {
+        when(repository.findAll()).thenReturn(List.of(row("Development", CurrentBand.B8, "Intern")));
+        table.all();
+
+        TransactionSynchronizationManager.initSynchronization();
+        table.recordSaved(QA_B8, "QA Intern");
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(Optional.empty(), table.designation("QA", CurrentBand.B8));
+    }
+
+    @Test
+    void reloadsFromTheDatabaseOnceTheRefreshIntervalPasses() {
+        when(repository.findAll())
+                .thenReturn(List.of(row("Development", CurrentBand.B8, "Intern")))
+                .thenReturn(List.of(row("Development", CurrentBand.B8, "Trainee"), row("QA", CurrentBand.B8, "QA Intern")));
+
+        assertEquals(Optional.of("Intern"), table.designation("Development", CurrentBand.B8));
+        clock.advance(Duration.ofSeconds(299));
+        assertEquals(Optional.of("Intern"), table.designation("Development", CurrentBand.B8));
+        verify(repository, times(1)).findAll();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertEquals(Optional.of("Trainee"), table.designation("Development", CurrentBand.B8));
+        assertEquals(Optional.of("QA Intern"), table.designation("QA", CurrentBand.B8));
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void invalidateForcesAReloadBeforeTheInterval() {
+        when(repository.findAll()).thenReturn(List.of(row("Development", CurrentBand.B8, "Intern")));
+        table.all();
+        table.invalidate();
+        table.all();
+
+        verify(repository, times(2)).findAll();
+    }
+
+    private static DesignationLookup row(String stream, CurrentBand band, String designation) {
+        DesignationLookup row = new DesignationLookup();
+        row.setId(new DesignationLookup.DesignationId(stream, band));
+        row.setDesignation(designation);
+        return row;
+    }
+}
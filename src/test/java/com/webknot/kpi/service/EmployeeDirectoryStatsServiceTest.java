@@ -0,0 +1,179 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.repository.EmployeeDirectoryCounts;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.security.TokenVersionService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the stats service behind the real caching proxy, with the repository answering from an in-memory table,
+ * and checks that every {@link EmployeeService} write is visible on the next directory read.
+ */
+@SpringJUnitConfig
+class EmployeeDirectoryStatsServiceTest {
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        EmployeeRepository employeeRepository() {
+            return mock(EmployeeRepository.class);
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(EmployeeDirectoryStatsService.CACHE_NAME);
+        }
+
+        @Bean
+        EmployeeDirectoryStatsService employeeDirectoryStatsService(EmployeeRepository employeeRepository,
+                                                                    CacheManager cacheManager) {
+            return new EmployeeDirectoryStatsService(employeeRepository, cacheManager);
+        }
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EmployeeDirectoryStatsService directoryStatsService;
+
+    private final Map<String, Employee> table = new LinkedHashMap<>();
+    private EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        reset(employeeRepository);
+        cacheManager.getCache(EmployeeDirectoryStatsService.CACHE_NAME).clear();
+        table.clear();
+        table.put("M1", employee("M1", EmployeeRole.Manager, CurrentBand.B5));
+        table.put("E1", employee("E1", EmployeeRole.Employee, CurrentBand.B7L));
+
+        when(employeeRepository.aggregateDirectoryCounts(any(), any(), any())).thenAnswer(call -> counts());
+        when(employeeRepository.findById(anyString())).thenAnswer(call -> Optional.ofNullable(table.get(call.<String>getArgument(0))));
+        when(employeeRepository.existsById(anyString())).thenAnswer(call -> table.containsKey(call.<String>getArgument(0)));
+        when(employeeRepository.save(any(Employee.class))).thenAnswer(call -> {
+            Employee employee = call.getArgument(0);
+            table.put(employee.getEmployeeId(), employee);
+            return employee;
+        });
+        doAnswer(call -> table.remove(call.<Employee>getArgument(0).getEmployeeId()))
+                .when(employeeRepository).delete(any(Employee.class));
+
+        DesignationTable designationTable = mock(DesignationTable.class);
+        when(designationTable.exists(any(com.webknot.kpi.models.DesignationLookup.DesignationId.class))).thenReturn(true);
+        employeeService = new EmployeeService(employeeRepository, designationTable, mock(Validator.class),
+                mock(PasswordEncoder.class), mock(TokenVersionService.class), mock(RequestActorContext.class),
+                mock(OrgHierarchyIndex.class), directoryStatsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void everyEmployeeWriteIsVisibleOnTheNextRead() {
+        assertCounts(2, 1, 1, 2);
+        assertCounts(2, 1, 1, 2);
+        verify(employeeRepository, times(1)).aggregateDirectoryCounts(any(), any(), any());
+
+        Employee created = employee("E2", EmployeeRole.Employee, CurrentBand.B7L);
+        created.setPassword("secret");
+        employeeService.addEmployee(created);
+        assertCounts(3, 1, 2, 2);
+
+        employeeService.updateEmployee("E2", new EmployeeService.EmployeeUpdateCommand(
+                null, null, null, EmployeeRole.Manager, null, null, null, null, null));
+        assertCounts(3, 2, 1, 2);
+
+        employeeService.promoteEmployee("E1");
+        assertCounts(3, 2, 1, 3);
+
+        employeeService.deleteEmployee("E2");
+        assertCounts(2, 1, 1, 2);
+        verify(employeeRepository, times(5)).aggregateDirectoryCounts(any(), any(), any());
+    }
+
+    @Test
+    void aReadRacingTheTransactionIsDiscardedOnCompletion() {
+        assertCounts(2, 1, 1, 2);
+
+        TransactionSynchronizationManager.initSynchronization();
+        employeeService.promoteEmployee("E1");
+        // a concurrent reader that still saw the pre-commit rows caches them before the write completes
+        cacheManager.getCache(EmployeeDirectoryStatsService.CACHE_NAME)
+                .put("all", new EmployeeDirectoryCounts(99L, 0L, 0L, 0L, 0L));
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertCounts(2, 1, 1, 2);
+        verify(employeeRepository, times(2)).aggregateDirectoryCounts(any(), any(), any());
+    }
+
+    private void assertCounts(long total, long managers, long employees, long bands) {
+        EmployeeService.EmployeeCursorPage page = employeeService.getEmployeesCursorPage(null, null);
+        assertEquals(total, page.total());
+        assertEquals(managers, page.managerCount());
+        assertEquals(employees, page.employeeCount());
+        assertEquals(bands, page.bandCount());
+    }
+
+    private EmployeeDirectoryCounts counts() {
+        long managers = table.values().stream().filter(e -> e.getEmpRole() == EmployeeRole.Manager).count();
+        long admins = table.values().stream().filter(e -> e.getEmpRole() == EmployeeRole.Admin).count();
+        long employees = table.values().stream().filter(e -> e.getEmpRole() == EmployeeRole.Employee).count();
+        long bands = table.values().stream().map(Employee::getBand).distinct().count();
+        return new EmployeeDirectoryCounts((long) table.size(), managers, admins, employees, bands);
+    }
+
+    private static Employee employee(String employeeId, EmployeeRole role, CurrentBand band) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        employee.setEmployeeName(employeeId);
+        employee.setEmail(employeeId.toLowerCase() + "@webknot.in");
+        employee.setEmpRole(role);
+        employee.setBand(band);
+        employee.setStream("Development");
+        return employee;
+    }
+}
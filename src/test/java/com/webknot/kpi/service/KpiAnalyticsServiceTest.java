@@ -0,0 +1,184 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeRole;
+import com.webknot.kpi.repository.SubmissionRatingRepository;
+import com.webknot.kpi.security.RequestActorContext;
+import com.webknot.kpi.support.EmbeddedPostgresJpa;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Extracts and aggregates rating facts against PostgreSQL with {@code sql/submission_ratings.sql} applied.
+ * E1's payload mixes valid ratings with missing, non-numeric and out-of-range ones; M1 manages E1 and E2, M2
+ * manages E3 and X1, whose submission is still a draft. The clock puts the current cycle in 2026-03.
+ */
+class KpiAnalyticsServiceTest {
+
+    private static final String TYPE = "EMPLOYEE_MONTHLY_SUBMISSION";
+
+    private static EmbeddedPostgresJpa db;
+    private static RequestActorContext actorContext;
+    private static KpiAnalyticsService service;
+    private static long e1Submission;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        db = EmbeddedPostgresJpa.start("submission_ratings.sql");
+        insertEmployee("A1", "Admin", "B4", null);
+        insertEmployee("M1", "Manager", "B5", null);
+        insertEmployee("M2", "Manager", "B5", null);
+        insertEmployee("E1", "Employee", "B7L", "M1");
+        insertEmployee("E2", "Employee", "B6L", "M1");
+        insertEmployee("E3", "Employee", "B7L", "M2");
+        insertEmployee("X1", "Employee", "B7L", "M2");
+
+        actorContext = mock(RequestActorContext.class);
+        service = new KpiAnalyticsService(db.repository(SubmissionRatingRepository.class), actorContext,
+                new CycleCalculationService(Clock.fixed(Instant.parse("2026-03-10T00:00:00Z"), ZoneId.of("UTC"))));
+
+        e1Submission = insertSubmission("E1", "SUBMITTED", """
+                {"kpiRatings": [
+                   {"kpiId": "K1", "title": "Delivery", "rating": 4},
+                   {"kpiId": "K2", "title": "Quality", "rating": "abc"},
+                   {"kpiId": "K3", "title": "Ownership"},
+                   {"kpiId": "K4", "title": "Estimation", "rating": 0},
+                   {"kpiId": "K5", "title": "Reviews", "rating": 6},
+                   {"title": "Learning", "rating": "5"}],
+                 "webknotValueResponses": [{"valueId": "V1", "title": "Integrity", "rating": 3}]}
+                """);
+        insertSubmission("E2", "SUBMITTED", """
+                {"kpiRatings": [{"kpiId": "K1", "title": "Delivery", "rating": 2}]}
+                """);
+        insertSubmission("E3", "SUBMITTED", """
+                {"kpiRatings": [{"kpiId": "K1", "title": "Delivery", "rating": 5}]}
+                """);
+        insertSubmission("X1", "DRAFT", """
+                {"kpiRatings": [{"kpiId": "K1", "title": "Delivery", "rating": 1}]}
+                """);
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        if (db != null) db.close();
+    }
+
+    @Test
+    void extractionKeepsNumericRatingsFromOneToFive() {
+        List<String> rows = db.jdbc().query("""
+                SELECT source, ordinal, item_id, item_label, rating, band, manager_id FROM dev.submission_ratings
+                 WHERE submission_id = ? ORDER BY source, ordinal
+                """, (rs, i) -> String.join("|", rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                rs.getString(5), rs.getString(6), rs.getString(7)), e1Submission);
+
+        assertEquals(List.of(
+                "KPI|1|K1|Delivery|4|B7L|M1",
+                "KPI|6|Learning|Learning|5|B7L|M1",
+                "VALUE|1|V1|Integrity|3|B7L|M1"), rows);
+
+        // a second save replaces the facts instead of adding to them
+        refresh(e1Submission);
+        assertEquals(3, ratingCount(e1Submission));
+    }
+
+    @Test
+    void payloadWithoutRatingArraysExtractsNothing() {
+        long submission = insertSubmission("M1", "SUBMITTED", """
+                {"kpiRatings": "n/a"}
+                """);
+
+        assertEquals(0, ratingCount(submission));
+    }
+
+    @Test
+    void adminSeesTheOrganisationForTheCurrentCycle() {
+        Map<String, Object> response = aggregatesAs("A1", EmployeeRole.Admin, Map.of("groupBy", "kpi"));
+
+        assertEquals("2026-03", response.get("month"));
+        assertEquals("organisation", response.get("scope"));
+        Map<?, ?> overall = (Map<?, ?>) response.get("overall");
+        assertEquals(4L, overall.get("ratings"));
+        assertEquals(3L, overall.get("employees"));
+        assertEquals(4.0, overall.get("mean"));
+        assertEquals(Map.of("1", 0L, "2", 1L, "3", 0L, "4", 1L, "5", 2L), overall.get("distribution"));
+
+        List<?> groups = (List<?>) response.get("groups");
+        assertEquals(2, groups.size());
+        Map<?, ?> delivery = (Map<?, ?>) groups.get(0);
+        assertEquals("K1", delivery.get("key"));
+        assertEquals("Delivery", delivery.get("label"));
+        assertEquals(3L, delivery.get("ratings"));
+        assertEquals(3.67, delivery.get("mean"));
+        assertEquals(4.0, ((Map<?, ?>) delivery.get("percentiles")).get("p50"));
+        assertEquals("Learning", ((Map<?, ?>) groups.get(1)).get("key"));
+
+        Map<?, ?> withDrafts = (Map<?, ?>) aggregatesAs("A1", EmployeeRole.Admin,
+                Map.of("groupBy", "kpi", "includeDrafts", "true")).get("overall");
+        assertEquals(5L, withDrafts.get("ratings"));
+    }
+
+    @Test
+    void managerSeesOnlyDirectReports() {
+        Map<String, Object> response = aggregatesAs("M1", EmployeeRole.Manager,
+                Map.of("month", "2026-03", "groupBy", "band"));
+
+        assertEquals("direct-reports", response.get("scope"));
+        Map<?, ?> overall = (Map<?, ?>) response.get("overall");
+        assertEquals(3L, overall.get("ratings"));
+        assertEquals(2L, overall.get("employees"));
+        List<?> groups = (List<?>) response.get("groups");
+        assertEquals(List.of("B6L", "B7L"), groups.stream().map(g -> ((Map<?, ?>) g).get("key")).toList());
+    }
+
+    @Test
+    void nonManagerIsDenied() {
+        assertThrows(AccessDeniedException.class,
+                () -> aggregatesAs("E1", EmployeeRole.Employee, Map.of("groupBy", "band")));
+    }
+
+    private static Map<String, Object> aggregatesAs(String employeeId, EmployeeRole role, Map<String, String> query) {
+        Employee actor = new Employee();
+        actor.setEmployeeId(employeeId);
+        actor.setEmpRole(role);
+        when(actorContext.requireActor(any())).thenReturn(actor);
+        return service.ratingAggregates(null, query);
+    }
+
+    private static long insertSubmission(String employeeId, String status, String payload) {
+        Long id = db.jdbc().queryForObject("INSERT INTO dev.monthly_submissions (employee_id, month, submission_type, "
+                        + "status, payload_json) VALUES (?, '2026-03', ?, ?, ?) RETURNING id",
+                Long.class, employeeId, TYPE, status, payload);
+        refresh(id);
+        return id;
+    }
+
+    private static void refresh(long submissionId) {
+        db.transactions().executeWithoutResult(tx -> service.refreshRatings(submissionId));
+    }
+
+    private static int ratingCount(long submissionId) {
+        return db.jdbc().queryForObject("SELECT count(*) FROM dev.submission_ratings WHERE submission_id = ?",
+                Integer.class, submissionId);
+    }
+
+    private static void insertEmployee(String employeeId, String role, String band, String managerId) {
+        db.jdbc().update("INSERT INTO dev.employees (employee_id, employee_name, email, password, emp_role, stream, "
+                        + "band, manager_id) VALUES (?, ?, ?, 'x', ?::dev.employee_role, 'Development', "
+                        + "?::dev.current_band, ?)",
+                employeeId, employeeId, employeeId.toLowerCase() + "@webknot.in", role, band, managerId);
+    }
+}
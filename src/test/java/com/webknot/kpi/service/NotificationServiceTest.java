@@ -0,0 +1,87 @@
+package com.webknot.kpi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.repository.NotificationEventRepository;
+import com.webknot.kpi.security.EmployeePrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final int HORIZON_DAYS = 30;
+
+    @Mock
+    private NotificationEventRepository notificationEventRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationService(notificationEventRepository, employeeRepository, new ObjectMapper(),
+                new SimpleMeterRegistry(), HORIZON_DAYS);
+    }
+
+    @Test
+    void listIsBoundedByTheInboxHorizonButTheUnreadCountIsNot() {
+        when(notificationEventRepository.findPageForRecipient(eq("E1"), any(), anyBoolean(), isNull(), any(), anyInt()))
+                .thenReturn(List.of());
+        when(notificationEventRepository.countByRecipient_EmployeeIdAndReadFalse("E1")).thenReturn(3L);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(HORIZON_DAYS);
+        NotificationService.NotificationPage page = service.listForActor(actor("E1"), null, null, null, false, false);
+        LocalDateTime after = LocalDateTime.now().minusDays(HORIZON_DAYS);
+
+        ArgumentCaptor<LocalDateTime> pageSince = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(notificationEventRepository).findPageForRecipient(eq("E1"), any(), eq(false), isNull(),
+                pageSince.capture(), eq(26));
+
+        assertFalse(pageSince.getValue().isBefore(before));
+        assertFalse(pageSince.getValue().isAfter(after));
+        assertEquals(3L, page.unreadCount());
+    }
+
+    @Test
+    void typeFilteredUnreadCountIsUnbounded() {
+        when(notificationEventRepository.findPageForRecipient(eq("E1"), any(), anyBoolean(), isNull(), any(), anyInt()))
+                .thenReturn(List.of());
+        when(notificationEventRepository.countByRecipient_EmployeeIdAndReadFalseAndTypeIn(
+                "E1", Set.of(NotificationService.TYPE_EMPLOYEE_SUBMITTED_FOR_REVIEW))).thenReturn(2L);
+
+        NotificationService.NotificationPage page = service.listForActor(actor("E1"),
+                NotificationService.TYPE_EMPLOYEE_SUBMITTED_FOR_REVIEW, 10, null, true, false);
+
+        verify(notificationEventRepository).findPageForRecipient(eq("E1"), any(), eq(true), isNull(), any(), eq(11));
+        assertEquals(2L, page.unreadCount());
+    }
+
+    private static Authentication actor(String employeeId) {
+        EmployeePrincipal principal = new EmployeePrincipal(employeeId, employeeId + "@webknot.in", "Employee", 0);
+        return new UsernamePasswordAuthenticationToken(principal, null, List.of());
+    }
+}
@@ -0,0 +1,108 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrgHierarchyIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private OrgHierarchyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // CEO -> M1 -> (E1, M2 -> E2), CEO -> M3
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{"CEO", null});
+        edges.add(new Object[]{"M1", "CEO"});
+        edges.add(new Object[]{"E1", "M1"});
+        edges.add(new Object[]{"M2", "M1"});
+        edges.add(new Object[]{"E2", "M2"});
+        edges.add(new Object[]{"M3", "CEO"});
+        when(employeeRepository.findManagerEdges()).thenReturn(edges);
+        index = new OrgHierarchyIndex(employeeRepository, 300);
+    }
+
+    @Test
+    void resolvesDirectAndSkipLevelReportees() {
+        assertEquals(Set.of("E1", "M2"), Set.copyOf(index.directReporteeIds("M1")));
+        assertEquals(Set.of("E1", "M2", "E2"), Set.copyOf(index.orgIds("M1")));
+        assertTrue(index.isInOrg("CEO", "E2"));
+        assertTrue(index.isInOrg("M1", "E2"));
+        assertFalse(index.isInOrg("M3", "E2"));
+        assertFalse(index.isInOrg("E2", "M1"));
+        assertFalse(index.isInOrg("M1", "M1"));
+        assertEquals(List.of("M2", "M1", "CEO"), index.managementChain("E2"));
+        verify(employeeRepository, times(1)).findManagerEdges();
+    }
+
+    @Test
+    void appliesWritesWithoutReloading() {
+        index.allEmployeeIds();
+
+        index.recordUpsert("M2", "M3");
+        assertTrue(index.isInOrg("M3", "E2"));
+        assertFalse(index.isInOrg("M1", "E2"));
+
+        index.recordDelete("M3");
+        assertFalse(index.contains("M3"));
+        assertEquals(List.of(), index.managementChain("M2"));
+        assertTrue(index.isInOrg("M2", "E2"));
+        verify(employeeRepository, times(1)).findManagerEdges();
+    }
+
+    @Test
+    void breaksManagerCycles() {
+        List<Object[]> edges = new ArrayList<>();
+        edges.add(new Object[]{"A", "B"});
+        edges.add(new Object[]{"B", "A"});
+        edges.add(new Object[]{"C", "B"});
+        when(employeeRepository.findManagerEdges()).thenReturn(edges);
+        OrgHierarchyIndex cyclic = new OrgHierarchyIndex(employeeRepository, 300);
+
+        assertEquals(Set.of("A", "B", "C"), cyclic.allEmployeeIds());
+        assertTrue(cyclic.isInOrg("A", "C"));
+        assertFalse(cyclic.isInOrg("B", "A"));
+        assertEquals(List.of("C"), cyclic.directReporteeIds("B"));
+        assertEquals(List.of("B"), cyclic.directReporteeIds("A"));
+    }
+
+    @Test
+    void reparentingAndCycleRemovalClearTheOldManagersReportees() {
+        index.allEmployeeIds();
+
+        index.recordUpsert("M2", "M3");
+        assertEquals(List.of("E1"), index.directReporteeIds("M1"));
+        assertEquals(List.of("M2"), index.directReporteeIds("M3"));
+
+        // E2 -> M2 -> M3 -> E2 becomes a cycle, cut above E2 (the lowest id on it)
+        index.recordUpsert("M3", "E2");
+        assertEquals(List.of(), index.directReporteeIds("M2"));
+        assertEquals(List.of("M3"), index.directReporteeIds("E2"));
+        assertEquals(List.of("M1"), index.directReporteeIds("CEO"));
+        assertEquals(List.of(), index.managementChain("E2"));
+
+        index.recordUpsert("M3", "CEO");
+        assertEquals(List.of("M1", "M3"), index.directReporteeIds("CEO"));
+        assertEquals(List.of(), index.directReporteeIds("E2"));
+        assertEquals(List.of("M2", "M3", "CEO"), index.managementChain("E2"));
+        verify(employeeRepository, times(1)).findManagerEdges();
+    }
+}
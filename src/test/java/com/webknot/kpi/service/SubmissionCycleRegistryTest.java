@@ -0,0 +1,109 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.SubmissionCycle;
+import com.webknot.kpi.repository.SubmissionCycleRepository;
+import com.webknot.kpi.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * The repository is backed by a map that honours {@code ON CONFLICT DO NOTHING}, and the clock is moved across
+ * the Asia/Kolkata month boundary (18:30 UTC on the last day of the month).
+ */
+@ExtendWith(MockitoExtension.class)
+class SubmissionCycleRegistryTest {
+
+    private static final String TZ = SubmissionCycleRegistry.DEFAULT_TZ;
+
+    @Mock
+    private SubmissionCycleRepository repo;
+
+    private final Map<String, SubmissionCycle> table = new HashMap<>();
+    private MutableClock clock;
+    private SubmissionCycleRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repo.findByCycleKey(anyString()))
+                .thenAnswer(call -> Optional.ofNullable(table.get(call.<String>getArgument(0))));
+        lenient().when(repo.insertIfAbsent(any(), anyString(), anyString(), any(), any(), any())).thenAnswer(call -> {
+            String cycleKey = call.getArgument(1);
+            if (table.containsKey(cycleKey)) return 0;
+            SubmissionCycle cycle = new SubmissionCycle();
+            cycle.setId(call.<UUID>getArgument(0));
+            cycle.setCycleKey(cycleKey);
+            cycle.setTimezone(call.getArgument(2));
+            cycle.setWindowStartAt(call.getArgument(3));
+            cycle.setWindowEndAt(call.getArgument(4));
+            cycle.setManualClosed(true);
+            table.put(cycleKey, cycle);
+            return 1;
+        });
+        clock = new MutableClock(Instant.parse("2026-01-31T18:29:59Z"));
+        registry = new SubmissionCycleRegistry(repo, new CycleCalculationService(clock), clock);
+    }
+
+    @Test
+    void createsTheCurrentCycleTodayAndTheNextOnItsFirstDay() {
+        registry.precreateUpcomingCycles();
+
+        assertEquals(OffsetDateTime.parse("2026-01-31T18:00:00+05:30"), table.get("2026-01").getWindowStartAt());
+        assertEquals(OffsetDateTime.parse("2026-02-01T18:00:00+05:30"), table.get("2026-01").getWindowEndAt());
+        assertEquals(OffsetDateTime.parse("2026-02-01T18:00:00+05:30"), table.get("2026-02").getWindowStartAt());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void rollsOverAtLocalMidnightAndDropsTheOldCycle() {
+        registry.precreateUpcomingCycles();
+        registry.resolve("2026-01", TZ);
+        // the miss read, the re-read after the insert, then served from memory
+        verify(repo, times(2)).findByCycleKey("2026-01");
+
+        clock.set(Instant.parse("2026-01-31T18:30:00Z"));
+        registry.precreateUpcomingCycles();
+
+        assertTrue(table.containsKey("2026-03"));
+        assertEquals(OffsetDateTime.parse("2026-03-01T18:00:00+05:30"), table.get("2026-03").getWindowStartAt());
+        // February was created a month ahead, so it keeps its first-day start instead of "today"
+        assertEquals(OffsetDateTime.parse("2026-02-01T18:00:00+05:30"), table.get("2026-02").getWindowStartAt());
+
+        registry.resolve("2026-01", TZ);
+        verify(repo, times(3)).findByCycleKey("2026-01");
+    }
+
+    @Test
+    void resolveServesADetachedCachedCopy() {
+        SubmissionCycle first = registry.resolve("2026-01", TZ);
+        SubmissionCycle second = registry.resolve("2026-01", TZ);
+
+        assertNotSame(table.get("2026-01"), first);
+        assertSame(first, second);
+        verify(repo, times(2)).findByCycleKey("2026-01");
+        verify(repo, times(1)).insertIfAbsent(any(), anyString(), anyString(), any(), any(), any());
+
+        registry.evict("2026-01");
+        registry.resolve("2026-01", TZ);
+        verify(repo, times(3)).findByCycleKey("2026-01");
+    }
+}
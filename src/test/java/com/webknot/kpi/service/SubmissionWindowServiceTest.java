@@ -0,0 +1,228 @@
+package com.webknot.kpi.service;
+
+import com.webknot.kpi.models.Employee;
+import com.webknot.kpi.models.EmployeeSubmissionWindowOverride;
+import com.webknot.kpi.models.SubmissionCycle;
+import com.webknot.kpi.repository.EmployeeRepository;
+import com.webknot.kpi.repository.EmployeeSubmissionWindowOverrideRepository;
+import com.webknot.kpi.repository.SubmissionCycleRepository;
+import com.webknot.kpi.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionWindowServiceTest {
+
+    private static final String TZ = "Asia/Kolkata";
+    private static final String CYCLE_KEY = "2026-03";
+
+    @Mock
+    private SubmissionCycleRepository cycleRepository;
+
+    @Mock
+    private EmployeeSubmissionWindowOverrideRepository overrideRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private SubmissionCycleRegistry cycleRegistry;
+
+    @Mock
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    private MutableClock clock;
+    private SubmissionWindowService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-03-10T06:00:00Z"));
+        service = new SubmissionWindowService(cycleRepository, overrideRepository, employeeRepository,
+                new CycleCalculationService(clock), cycleRegistry, orgHierarchyIndex, clock, 30);
+    }
+
+    @Test
+    void snapshotServesReadsUntilTheTtlExpires() {
+        when(cycleRegistry.refresh(CYCLE_KEY, TZ)).thenReturn(openCycle());
+        when(overrideRepository.findAll()).thenReturn(List.of(override("E1", false)));
+
+        assertFalse(service.getCurrentWindowForEmployee("E1").isOpen());
+        assertTrue(service.getCurrentWindowForEmployee("E2").isOpen());
+        assertTrue(service.getCurrentWindow().isOpen());
+        verify(cycleRegistry, times(1)).refresh(CYCLE_KEY, TZ);
+        verify(overrideRepository, times(1)).findAll();
+
+        clock.advance(Duration.ofSeconds(29));
+        service.getCurrentWindowForEmployee("E1");
+        verify(overrideRepository, times(1)).findAll();
+
+        clock.advance(Duration.ofSeconds(1));
+        service.getCurrentWindowForEmployee("E1");
+        verify(cycleRegistry, times(2)).refresh(CYCLE_KEY, TZ);
+        verify(overrideRepository, times(2)).findAll();
+    }
+
+    @Test
+    void bulkOverrideWritesOnceAndInvalidatesTheSnapshot() {
+        when(cycleRegistry.refresh(CYCLE_KEY, TZ)).thenReturn(openCycle());
+        when(cycleRegistry.resolve(CYCLE_KEY, TZ)).thenReturn(openCycle());
+        when(overrideRepository.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(override("E1", false), override("E2", false)));
+        when(employeeRepository.findAllById(anyIterable())).thenReturn(List.of(employee("E1"), employee("E2")));
+        when(overrideRepository.findAllById(anyIterable())).thenReturn(List.of(override("E1", true)));
+
+        assertTrue(service.getCurrentWindowForEmployee("E1").isOpen());
+
+        Map<String, Object> body = service.setWindowForEmployees(List.of(" E1", "E2", "E1"), false, "ADMIN");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmployeeSubmissionWindowOverride>> saved = ArgumentCaptor.forClass(List.class);
+        verify(overrideRepository, times(1)).saveAll(saved.capture());
+        assertEquals(List.of("E1", "E2"), saved.getValue().stream().map(EmployeeSubmissionWindowOverride::getEmployeeId).toList());
+        assertTrue(saved.getValue().stream().allMatch(row -> row.isForceClosed() && !row.isForceOpen()));
+        assertEquals("CLOSE", body.get("action"));
+        assertEquals(2, body.get("updatedCount"));
+        assertEquals(true, body.get("globalOpen"));
+
+        assertFalse(service.getCurrentWindowForEmployee("E1").isOpen());
+        verify(overrideRepository, times(2)).findAll();
+    }
+
+    @Test
+    void bulkOverrideRejectsUnknownEmployeesWithoutWriting() {
+        when(employeeRepository.findAllById(anyIterable())).thenReturn(List.of(employee("E1")));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.setWindowForEmployees(List.of("E1", "E9"), true, "ADMIN"));
+        assertEquals("Employee not found: E9", ex.getMessage());
+        verify(overrideRepository, never()).saveAll(any());
+        assertThrows(IllegalArgumentException.class, () -> service.setWindowForEmployees(List.of(" "), true, "ADMIN"));
+    }
+
+    @Test
+    void managerTeamOverrideOpensTheWindowForDirectReportees() {
+        when(employeeRepository.existsById("M1")).thenReturn(true);
+        when(orgHierarchyIndex.directReporteeIds("M1")).thenReturn(List.of("E1", "E2"));
+        when(overrideRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(cycleRegistry.resolve(CYCLE_KEY, TZ)).thenReturn(closedCycle());
+
+        Map<String, Object> body = service.setWindowForManagerTeam("M1", true, "ADMIN");
+
+        assertEquals("OPEN", body.get("action"));
+        assertEquals("M1", body.get("managerId"));
+        assertEquals(false, body.get("globalOpen"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> employees = (List<Map<String, Object>>) body.get("employees");
+        assertEquals(List.of("E1", "E2"), employees.stream().map(row -> row.get("employeeId")).toList());
+        assertTrue(employees.stream().allMatch(row -> Boolean.TRUE.equals(row.get("windowOpenForEmployee"))));
+    }
+
+    @Test
+    void windowIsOpenFromItsStartThroughItsEndInclusive() {
+        SubmissionCycle cycle = openCycle();
+        cycle.setWindowStartAt(OffsetDateTime.parse("2026-03-10T18:00:00+05:30"));
+        cycle.setWindowEndAt(OffsetDateTime.parse("2026-03-11T18:00:00+05:30"));
+        when(cycleRegistry.refresh(CYCLE_KEY, TZ)).thenReturn(cycle);
+        when(overrideRepository.findAll()).thenReturn(List.of());
+
+        clock.set(Instant.parse("2026-03-10T12:29:59Z"));
+        assertFalse(service.getCurrentWindow().isOpen());
+        clock.set(Instant.parse("2026-03-10T12:30:00Z"));
+        assertTrue(service.getCurrentWindow().isOpen());
+        clock.set(Instant.parse("2026-03-11T12:30:00Z"));
+        assertTrue(service.getCurrentWindow().isOpen());
+        clock.set(Instant.parse("2026-03-11T12:30:00.001Z"));
+        assertFalse(service.getCurrentWindow().isOpen());
+
+        cycle.setWindowEndAt(null);
+        assertTrue(service.getCurrentWindow().isOpen());
+        cycle.setManualClosed(true);
+        assertFalse(service.getCurrentWindow().isOpen());
+    }
+
+    @Test
+    void overridesWinOverTheGlobalWindowOnEitherSideOfItsBounds() {
+        SubmissionCycle cycle = openCycle();
+        cycle.setWindowStartAt(OffsetDateTime.parse("2026-03-10T18:00:00+05:30"));
+        cycle.setWindowEndAt(OffsetDateTime.parse("2026-03-11T18:00:00+05:30"));
+        when(cycleRegistry.refresh(CYCLE_KEY, TZ)).thenReturn(cycle);
+        when(overrideRepository.findAll()).thenReturn(List.of(override("E1", true), override("E2", false)));
+
+        clock.set(Instant.parse("2026-03-10T12:29:59Z"));
+        assertTrue(service.getCurrentWindowForEmployee("E1").isOpen());
+        assertFalse(service.getCurrentWindowForEmployee("E3").isOpen());
+        clock.set(Instant.parse("2026-03-10T12:30:00Z"));
+        assertFalse(service.getCurrentWindowForEmployee("E2").isOpen());
+        assertTrue(service.getCurrentWindowForEmployee("E3").isOpen());
+    }
+
+    @Test
+    void snapshotMovesToTheNextCycleAtLocalMidnight() {
+        SubmissionCycle april = openCycle();
+        april.setCycleKey("2026-04");
+        april.setWindowStartAt(OffsetDateTime.parse("2026-04-01T18:00:00+05:30"));
+        when(cycleRegistry.refresh(CYCLE_KEY, TZ)).thenReturn(openCycle());
+        when(cycleRegistry.refresh("2026-04", TZ)).thenReturn(april);
+        when(overrideRepository.findAll()).thenReturn(List.of());
+
+        // 23:59:59 on 31 March in Asia/Kolkata; the second read crosses midnight within the snapshot TTL
+        clock.set(Instant.parse("2026-03-31T18:29:59Z"));
+        assertEquals(CYCLE_KEY, service.getCurrentWindow().cycleKey());
+        assertTrue(service.getCurrentWindow().isOpen());
+
+        clock.set(Instant.parse("2026-03-31T18:30:00Z"));
+        assertEquals("2026-04", service.getCurrentWindow().cycleKey());
+        assertFalse(service.getCurrentWindow().isOpen());
+        verify(cycleRegistry, times(1)).refresh("2026-04", TZ);
+    }
+
+    private static SubmissionCycle openCycle() {
+        SubmissionCycle cycle = new SubmissionCycle();
+        cycle.setCycleKey(CYCLE_KEY);
+        cycle.setTimezone(TZ);
+        cycle.setWindowStartAt(OffsetDateTime.parse("2026-03-01T18:00:00+05:30"));
+        return cycle;
+    }
+
+    private static SubmissionCycle closedCycle() {
+        SubmissionCycle cycle = openCycle();
+        cycle.setManualClosed(true);
+        return cycle;
+    }
+
+    private static EmployeeSubmissionWindowOverride override(String employeeId, boolean open) {
+        EmployeeSubmissionWindowOverride row = new EmployeeSubmissionWindowOverride();
+        row.setEmployeeId(employeeId);
+        row.setForceOpen(open);
+        row.setForceClosed(!open);
+        return row;
+    }
+
+    private static Employee employee(String employeeId) {
+        Employee employee = new Employee();
+        employee.setEmployeeId(employeeId);
+        return employee;
+    }
+}
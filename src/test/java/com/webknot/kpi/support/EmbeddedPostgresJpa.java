@@ -0,0 +1,121 @@
+package com.webknot.kpi.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategySnakeCaseImpl;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded PostgreSQL with {@code sql/dev_schema.sql} applied and a Hibernate entity manager over the entity
+ * package, for repository tests that need the real enum types and native SQL. Repositories are created without
+ * a Spring context; writes go through {@link #transactions()}.
+ */
+public final class EmbeddedPostgresJpa implements AutoCloseable {
+
+    private static final Path SQL_DIR = Path.of("sql");
+
+    private final EmbeddedPostgres postgres;
+    private final LocalContainerEntityManagerFactoryBean emfBean;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JpaRepositoryFactory repositoryFactory;
+    private final TransactionTemplate transactions;
+
+    private EmbeddedPostgresJpa(EmbeddedPostgres postgres, LocalContainerEntityManagerFactoryBean emfBean) {
+        this.postgres = postgres;
+        this.emfBean = emfBean;
+        this.entityManagerFactory = emfBean.getObject();
+        this.repositoryFactory = new JpaRepositoryFactory(
+                SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory));
+        this.transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+    }
+
+    /**
+     * Starts a database, applies the schema followed by {@code scripts} (file names under {@code sql/}) and
+     * builds the entity manager factory.
+     */
+    public static EmbeddedPostgresJpa start(String... scripts) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try {
+            try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+                apply(connection, "dev_schema.sql");
+                for (String script : scripts) {
+                    apply(connection, script);
+                }
+            }
+
+            LocalContainerEntityManagerFactoryBean emfBean = new LocalContainerEntityManagerFactoryBean();
+            emfBean.setDataSource(postgres.getPostgresDatabase());
+            emfBean.setPackagesToScan("com.webknot.kpi.models");
+            emfBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            emfBean.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "none",
+                    "hibernate.default_schema", "dev",
+                    "hibernate.physical_naming_strategy", PhysicalNamingStrategySnakeCaseImpl.class.getName()));
+            emfBean.afterPropertiesSet();
+            return new EmbeddedPostgresJpa(postgres, emfBean);
+        } catch (Exception | Error e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    public DataSource dataSource() {
+        return postgres.getPostgresDatabase();
+    }
+
+    public JdbcTemplate jdbc() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    public <T> T repository(Class<T> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+
+    public TransactionTemplate transactions() {
+        return transactions;
+    }
+
+    /**
+     * Empties {@code tables} (schema-qualified) between tests.
+     */
+    public void truncate(List<String> tables) {
+        jdbc().execute("TRUNCATE " + String.join(", ", tables) + " CASCADE");
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            emfBean.destroy();
+        } finally {
+            postgres.close();
+        }
+    }
+
+    /**
+     * Sends the whole file in one statement; the driver splits it and, unlike {@code ScriptUtils}, keeps
+     * dollar-quoted function bodies intact.
+     */
+    private static void apply(Connection connection, String script) throws Exception {
+        Path path = SQL_DIR.resolve(script);
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalStateException("Schema script not found: " + path.toAbsolutePath());
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(path));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.webknot.kpi.util;
+
+import com.webknot.kpi.models.CurrentBand;
+import com.webknot.kpi.models.CurrentStream;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BandStreamNormalizerTest {
+
+    @Test
+    void parsesBandsIgnoringCaseAndSeparators() {
+        assertEquals(Optional.of(CurrentBand.B7L), BandStreamNormalizer.parseBand("b7-l"));
+        assertEquals(Optional.of(CurrentBand.B5), BandStreamNormalizer.parseBand("  B5 "));
+        assertEquals(Optional.of(CurrentBand.B6H), BandStreamNormalizer.parseBand("B 6 h"));
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseBand("B9"));
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseBand("B5HH"));
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseBand(" - "));
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseBand(null));
+    }
+
+    @Test
+    void parsesStreamAliases() {
+        assertEquals(Optional.of(CurrentStream.QA), BandStreamNormalizer.parseStream("Quality Assurance"));
+        assertEquals(Optional.of(CurrentStream.UI_UX), BandStreamNormalizer.parseStream("UI/UX"));
+        assertEquals(Optional.of(CurrentStream.DATA), BandStreamNormalizer.parseStream("ai_ml"));
+        assertEquals(Optional.of(CurrentStream.Development), BandStreamNormalizer.parseStream(" Full-Stack "));
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseStream("Marketing"));
+        assertEquals("Devops", BandStreamNormalizer.canonicalStreamLabel("dev ops"));
+        assertEquals("Marketing", BandStreamNormalizer.canonicalStreamLabel(" Marketing "));
+    }
+
+    @Test
+    void foldsNonAsciiInputLikeStringCaseMapping() {
+        assertEquals(Optional.of(CurrentStream.QA), BandStreamNormalizer.parseStream("\u00e9QA"));
+        // U+00DF upper-cases to "SS", so it is not simply dropped
+        assertEquals(Optional.empty(), BandStreamNormalizer.parseBand("\u00dfB8"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.webknot.kpi.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RawJsonTest {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    @Test
+    void putIfAbsentKeepsPresentValuesAndAppendsMissingOnes() {
+        Map<String, String> extras = new LinkedHashMap<>();
+        extras.put("reviewStatus", "\"SUBMITTED\"");
+        extras.put("managerReview", "{\"action\":\"APPROVE\"}");
+
+        assertEquals("{\"reviewStatus\":\"DRAFT\",\"x\":[1,{\"reviewStatus\":null}],\"managerReview\":{\"action\":\"APPROVE\"}}",
+                RawJson.putIfAbsent(FACTORY, " {\"reviewStatus\":\"DRAFT\",\"x\":[1,{\"reviewStatus\":null}]} ", extras));
+        assertEquals("{\"reviewStatus\":\"SUBMITTED\",\"managerReview\":{\"action\":\"APPROVE\"}}",
+                RawJson.putIfAbsent(FACTORY, "{}", extras));
+    }
+
+    @Test
+    void putIfAbsentReplacesNullValuedKeysInPlace() {
+        Map<String, String> extras = new LinkedHashMap<>();
+        extras.put("managerReview", "{\"action\":\"APPROVE\"}");
+        extras.put("reviewStatus", "\"SUBMITTED\"");
+        extras.put("adminReview", "{}");
+
+        assertEquals("{\"reviewStatus\" : \"SUBMITTED\",\"a\":1,\"managerReview\":{\"action\":\"APPROVE\"},\"adminReview\":{}}",
+                RawJson.putIfAbsent(FACTORY, "{\"reviewStatus\" : null,\"a\":1,\"managerReview\":null}", extras));
+        assertEquals("{\"other\":null,\"reviewStatus\":\"SUBMITTED\"}",
+                RawJson.putIfAbsent(FACTORY, "{\"other\":null,\"reviewStatus\":null}", Map.of("reviewStatus", "\"SUBMITTED\"")));
+    }
+
+    @Test
+    void putIfAbsentRejectsAnythingButAWellFormedObject() {
+        Map<String, String> extras = Map.of("reviewStatus", "null");
+        assertNull(RawJson.putIfAbsent(FACTORY, "[1,2]", extras));
+        assertNull(RawJson.putIfAbsent(FACTORY, "{\"a\":1", extras));
+        assertNull(RawJson.putIfAbsent(FACTORY, "{\"a\":1} {}", extras));
+        assertNull(RawJson.putIfAbsent(FACTORY, " ", extras));
+    }
+
+    @Test
+    void projectKeepsOnlyRequestedFields() {
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("id", "1");
+        source.put("month", "2026-03");
+        source.put("payload", null);
+        assertEquals(Map.of("month", "2026-03"), RawJson.project(source, Set.of("month")));
+        assertEquals(source, RawJson.project(source, null));
+        assertEquals(Set.of("id", "month"), RawJson.parseFields(" id, ,month "));
+    }
+}